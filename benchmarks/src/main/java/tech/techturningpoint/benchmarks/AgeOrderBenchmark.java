@@ -0,0 +1,86 @@
+package tech.techturningpoint.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tech.techturningpoint.model.Person;
+import tech.techturningpoint.service.AgeOrder;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Tri par âge : tri par comparaison d'origine (sorted(Comparator.comparing(p -> p.getAge())))
+ * contre le tri par dénombrement de {@link AgeOrder}, et extraction des N plus jeunes ou plus âgés
+ * par tri complet puis limit(N) contre le tas borné.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class AgeOrderBenchmark {
+
+    @Param({"10000000"})
+    public int size;
+
+    @Param({"100"})
+    public int n;
+
+    private List<Person> persons;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        persons = BenchmarkData.personsWithoutPlaylists(size);
+    }
+
+    @Benchmark
+    public List<Person> sortedByAgeComparator() {
+        return persons.stream()
+                .sorted(Comparator.comparing(p -> p.getAge()))
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<Person> sortedByAgeCounting() {
+        return AgeOrder.sortedByAge(persons);
+    }
+
+    @Benchmark
+    public List<Person> youngestNSorted() {
+        return persons.stream()
+                .sorted(Comparator.comparing(p -> p.getAge()))
+                .limit(n)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<Person> youngestNHeap() {
+        return AgeOrder.youngest(persons, n);
+    }
+
+    @Benchmark
+    public List<Person> oldestNSorted() {
+        return persons.stream()
+                .sorted(Comparator.comparing((Person p) -> p.getAge()).reversed())
+                .limit(n)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<Person> oldestNHeap() {
+        return AgeOrder.oldest(persons, n);
+    }
+}
@@ -0,0 +1,120 @@
+package tech.techturningpoint.benchmarks;
+
+import tech.techturningpoint.model.Artiste;
+import tech.techturningpoint.model.Person;
+import tech.techturningpoint.service.PasswordCorpusGenerator;
+import tech.techturningpoint.service.PasswordStrengthScorer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+/**
+ * Jeux de données des benchmarks, reproductibles d'une exécution à l'autre.
+ */
+final class BenchmarkData {
+
+    private static final long SEED = 42L;
+
+    private static final String[] SEXES = {"M", "F"};
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Corpus synthétique modelé sur leaked_passwords.txt, identique d'une exécution à l'autre.
+     * @param size nombre de mots de passe
+     * @return liste de mots de passe
+     */
+    static List<String> passwords(final int size) {
+        PasswordCorpusGenerator generator;
+        try (InputStream in = BenchmarkData.class.getClassLoader().getResourceAsStream("leaked_passwords.txt");
+             BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            generator = PasswordCorpusGenerator.fromSample(reader.lines());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return generator.generate(SEED).limit(size).collect(Collectors.toList());
+    }
+
+    /**
+     * Moteur de score dont le dictionnaire est 10k_most_common.txt, lu dans le jar des benchmarks.
+     * @return moteur de score
+     */
+    static PasswordStrengthScorer scorer() {
+        try (InputStream in = BenchmarkData.class.getClassLoader().getResourceAsStream("10k_most_common.txt");
+             BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            return PasswordStrengthScorer.of(reader.lines());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Ecrit les mots de passe dans un fichier temporaire supprimé à l'arrêt de la JVM.
+     * @param passwords mots de passe
+     * @return fichier écrit
+     */
+    static Path writeTempFile(final List<String> passwords) {
+        try {
+            Path file = Files.createTempFile("passwords", ".txt");
+            file.toFile().deleteOnExit();
+            Files.write(file, passwords, StandardCharsets.UTF_8);
+            return file;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Population aléatoire à graine fixe : âges de 0 à 99, 0 à 5 artistes classés de 1 à 200.
+     * @param size nombre de personnes
+     * @return personnes
+     */
+    static List<Person> persons(final int size) {
+        Random random = new Random(SEED);
+        List<Person> persons = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Person person = new Person(name(random), random.nextInt(100), SEXES[random.nextInt(2)]);
+            int artistes = random.nextInt(6);
+            person.dansMonIpod = new ArrayList<>(artistes);
+            for (int j = 0; j < artistes; j++) {
+                person.dansMonIpod.add(new Artiste("Artiste " + random.nextInt(1000), 1 + random.nextInt(200)));
+            }
+            persons.add(person);
+        }
+        return persons;
+    }
+
+    /**
+     * Population aléatoire à graine fixe sans playlist (âges de 0 à 99), pour les très grandes tailles.
+     * @param size nombre de personnes
+     * @return personnes
+     */
+    static List<Person> personsWithoutPlaylists(final int size) {
+        Random random = new Random(SEED);
+        List<Person> persons = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            persons.add(new Person(name(random), random.nextInt(100), SEXES[random.nextInt(2)]));
+        }
+        return persons;
+    }
+
+    private static String name(final Random random) {
+        char[] name = new char[4 + random.nextInt(6)];
+        name[0] = (char) ('A' + random.nextInt(26));
+        for (int i = 1; i < name.length; i++) {
+            name[i] = (char) ('a' + random.nextInt(26));
+        }
+        return new String(name);
+    }
+}
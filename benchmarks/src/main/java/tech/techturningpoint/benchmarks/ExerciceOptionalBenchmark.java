@@ -0,0 +1,107 @@
+package tech.techturningpoint.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import tech.techturningpoint.model.Person;
+import tech.techturningpoint.model.PersonStore;
+import tech.techturningpoint.service.ExerciceOptional;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Résolution des noms d'artiste et de chef : appel unitaire avec Optional contre versions en masse.
+ * Une opération correspond à une personne : gc.alloc.rate.norm donne les octets alloués par personne.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@OperationsPerInvocation(ExerciceOptionalBenchmark.SIZE)
+public class ExerciceOptionalBenchmark {
+
+    static final int SIZE = 1000000;
+
+    private final ExerciceOptional exo = new ExerciceOptional();
+    private List<Person> persons;
+    private PersonStore store;
+    private String[] names;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        persons = BenchmarkData.persons(SIZE);
+        Random random = new Random(42L);
+        for (int i = 1; i < SIZE; i++) {
+            if (random.nextInt(10) != 0) {
+                persons.get(i).chef = Optional.of(persons.get(random.nextInt(i)));
+            }
+        }
+        store = PersonStore.of(persons);
+        names = new String[SIZE];
+    }
+
+    @Benchmark
+    public String[] getNameFirstArtisteInIpodPerCall() {
+        for (int i = 0; i < SIZE; i++) {
+            names[i] = exo.getNameFirstArtisteInIpod(persons.get(i));
+        }
+        return names;
+    }
+
+    @Benchmark
+    public String[] getNamesFirstArtisteInIpodArray() {
+        exo.getNamesFirstArtisteInIpod(persons, names);
+        return names;
+    }
+
+    @Benchmark
+    public String[] getNamesFirstArtisteInIpodStore() {
+        exo.getNamesFirstArtisteInIpod(store, names);
+        return names;
+    }
+
+    @Benchmark
+    public void getNamesFirstArtisteInIpodConsumer(final Blackhole blackhole) {
+        exo.getNamesFirstArtisteInIpod(persons, blackhole::consume);
+    }
+
+    @Benchmark
+    public String[] getNameOfChefPerCall() {
+        for (int i = 0; i < SIZE; i++) {
+            names[i] = exo.getNameOfChef(persons.get(i));
+        }
+        return names;
+    }
+
+    @Benchmark
+    public String[] getNamesOfChefArray() {
+        exo.getNamesOfChef(persons, names);
+        return names;
+    }
+
+    @Benchmark
+    public String[] getNamesOfChefStore() {
+        exo.getNamesOfChef(store, names);
+        return names;
+    }
+
+    @Benchmark
+    public void getNamesOfChefConsumer(final Blackhole blackhole) {
+        exo.getNamesOfChef(persons, blackhole::consume);
+    }
+}
@@ -0,0 +1,97 @@
+package tech.techturningpoint.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tech.techturningpoint.model.Person;
+import tech.techturningpoint.model.PersonStore;
+import tech.techturningpoint.service.ColumnarExerciceStream;
+import tech.techturningpoint.service.ExerciceStream;
+import tech.techturningpoint.service.IExerciceStream;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks de toutes les méthodes de {@link ExerciceStream} (impl=stream)
+ * et de {@link ColumnarExerciceStream} sur un {@link PersonStore} construit à l'avance (impl=columnar).
+ * Les méthodes créent elles-mêmes leur Stream : seule la version séquentielle existe.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExerciceStreamBenchmark {
+
+    @Param({"10000", "1000000"})
+    public int size;
+
+    @Param({"stream", "columnar"})
+    public String impl;
+
+    private IExerciceStream exo;
+    private List<Person> persons;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        persons = BenchmarkData.persons(size);
+        if ("columnar".equals(impl)) {
+            exo = new ColumnarExerciceStream();
+            persons = PersonStore.of(persons);
+        } else {
+            exo = new ExerciceStream();
+        }
+    }
+
+    @Benchmark
+    public List<String> getNamesSortedByAge() {
+        return exo.getNamesSortedByAge(persons);
+    }
+
+    @Benchmark
+    public String displayNamesFromYoungestToOldest() {
+        return exo.displayNamesFromYoungestToOldest(persons);
+    }
+
+    @Benchmark
+    public double averageAge() {
+        return exo.averageAge(persons);
+    }
+
+    @Benchmark
+    public double averageAgeMale() {
+        return exo.averageAgeMale(persons);
+    }
+
+    @Benchmark
+    public double averageAgeByInitial() {
+        return exo.averageAgeByInitial(persons, "S");
+    }
+
+    @Benchmark
+    public Map<String, Double> averageAgeBySex() {
+        return exo.averageAgeBySex(persons);
+    }
+
+    @Benchmark
+    public List<Person> getMainstreamMusicListeners() {
+        return exo.getMainstreamMusicListeners(persons);
+    }
+
+    @Benchmark
+    public List<Person> getMainstreamMusicListenersJava8() {
+        return exo.getMainstreamMusicListenersJava8(persons);
+    }
+}
@@ -0,0 +1,70 @@
+package tech.techturningpoint.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import tech.techturningpoint.service.PasswordStats;
+import tech.techturningpoint.service.PasswordStrengthScorer;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks des méthodes de {@link PasswordStats} et {@link PasswordStrengthScorer} qui examinent un seul mot de passe.
+ *
+ * Elles ne lisent pas de Stream : seule la taille du jeu de données varie, contrairement à
+ * {@link PasswordStatsBenchmark} qui croise source, parallélisme et métriques.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PasswordCheckBenchmark {
+
+    @Param({"10000", "1000000"})
+    public int size;
+
+    private PasswordStats stats;
+    private PasswordStrengthScorer scorer;
+    private List<String> passwords;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        stats = new PasswordStats();
+        scorer = BenchmarkData.scorer();
+        passwords = BenchmarkData.passwords(size);
+    }
+
+    @Benchmark
+    public void isStrongPassword(final Blackhole blackhole) {
+        for (String password : passwords) {
+            blackhole.consume(stats.isStrongPassword(password));
+        }
+    }
+
+    @Benchmark
+    public void getIndexOfSpecialChar(final Blackhole blackhole) {
+        for (String password : passwords) {
+            blackhole.consume(stats.getIndexOfSpecialChar(password));
+        }
+    }
+
+    @Benchmark
+    public void entropy(final Blackhole blackhole) {
+        for (String password : passwords) {
+            blackhole.consume(scorer.entropy(password));
+        }
+    }
+}
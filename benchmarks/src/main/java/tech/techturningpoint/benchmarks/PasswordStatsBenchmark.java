@@ -0,0 +1,157 @@
+package tech.techturningpoint.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tech.techturningpoint.service.MappedFileLines;
+import tech.techturningpoint.service.PasswordStats;
+import tech.techturningpoint.service.PasswordStatsMetrics;
+import tech.techturningpoint.service.PasswordStrengthScorer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Benchmarks de toutes les méthodes de {@link PasswordStats}.
+ *
+ * Les mots de passe viennent de la mémoire (source=memory), d'un fichier lu avec Files.lines (source=lines)
+ * ou d'un fichier projeté en mémoire (source=mapped), en séquentiel ou en parallèle.
+ * Avec -p metrics=false,true, on mesure le surcoût des métriques de {@link PasswordStatsMetrics}.
+ * Les méthodes sur un seul mot de passe sont dans {@link PasswordCheckBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PasswordStatsBenchmark {
+
+    @Param({"10000", "1000000"})
+    public int size;
+
+    @Param({"false", "true"})
+    public boolean parallel;
+
+    @Param({"memory", "lines", "mapped"})
+    public String source;
+
+    @Param({"false"})
+    public boolean metrics;
+
+    private PasswordStats stats;
+    private PasswordStrengthScorer scorer;
+    private List<String> passwords;
+    private Path file;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        stats = new PasswordStats(metrics ? PasswordStatsMetrics.enabled() : new PasswordStatsMetrics());
+        scorer = BenchmarkData.scorer();
+        passwords = BenchmarkData.passwords(size);
+        file = BenchmarkData.writeTempFile(passwords);
+    }
+
+    private Stream<String> open() {
+        try {
+            switch (source) {
+                case "lines":
+                    Stream<String> lines = Files.lines(file, StandardCharsets.UTF_8);
+                    return parallel ? lines.parallel() : lines;
+                case "mapped":
+                    return MappedFileLines.lines(file, StandardCharsets.UTF_8, parallel);
+                default:
+                    return parallel ? passwords.parallelStream() : passwords.stream();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Exécute la requête sur un Stream fermé à la fin.
+     */
+    private <T> T query(final Function<Supplier<Stream<String>>, T> method) {
+        try (Stream<String> stream = open()) {
+            return method.apply(() -> stream);
+        }
+    }
+
+    @Benchmark
+    public List<String> getAllWithUppercaseAndLowercase() {
+        return query(stats::getAllWithUppercaseAndLowercase);
+    }
+
+    @Benchmark
+    public List<String> getAllWithNumbers() {
+        return query(stats::getAllWithNumbers);
+    }
+
+    @Benchmark
+    public List<String> getAllWithSpecialChars() {
+        return query(stats::getAllWithSpecialChars);
+    }
+
+    @Benchmark
+    public List<String> getAllStrong() {
+        return query(stats::getAllStrong);
+    }
+
+    @Benchmark
+    public Map<Integer, Long> countBySpecialCharPosition() {
+        return query(stats::countBySpecialCharPosition);
+    }
+
+    @Benchmark
+    public Map<Integer, List<String>> getAllBySpecialCharPosition() {
+        return query(stats::getAllBySpecialCharPosition);
+    }
+
+    @Benchmark
+    public List<String> getAllWithOnlyOneLastSpecialChar() {
+        return query(stats::getAllWithOnlyOneLastSpecialChar);
+    }
+
+    @Benchmark
+    public Object getReport() {
+        return query(stats::getReport);
+    }
+
+    @Benchmark
+    public Object getSpecialCharHistogram() {
+        return query(stats::getSpecialCharHistogram);
+    }
+
+    @Benchmark
+    public Object getSpecialCharPositionIndex() {
+        return query(stats::getSpecialCharPositionIndex);
+    }
+
+    @Benchmark
+    public Object getScoreHistogram() {
+        return query(s -> stats.getScoreHistogram(s, scorer));
+    }
+
+    @Benchmark
+    public Object getFrequencySketch() {
+        return query(s -> stats.getFrequencySketch(s, false));
+    }
+}
@@ -0,0 +1,261 @@
+package tech.techturningpoint.model;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * Population de personnes stockée en colonnes (struct of arrays).
+ *
+ * Colonnes : âges en int[], sexe codé sur un octet, noms encodés par dictionnaire,
+ * playlists aplaties (pour chaque personne, un intervalle d'entrées pointant vers un dictionnaire d'artistes).
+ * Les colonnes sont un instantané : modifier ensuite les personnes d'origine ne change pas les requêtes
+ * qui les lisent. Le store est aussi une {@code List<Person>} des personnes d'origine ({@link #get(int)}),
+ * ce qui permet de le passer à toute méthode de {@link tech.techturningpoint.service.IExerciceStream}.
+ */
+public final class PersonStore extends AbstractList<Person> implements RandomAccess {
+
+    /**
+     * Code de sexe d'une personne sans sexe renseigné.
+     */
+    public static final byte NO_SEX = -1;
+
+    private final Person[] persons;
+
+    /**
+     * Chefs au moment de la construction, personnes d'origine ; null si absent.
+     */
+    private final Person[] chefs;
+
+    private final int[] ages;
+    private final byte[] sexes;
+    private final String[] sexDictionary;
+
+    private final int[] nameIds;
+    private final String[] nameDictionary;
+
+    /**
+     * Entrées de la playlist de la personne i : [playlistOffsets[i], playlistOffsets[i + 1]).
+     */
+    private final int[] playlistOffsets;
+    private final int[] playlistArtists;
+    private final String[] artistNames;
+    private final double[] artistRankings;
+
+    private PersonStore(final List<Person> source) {
+        persons = source.toArray(new Person[0]);
+        int size = persons.length;
+        chefs = new Person[size];
+        ages = new int[size];
+        sexes = new byte[size];
+        nameIds = new int[size];
+        playlistOffsets = new int[size + 1];
+
+        Map<String, Integer> sexCodes = new HashMap<>();
+        List<String> sexValues = new ArrayList<>();
+        Map<String, Integer> nameCodes = new HashMap<>();
+        List<String> nameValues = new ArrayList<>();
+        Map<String, Map<Double, Integer>> artistCodes = new HashMap<>();
+        List<Artiste> artistValues = new ArrayList<>();
+        int[] entries = new int[Math.max(16, size)];
+        int entryCount = 0;
+
+        for (int i = 0; i < size; i++) {
+            Person person = persons[i];
+            ages[i] = person.getAge();
+            chefs[i] = person.chef == null ? null : person.chef.orElse(null);
+            if (person.sexe == null) {
+                sexes[i] = NO_SEX;
+            } else {
+                Integer code = sexCodes.get(person.sexe);
+                if (code == null) {
+                    if (sexValues.size() == Byte.MAX_VALUE) {
+                        throw new IllegalArgumentException("Trop de valeurs de sexe distinctes : " + sexCodes.keySet());
+                    }
+                    code = sexValues.size();
+                    sexCodes.put(person.sexe, code);
+                    sexValues.add(person.sexe);
+                }
+                sexes[i] = code.byteValue();
+            }
+            Integer nameId = nameCodes.get(person.nom);
+            if (nameId == null) {
+                nameId = nameValues.size();
+                nameCodes.put(person.nom, nameId);
+                nameValues.add(person.nom);
+            }
+            nameIds[i] = nameId;
+
+            if (person.dansMonIpod != null) {
+                for (Artiste artiste : person.dansMonIpod) {
+                    Map<Double, Integer> byRanking = artistCodes.computeIfAbsent(artiste.nom, k -> new HashMap<>());
+                    Integer artistId = byRanking.get(artiste.classement);
+                    if (artistId == null) {
+                        artistId = artistValues.size();
+                        byRanking.put(artiste.classement, artistId);
+                        artistValues.add(artiste);
+                    }
+                    if (entryCount == entries.length) {
+                        entries = Arrays.copyOf(entries, entries.length * 2);
+                    }
+                    entries[entryCount++] = artistId;
+                }
+            }
+            playlistOffsets[i + 1] = entryCount;
+        }
+
+        sexDictionary = sexValues.toArray(new String[0]);
+        nameDictionary = nameValues.toArray(new String[0]);
+        playlistArtists = Arrays.copyOf(entries, entryCount);
+        artistNames = new String[artistValues.size()];
+        artistRankings = new double[artistValues.size()];
+        for (int a = 0; a < artistNames.length; a++) {
+            artistNames[a] = artistValues.get(a).nom;
+            artistRankings[a] = artistValues.get(a).classement;
+        }
+    }
+
+    /**
+     * Construit le store à partir d'une liste de personnes.
+     * @param persons personnes (une playlist null est stockée vide)
+     * @return store en colonnes
+     */
+    public static PersonStore of(final List<Person> persons) {
+        return persons instanceof PersonStore ? (PersonStore) persons : new PersonStore(persons);
+    }
+
+    /**
+     * @param index indice de la personne
+     * @return personne d'origine, qui peut avoir été modifiée depuis la construction du store
+     */
+    @Override
+    public Person get(final int index) {
+        return persons[index];
+    }
+
+    /**
+     * @param index indice de la personne
+     * @return chef d'origine, null s'il n'en a pas
+     */
+    public Person getChef(final int index) {
+        return chefs[index];
+    }
+
+    @Override
+    public int size() {
+        return ages.length;
+    }
+
+    /**
+     * @param index indice de la personne
+     * @return âge
+     */
+    public int getAge(final int index) {
+        return ages[index];
+    }
+
+    /**
+     * @param index indice de la personne
+     * @return code du sexe dans le dictionnaire, {@link #NO_SEX} si absent
+     */
+    public byte getSexCode(final int index) {
+        return sexes[index];
+    }
+
+    /**
+     * @return nombre de valeurs distinctes de sexe
+     */
+    public int sexCount() {
+        return sexDictionary.length;
+    }
+
+    /**
+     * @param code code de sexe
+     * @return valeur du sexe
+     */
+    public String getSex(final int code) {
+        return sexDictionary[code];
+    }
+
+    /**
+     * @param index indice de la personne
+     * @return identifiant du nom dans le dictionnaire
+     */
+    public int getNameId(final int index) {
+        return nameIds[index];
+    }
+
+    /**
+     * @return nombre de noms distincts
+     */
+    public int nameCount() {
+        return nameDictionary.length;
+    }
+
+    /**
+     * @param nameId identifiant du nom
+     * @return nom
+     */
+    public String getName(final int nameId) {
+        return nameDictionary[nameId];
+    }
+
+    /**
+     * @param index indice de la personne
+     * @return nom de la personne
+     */
+    public String getNom(final int index) {
+        return nameDictionary[nameIds[index]];
+    }
+
+    /**
+     * @param index indice de la personne
+     * @return première entrée de sa playlist
+     */
+    public int playlistStart(final int index) {
+        return playlistOffsets[index];
+    }
+
+    /**
+     * @param index indice de la personne
+     * @return fin (exclue) de sa playlist
+     */
+    public int playlistEnd(final int index) {
+        return playlistOffsets[index + 1];
+    }
+
+    /**
+     * @param entry entrée de playlist
+     * @return identifiant de l'artiste
+     */
+    public int getArtistId(final int entry) {
+        return playlistArtists[entry];
+    }
+
+    /**
+     * @return nombre d'artistes distincts (nom et classement)
+     */
+    public int artistCount() {
+        return artistNames.length;
+    }
+
+    /**
+     * @param artistId identifiant de l'artiste
+     * @return nom de l'artiste
+     */
+    public String getArtistName(final int artistId) {
+        return artistNames[artistId];
+    }
+
+    /**
+     * @param artistId identifiant de l'artiste
+     * @return classement de l'artiste
+     */
+    public double getArtistRanking(final int artistId) {
+        return artistRankings[artistId];
+    }
+}
@@ -0,0 +1,193 @@
+package tech.techturningpoint.service;
+
+import tech.techturningpoint.model.Person;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Tris spécialisés par âge, stables pour les âges égaux.
+ *
+ * Les âges occupent une petite plage d'entiers : le tri complet est un tri par dénombrement
+ * (un tri par base sur 16 bits, en deux passes si la plage dépasse 65536 valeurs), sans comparateur ni boxing.
+ * Les N plus jeunes ou plus âgés sont extraits avec un tas borné à N éléments, sans trier toute la liste.
+ */
+public final class AgeOrder {
+
+    private static final int RADIX_BITS = 16;
+    private static final int RADIX = 1 << RADIX_BITS;
+
+    private AgeOrder() {
+    }
+
+    /**
+     * Indices triés par âge croissant, en conservant l'ordre d'origine pour les âges égaux.
+     * @param ages âges, par indice
+     * @return indices triés
+     */
+    public static int[] sortedIndexes(final int[] ages) {
+        int size = ages.length;
+        int[] sorted = new int[size];
+        if (size == 0) {
+            return sorted;
+        }
+        int min = ages[0];
+        int max = ages[0];
+        for (int age : ages) {
+            min = Math.min(min, age);
+            max = Math.max(max, age);
+        }
+        int[] keys = new int[size];
+        for (int i = 0; i < size; i++) {
+            // Décalage non signé : la différence tient dans 32 bits même si elle dépasse Integer.MAX_VALUE
+            keys[i] = ages[i] - min;
+        }
+        for (int i = 0; i < size; i++) {
+            sorted[i] = i;
+        }
+        long range = (long) max - min;
+        int[] buffer = new int[size];
+        int digits = (int) Math.min(range + 1, RADIX);
+        int[] counts = new int[digits + 1];
+        for (int shift = 0; shift < Integer.SIZE && range >>> shift != 0; shift += RADIX_BITS) {
+            Arrays.fill(counts, 0);
+            for (int i : sorted) {
+                counts[(keys[i] >>> shift & RADIX - 1) + 1]++;
+            }
+            for (int d = 0; d < digits; d++) {
+                counts[d + 1] += counts[d];
+            }
+            for (int i : sorted) {
+                buffer[counts[keys[i] >>> shift & RADIX - 1]++] = i;
+            }
+            int[] swap = sorted;
+            sorted = buffer;
+            buffer = swap;
+        }
+        return sorted;
+    }
+
+    /**
+     * Trie les personnes par âge croissant, en conservant l'ordre d'origine pour les âges égaux.
+     * @param persons Liste de personnes
+     * @return nouvelle liste triée
+     */
+    public static List<Person> sortedByAge(final List<Person> persons) {
+        Person[] source = persons.toArray(new Person[0]);
+        int[] ages = new int[source.length];
+        for (int i = 0; i < source.length; i++) {
+            ages[i] = source[i].getAge();
+        }
+        List<Person> sorted = new ArrayList<>(source.length);
+        for (int i : sortedIndexes(ages)) {
+            sorted.add(source[i]);
+        }
+        return sorted;
+    }
+
+    /**
+     * Les n plus jeunes, du plus jeune au plus âgé ; à âge égal, dans l'ordre d'origine.
+     * @param persons Liste de personnes
+     * @param n nombre maximal de personnes
+     * @return au plus n personnes
+     */
+    public static List<Person> youngest(final List<Person> persons, final int n) {
+        return select(persons, n, false);
+    }
+
+    /**
+     * Les n plus âgés, du plus âgé au plus jeune ; à âge égal, dans l'ordre d'origine.
+     * @param persons Liste de personnes
+     * @param n nombre maximal de personnes
+     * @return au plus n personnes
+     */
+    public static List<Person> oldest(final List<Person> persons, final int n) {
+        return select(persons, n, true);
+    }
+
+    /**
+     * Garde les n plus petites clés (clé, indice) dans un tas max : la racine est la candidate à évincer.
+     * Pour les plus âgés, la clé est ~âge, qui inverse l'ordre sans débordement.
+     * Un nouvel élément de même clé que la racine a un indice plus grand : il est rejeté, d'où la stabilité.
+     */
+    private static List<Person> select(final List<Person> persons, final int n, final boolean oldest) {
+        if (n < 0) {
+            throw new IllegalArgumentException("Nombre de personnes négatif : " + n);
+        }
+        int capacity = Math.min(n, persons.size());
+        if (capacity == 0) {
+            return new ArrayList<>();
+        }
+        int[] keys = new int[capacity];
+        int[] indexes = new int[capacity];
+        Person[] selected = new Person[capacity];
+        int heapSize = 0;
+        int index = 0;
+        for (Person person : persons) {
+            int key = oldest ? ~person.getAge() : person.getAge();
+            if (heapSize < capacity) {
+                keys[heapSize] = key;
+                indexes[heapSize] = index;
+                selected[heapSize] = person;
+                siftUp(keys, indexes, selected, heapSize++);
+            } else if (key < keys[0]) {
+                keys[0] = key;
+                indexes[0] = index;
+                selected[0] = person;
+                siftDown(keys, indexes, selected, 0, heapSize);
+            }
+            index++;
+        }
+        Person[] result = new Person[heapSize];
+        for (int last = heapSize - 1; last >= 0; last--) {
+            result[last] = selected[0];
+            swap(keys, indexes, selected, 0, last);
+            siftDown(keys, indexes, selected, 0, last);
+        }
+        return new ArrayList<>(Arrays.asList(result));
+    }
+
+    private static boolean greater(final int[] keys, final int[] indexes, final int a, final int b) {
+        return keys[a] > keys[b] || keys[a] == keys[b] && indexes[a] > indexes[b];
+    }
+
+    private static void siftUp(final int[] keys, final int[] indexes, final Person[] selected, final int from) {
+        int child = from;
+        while (child > 0) {
+            int parent = (child - 1) >>> 1;
+            if (!greater(keys, indexes, child, parent)) {
+                return;
+            }
+            swap(keys, indexes, selected, child, parent);
+            child = parent;
+        }
+    }
+
+    private static void siftDown(final int[] keys, final int[] indexes, final Person[] selected,
+                                 final int from, final int size) {
+        int parent = from;
+        for (int child = 2 * parent + 1; child < size; child = 2 * parent + 1) {
+            if (child + 1 < size && greater(keys, indexes, child + 1, child)) {
+                child++;
+            }
+            if (!greater(keys, indexes, child, parent)) {
+                return;
+            }
+            swap(keys, indexes, selected, child, parent);
+            parent = child;
+        }
+    }
+
+    private static void swap(final int[] keys, final int[] indexes, final Person[] selected, final int a, final int b) {
+        int key = keys[a];
+        keys[a] = keys[b];
+        keys[b] = key;
+        int index = indexes[a];
+        indexes[a] = indexes[b];
+        indexes[b] = index;
+        Person person = selected[a];
+        selected[a] = selected[b];
+        selected[b] = person;
+    }
+}
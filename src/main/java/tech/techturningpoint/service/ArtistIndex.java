@@ -0,0 +1,269 @@
+package tech.techturningpoint.service;
+
+import tech.techturningpoint.model.Artiste;
+import tech.techturningpoint.model.Person;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Index inversé des auditeurs par artiste, construit une fois pour une population.
+ *
+ * Les personnes sont numérotées dans l'ordre alphabétique des noms (tri stable) : toute liste de numéros
+ * croissants est donc déjà triée par nom. L'index contient :
+ * <ul>
+ *     <li>le meilleur classement (le plus petit) de chaque personne, regroupé par niveau de classement trié ;</li>
+ *     <li>pour chaque nom d'artiste, les numéros de ses auditeurs ;</li>
+ *     <li>une seule instance d'{@link Artiste} par couple (nom, classement).</li>
+ * </ul>
+ * Les auditeurs d'un artiste classé au plus N s'obtiennent par fusion des niveaux retenus,
+ * en O(log(niveaux) + résultat * log(niveaux)), sans parcourir les playlists ni trier.
+ * Les personnes sans playlist ne sont pas indexées ; l'index ne suit pas les modifications ultérieures.
+ */
+public final class ArtistIndex {
+
+    private static final int[] EMPTY = new int[0];
+
+    /**
+     * Personnes par ordre alphabétique des noms.
+     */
+    private final Person[] byName;
+
+    /**
+     * Niveaux de meilleur classement, croissants, et pour chacun les numéros des personnes concernées.
+     */
+    private final double[] levels;
+    private final int[][] levelPersons;
+
+    /**
+     * Nombre cumulé de personnes jusqu'au niveau i inclus.
+     */
+    private final int[] levelCumulative;
+
+    private final Map<String, int[]> listeners;
+    private final Map<String, Map<Double, Artiste>> artists;
+    private final List<Artiste> artistList;
+
+    private ArtistIndex(final Collection<Person> persons) {
+        List<Person> sorted = new ArrayList<>(persons.size());
+        for (Person person : persons) {
+            if (person.dansMonIpod != null) {
+                sorted.add(person);
+            }
+        }
+        sorted.sort(Comparator.comparing(p -> p.nom, Comparator.nullsLast(Comparator.<String>naturalOrder())));
+        byName = sorted.toArray(new Person[0]);
+
+        artists = new HashMap<>();
+        artistList = new ArrayList<>();
+        Map<String, IntList> listenerLists = new HashMap<>();
+        Map<Double, IntList> levelLists = new HashMap<>();
+        for (int rank = 0; rank < byName.length; rank++) {
+            double best = Double.NaN;
+            for (Artiste artiste : byName[rank].dansMonIpod) {
+                intern(artiste);
+                if (Double.isNaN(best) || artiste.classement < best) {
+                    best = artiste.classement;
+                }
+                listenerLists.computeIfAbsent(artiste.nom, k -> new IntList()).addDistinct(rank);
+            }
+            if (!Double.isNaN(best)) {
+                levelLists.computeIfAbsent(best, k -> new IntList()).addDistinct(rank);
+            }
+        }
+
+        levels = new double[levelLists.size()];
+        int l = 0;
+        for (Double level : levelLists.keySet()) {
+            levels[l++] = level;
+        }
+        Arrays.sort(levels);
+        levelPersons = new int[levels.length][];
+        levelCumulative = new int[levels.length];
+        int total = 0;
+        for (l = 0; l < levels.length; l++) {
+            levelPersons[l] = levelLists.get(levels[l]).toArray();
+            total += levelPersons[l].length;
+            levelCumulative[l] = total;
+        }
+
+        listeners = new HashMap<>();
+        listenerLists.forEach((nom, ranks) -> listeners.put(nom, ranks.toArray()));
+    }
+
+    /**
+     * Construit l'index.
+     * @param persons personnes
+     * @return index
+     */
+    public static ArtistIndex of(final Collection<Person> persons) {
+        return new ArtistIndex(persons);
+    }
+
+    /**
+     * Instance unique de l'artiste de même nom et de même classement.
+     * @param artiste artiste
+     * @return instance partagée, ou l'artiste lui-même s'il n'est écouté par personne
+     */
+    public Artiste getArtist(final Artiste artiste) {
+        Map<Double, Artiste> byRanking = artists.get(artiste.nom);
+        Artiste interned = byRanking == null ? null : byRanking.get(artiste.classement);
+        return interned == null ? artiste : interned;
+    }
+
+    /**
+     * @return artistes distincts (nom et classement), dans l'ordre de première écoute
+     */
+    public List<Artiste> getArtists() {
+        return Collections.unmodifiableList(artistList);
+    }
+
+    /**
+     * @param maxRanking classement maximal
+     * @return nombre de personnes qui écoutent un artiste classé au plus maxRanking
+     */
+    public int countListeners(final double maxRanking) {
+        int count = levelCount(maxRanking);
+        return count == 0 ? 0 : levelCumulative[count - 1];
+    }
+
+    /**
+     * Personnes qui écoutent un artiste classé au plus maxRanking, par ordre alphabétique.
+     * {@code getListeners(10)} correspond à {@link IExerciceStream#getMainstreamMusicListeners}.
+     * @param maxRanking classement maximal
+     * @return liste de personnes
+     */
+    public List<Person> getListeners(final double maxRanking) {
+        int count = levelCount(maxRanking);
+        List<Person> result = new ArrayList<>(count == 0 ? 0 : levelCumulative[count - 1]);
+        if (count == 1) {
+            for (int rank : levelPersons[0]) {
+                result.add(byName[rank]);
+            }
+        } else if (count > 1) {
+            merge(count, result);
+        }
+        return result;
+    }
+
+    /**
+     * @param artiste nom de l'artiste
+     * @return personnes qui écoutent cet artiste (quel que soit son classement), par ordre alphabétique
+     */
+    public List<Person> getListenersOf(final String artiste) {
+        int[] ranks = listeners.getOrDefault(artiste, EMPTY);
+        List<Person> result = new ArrayList<>(ranks.length);
+        for (int rank : ranks) {
+            result.add(byName[rank]);
+        }
+        return result;
+    }
+
+    private void intern(final Artiste artiste) {
+        Map<Double, Artiste> byRanking = artists.computeIfAbsent(artiste.nom, k -> new HashMap<>());
+        if (!byRanking.containsKey(artiste.classement)) {
+            byRanking.put(artiste.classement, artiste);
+            artistList.add(artiste);
+        }
+    }
+
+    /**
+     * Nombre de niveaux inférieurs ou égaux au classement (recherche dichotomique).
+     */
+    private int levelCount(final double maxRanking) {
+        int low = 0;
+        int high = levels.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (levels[mid] <= maxRanking) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Fusion des count premiers niveaux avec un tas de curseurs ordonné sur le numéro courant.
+     */
+    private void merge(final int count, final List<Person> result) {
+        int[] heap = new int[count];
+        int[] cursors = new int[count];
+        int size = 0;
+        for (int l = 0; l < count; l++) {
+            heap[size] = l;
+            siftUp(heap, cursors, size++);
+        }
+        while (size > 0) {
+            int l = heap[0];
+            result.add(byName[levelPersons[l][cursors[l]]]);
+            if (++cursors[l] == levelPersons[l].length) {
+                heap[0] = heap[--size];
+            }
+            siftDown(heap, cursors, size);
+        }
+    }
+
+    private int head(final int[] cursors, final int level) {
+        return levelPersons[level][cursors[level]];
+    }
+
+    private void siftUp(final int[] heap, final int[] cursors, final int from) {
+        int child = from;
+        while (child > 0) {
+            int parent = (child - 1) >>> 1;
+            if (head(cursors, heap[child]) >= head(cursors, heap[parent])) {
+                return;
+            }
+            int swap = heap[child];
+            heap[child] = heap[parent];
+            heap[parent] = swap;
+            child = parent;
+        }
+    }
+
+    private void siftDown(final int[] heap, final int[] cursors, final int size) {
+        int parent = 0;
+        for (int child = 1; child < size; child = 2 * parent + 1) {
+            if (child + 1 < size && head(cursors, heap[child + 1]) < head(cursors, heap[child])) {
+                child++;
+            }
+            if (head(cursors, heap[child]) >= head(cursors, heap[parent])) {
+                return;
+            }
+            int swap = heap[child];
+            heap[child] = heap[parent];
+            heap[parent] = swap;
+            parent = child;
+        }
+    }
+
+    /**
+     * Liste croissante d'entiers sans doublons consécutifs.
+     */
+    private static final class IntList {
+        private int[] values = new int[4];
+        private int size;
+
+        void addDistinct(final int value) {
+            if (size > 0 && values[size - 1] == value) {
+                return;
+            }
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,321 @@
+package tech.techturningpoint.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collector;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Version non bloquante de {@link PasswordStats}.
+ *
+ * Les méthodes à Supplier exécutent la méthode synchrone correspondante sur l'executor et renvoient
+ * un {@link CompletableFuture} : les méthodes de {@link PasswordStats} restent la seule implémentation.
+ * Les méthodes à {@link PasswordFlow.Publisher} consomment les mots de passe par lots de taille bornée
+ * (voir {@link #DEFAULT_BATCH_SIZE}) : la mémoire reste constante quel que soit le débit de la source,
+ * et annuler le future annule l'abonnement.
+ *
+ * Les lectures de fichiers sont bloquantes : elles tournent sur un executor dédié, jamais sur
+ * le pool commun des Streams parallèles (voir {@link #AsyncPasswordStats(PasswordStats)}).
+ */
+public final class AsyncPasswordStats {
+
+    /**
+     * Nombre maximal de mots de passe demandés à l'avance à un éditeur.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 1024;
+
+    private final PasswordStats stats;
+    private final Executor executor;
+    private final int batchSize;
+
+    /**
+     * Calculs sur un pool partagé de threads démons, un par processeur, distinct du pool commun :
+     * les lectures bloquantes n'affament pas les Streams parallèles, qui utilisent le pool commun.
+     * @param stats implémentation synchrone
+     */
+    public AsyncPasswordStats(final PasswordStats stats) {
+        this(stats, DefaultExecutor.INSTANCE, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Constructeur.
+     * @param stats implémentation synchrone
+     * @param executor threads des calculs à Supplier
+     * @param batchSize nombre maximal de mots de passe demandés à l'avance à un éditeur
+     */
+    public AsyncPasswordStats(final PasswordStats stats, final Executor executor, final int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Taille de lot invalide : " + batchSize);
+        }
+        this.stats = Objects.requireNonNull(stats);
+        this.executor = Objects.requireNonNull(executor);
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * @return implémentation synchrone
+     */
+    public PasswordStats getStats() {
+        return stats;
+    }
+
+    /**
+     * @param allPasswords Stream de mots de passe
+     * @return future de {@link PasswordStats#getAllWithNumbers(Supplier)}
+     */
+    public CompletableFuture<List<String>> getAllWithNumbers(final Supplier<Stream<String>> allPasswords) {
+        return supply(stats::getAllWithNumbers, allPasswords);
+    }
+
+    /**
+     * @param allPasswords Stream de mots de passe
+     * @return future de {@link PasswordStats#getAllWithUppercaseAndLowercase(Supplier)}
+     */
+    public CompletableFuture<List<String>> getAllWithUppercaseAndLowercase(final Supplier<Stream<String>> allPasswords) {
+        return supply(stats::getAllWithUppercaseAndLowercase, allPasswords);
+    }
+
+    /**
+     * @param allPasswords Stream de mots de passe
+     * @return future de {@link PasswordStats#getAllWithSpecialChars(Supplier)}
+     */
+    public CompletableFuture<List<String>> getAllWithSpecialChars(final Supplier<Stream<String>> allPasswords) {
+        return supply(stats::getAllWithSpecialChars, allPasswords);
+    }
+
+    /**
+     * @param allPasswords Stream de mots de passe
+     * @return future de {@link PasswordStats#getAllStrong(Supplier)}
+     */
+    public CompletableFuture<List<String>> getAllStrong(final Supplier<Stream<String>> allPasswords) {
+        return supply(stats::getAllStrong, allPasswords);
+    }
+
+    /**
+     * @param allPasswords Stream de mots de passe
+     * @return future de {@link PasswordStats#countBySpecialCharPosition(Supplier)}
+     */
+    public CompletableFuture<Map<Integer, Long>> countBySpecialCharPosition(final Supplier<Stream<String>> allPasswords) {
+        return supply(stats::countBySpecialCharPosition, allPasswords);
+    }
+
+    /**
+     * @param allPasswords Stream de mots de passe
+     * @return future de {@link PasswordStats#getSpecialCharHistogram(Supplier)}
+     */
+    public CompletableFuture<SpecialCharHistogram> getSpecialCharHistogram(final Supplier<Stream<String>> allPasswords) {
+        return supply(stats::getSpecialCharHistogram, allPasswords);
+    }
+
+    /**
+     * @param allPasswords Stream de mots de passe
+     * @return future de {@link PasswordStats#getAllBySpecialCharPosition(Supplier)}
+     */
+    public CompletableFuture<Map<Integer, List<String>>> getAllBySpecialCharPosition(final Supplier<Stream<String>> allPasswords) {
+        return supply(stats::getAllBySpecialCharPosition, allPasswords);
+    }
+
+    /**
+     * @param allPasswords Stream de mots de passe
+     * @return future de {@link PasswordStats#getSpecialCharPositionIndex(Supplier)}
+     */
+    public CompletableFuture<SpecialCharPositionIndex> getSpecialCharPositionIndex(final Supplier<Stream<String>> allPasswords) {
+        return supply(stats::getSpecialCharPositionIndex, allPasswords);
+    }
+
+    /**
+     * @param allPasswords Stream de mots de passe
+     * @return future de {@link PasswordStats#getAllWithOnlyOneLastSpecialChar(Supplier)}
+     */
+    public CompletableFuture<List<String>> getAllWithOnlyOneLastSpecialChar(final Supplier<Stream<String>> allPasswords) {
+        return supply(stats::getAllWithOnlyOneLastSpecialChar, allPasswords);
+    }
+
+    /**
+     * @param allPasswords Stream de mots de passe
+     * @return future de {@link PasswordStats#getReport(Supplier)}
+     */
+    public CompletableFuture<PasswordReport> getReport(final Supplier<Stream<String>> allPasswords) {
+        return supply(stats::getReport, allPasswords);
+    }
+
+    /**
+     * @param allPasswords Stream de mots de passe
+     * @param scorer moteur de score
+     * @return future de {@link PasswordStats#getScoreHistogram(Supplier, PasswordStrengthScorer)}
+     */
+    public CompletableFuture<PasswordScoreHistogram> getScoreHistogram(final Supplier<Stream<String>> allPasswords,
+                                                                       final PasswordStrengthScorer scorer) {
+        return supply(s -> stats.getScoreHistogram(s, scorer), allPasswords);
+    }
+
+    /**
+     * @param allPasswords Stream de mots de passe
+     * @param exact true pour compter exactement
+     * @return future de {@link PasswordStats#getFrequencySketch(Supplier, boolean)}
+     */
+    public CompletableFuture<PasswordFrequencySketch> getFrequencySketch(final Supplier<Stream<String>> allPasswords,
+                                                                         final boolean exact) {
+        return supply(s -> stats.getFrequencySketch(s, exact), allPasswords);
+    }
+
+    /**
+     * Rapport complet sur les mots de passe d'un éditeur, lus par lots bornés.
+     * @param passwords éditeur de mots de passe
+     * @return future du rapport
+     */
+    public CompletableFuture<PasswordReport> getReport(final PasswordFlow.Publisher<String> passwords) {
+        return collect(passwords, PasswordStatsAccumulator.collector(stats)).thenApply(PasswordStatsAccumulator::snapshot);
+    }
+
+    /**
+     * Mots de passe forts d'un éditeur, lus par lots bornés.
+     * @param passwords éditeur de mots de passe
+     * @return future de la liste
+     */
+    public CompletableFuture<List<String>> getAllStrong(final PasswordFlow.Publisher<String> passwords) {
+        return collect(publishStrong(passwords), Collectors.toList());
+    }
+
+    /**
+     * Histogramme des positions de caractères spéciaux d'un éditeur, lu par lots bornés.
+     * @param passwords éditeur de mots de passe
+     * @return future de l'histogramme
+     */
+    public CompletableFuture<SpecialCharHistogram> getSpecialCharHistogram(final PasswordFlow.Publisher<String> passwords) {
+        BiConsumer<SpecialCharHistogram, String> accumulator = (histogram, p) -> stats.forEachSpecialCharPosition(p, histogram);
+        return collect(passwords, Collector.of(SpecialCharHistogram::new, accumulator, SpecialCharHistogram::merge,
+                Collector.Characteristics.IDENTITY_FINISH));
+    }
+
+    /**
+     * Mots de passe forts, émis au rythme de la demande de l'abonné : rien n'est accumulé.
+     * @param passwords éditeur de mots de passe
+     * @return éditeur des mots de passe forts
+     */
+    public PasswordFlow.Publisher<String> publishStrong(final PasswordFlow.Publisher<String> passwords) {
+        return PasswordFlow.filter(passwords, stats.isStrongPassword);
+    }
+
+    /**
+     * Réduit les éléments d'un éditeur avec un collecteur, en demandant au plus batchSize éléments à l'avance.
+     * Le collecteur est appelé sur les threads de l'éditeur, un élément à la fois.
+     * @param passwords éditeur de mots de passe
+     * @param collector réduction
+     * @param <A> type de l'accumulateur
+     * @param <R> type du résultat
+     * @return future du résultat ; l'annuler annule l'abonnement
+     */
+    public <A, R> CompletableFuture<R> collect(final PasswordFlow.Publisher<String> passwords,
+                                               final Collector<String, A, R> collector) {
+        CollectingSubscriber<A, R> subscriber = new CollectingSubscriber<>(collector, batchSize);
+        passwords.subscribe(subscriber);
+        return subscriber.result;
+    }
+
+    private <R> CompletableFuture<R> supply(final Function<Supplier<Stream<String>>, R> method,
+                                            final Supplier<Stream<String>> allPasswords) {
+        return CompletableFuture.supplyAsync(() -> method.apply(allPasswords), executor);
+    }
+
+    /**
+     * Pool par défaut, créé au premier usage.
+     */
+    private static final class DefaultExecutor {
+        static final ExecutorService INSTANCE = Executors.newFixedThreadPool(
+                Runtime.getRuntime().availableProcessors(), new AsyncThreadFactory());
+    }
+
+    private static final class AsyncThreadFactory implements ThreadFactory {
+        private final AtomicInteger thread = new AtomicInteger();
+
+        @Override
+        public Thread newThread(final Runnable task) {
+            Thread t = new Thread(task, "password-async-" + thread.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        }
+    }
+
+    /**
+     * Abonné qui demande les éléments par lots et les accumule dans un collecteur.
+     * Un nouveau lot est demandé quand le précédent est entièrement reçu.
+     */
+    private static final class CollectingSubscriber<A, R> implements PasswordFlow.Subscriber<String> {
+
+        final CompletableFuture<R> result = new CompletableFuture<>();
+
+        private final Collector<String, A, R> collector;
+        private final BiConsumer<A, String> accumulator;
+        private final int batchSize;
+        private PasswordFlow.Subscription subscription;
+        private A container;
+        private int remaining;
+
+        CollectingSubscriber(final Collector<String, A, R> collector, final int batchSize) {
+            this.collector = collector;
+            this.accumulator = collector.accumulator();
+            this.batchSize = batchSize;
+        }
+
+        @Override
+        public void onSubscribe(final PasswordFlow.Subscription subscription) {
+            if (this.subscription != null) {
+                subscription.cancel();
+                return;
+            }
+            this.subscription = subscription;
+            container = collector.supplier().get();
+            result.whenComplete((r, e) -> {
+                if (result.isCancelled()) {
+                    subscription.cancel();
+                }
+            });
+            remaining = batchSize;
+            subscription.request(batchSize);
+        }
+
+        @Override
+        public void onNext(final String item) {
+            if (result.isDone()) {
+                return;
+            }
+            try {
+                accumulator.accept(container, item);
+            } catch (RuntimeException e) {
+                subscription.cancel();
+                result.completeExceptionally(e);
+                return;
+            }
+            if (--remaining == 0) {
+                remaining = batchSize;
+                subscription.request(batchSize);
+            }
+        }
+
+        @Override
+        public void onError(final Throwable error) {
+            result.completeExceptionally(error);
+        }
+
+        @Override
+        public void onComplete() {
+            try {
+                result.complete(collector.finisher().apply(container));
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,624 @@
+package tech.techturningpoint.service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Cache de résultats devant un {@link IPasswordStats}, indexé par fichier.
+ *
+ * Un résultat est rangé sous l'empreinte de son fichier (chemin réel, taille, date de modification et CRC32
+ * du contenu) et le nom de la requête. Le contenu n'est relu que si la taille ou la date changent :
+ * une requête répétée sur un fichier inchangé ne coûte qu'un appel à stat. Si le contenu a changé,
+ * les résultats de l'ancienne version sont supprimés ; si seule la date a changé, ils sont gardés.
+ *
+ * La mémoire est bornée par un budget en octets (tailles estimées des résultats), avec éviction
+ * du résultat le moins récemment utilisé. Les rapports ({@link #getReport(Path)}) peuvent aussi être
+ * écrits dans un répertoire, indexés par chemin, règles ({@link PasswordStats#RULES_VERSION} et implémentation)
+ * et contenu, pour survivre au redémarrage ; écrire un rapport supprime ceux des autres versions du même chemin.
+ *
+ * Les méthodes à Supplier ne sont pas mises en cache (un Supplier n'identifie pas sa source) :
+ * elles délèguent directement. Le cache est thread-safe ; deux threads qui demandent en même temps
+ * un résultat absent le calculent chacun.
+ */
+public final class CachingPasswordStats implements IPasswordStats {
+
+    /**
+     * Budget mémoire par défaut : 64 Mo.
+     */
+    public static final long DEFAULT_MAX_BYTES = 64L << 20;
+
+    private static final String REPORT = "getReport";
+    private static final int HASH_BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Tailles estimées des objets en mémoire (en-têtes, références et champs).
+     */
+    private static final long OBJECT_BYTES = 64;
+    private static final long STRING_BYTES = 40;
+    private static final long MAP_ENTRY_BYTES = 64;
+
+    private final IPasswordStats delegate;
+    private final long maxBytes;
+    private final Path directory;
+    private final int rules;
+    private final Charset charset = Charset.defaultCharset();
+
+    /**
+     * Résultats par ordre d'accès, du moins au plus récent.
+     */
+    private final LinkedHashMap<EntryKey, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<Path, FileKey> fingerprints = new HashMap<>();
+    private long usedBytes;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong diskHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * Cache en mémoire seulement, avec le budget par défaut.
+     * @param delegate implémentation qui calcule les résultats
+     */
+    public CachingPasswordStats(final IPasswordStats delegate) {
+        this(delegate, DEFAULT_MAX_BYTES, null);
+    }
+
+    /**
+     * Constructeur.
+     * @param delegate implémentation qui calcule les résultats
+     * @param maxBytes budget mémoire des résultats, en octets estimés
+     * @param directory répertoire des rapports persistés, créé au besoin ; null pour ne rien écrire
+     */
+    public CachingPasswordStats(final IPasswordStats delegate, final long maxBytes, final Path directory) {
+        if (maxBytes < 0) {
+            throw new IllegalArgumentException("Budget m\u00e9moire invalide : " + maxBytes);
+        }
+        this.delegate = Objects.requireNonNull(delegate);
+        this.maxBytes = maxBytes;
+        this.directory = directory;
+        this.rules = (int) PasswordFrequencySketch.hash(delegate.getClass().getName() + '#' + PasswordStats.RULES_VERSION);
+    }
+
+    /**
+     * @return implémentation qui calcule les résultats
+     */
+    public IPasswordStats getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * Rapport complet sur un fichier, en mémoire puis sur disque si un répertoire est configuré.
+     * @param file fichier de mots de passe, un par ligne
+     * @return rapport de statistiques
+     * @throws IOException si le fichier est illisible ou si le rapport ne peut pas être persisté
+     */
+    public PasswordReport getReport(final Path file) throws IOException {
+        return getReport(file, false);
+    }
+
+    /**
+     * @param file fichier de mots de passe, un par ligne
+     * @return mots de passe forts, liste non modifiable
+     * @throws IOException si le fichier est illisible
+     */
+    public List<String> getAllStrong(final Path file) throws IOException {
+        return query(file, "getAllStrong", delegate::getAllStrong, CachingPasswordStats::weigh);
+    }
+
+    /**
+     * @param file fichier de mots de passe, un par ligne
+     * @return mots de passe avec au moins un chiffre, liste non modifiable
+     * @throws IOException si le fichier est illisible
+     */
+    public List<String> getAllWithNumbers(final Path file) throws IOException {
+        return query(file, "getAllWithNumbers", delegate::getAllWithNumbers, CachingPasswordStats::weigh);
+    }
+
+    /**
+     * @param file fichier de mots de passe, un par ligne
+     * @return mots de passe avec capitale et minuscule, liste non modifiable
+     * @throws IOException si le fichier est illisible
+     */
+    public List<String> getAllWithUppercaseAndLowercase(final Path file) throws IOException {
+        return query(file, "getAllWithUppercaseAndLowercase", delegate::getAllWithUppercaseAndLowercase,
+                CachingPasswordStats::weigh);
+    }
+
+    /**
+     * @param file fichier de mots de passe, un par ligne
+     * @return mots de passe avec au moins un caractère spécial, liste non modifiable
+     * @throws IOException si le fichier est illisible
+     */
+    public List<String> getAllWithSpecialChars(final Path file) throws IOException {
+        return query(file, "getAllWithSpecialChars", delegate::getAllWithSpecialChars, CachingPasswordStats::weigh);
+    }
+
+    /**
+     * @param file fichier de mots de passe, un par ligne
+     * @return mots de passe avec un seul caractère spécial à la fin, liste non modifiable
+     * @throws IOException si le fichier est illisible
+     */
+    public List<String> getAllWithOnlyOneLastSpecialChar(final Path file) throws IOException {
+        return query(file, "getAllWithOnlyOneLastSpecialChar", delegate::getAllWithOnlyOneLastSpecialChar,
+                CachingPasswordStats::weigh);
+    }
+
+    /**
+     * Requête quelconque sur un fichier, mise en cache sous son nom.
+     * Le résultat est partagé entre les appelants : il doit être immuable.
+     * @param file fichier de mots de passe, un par ligne
+     * @param name nom unique de la requête, différent des noms des méthodes de cette classe
+     * @param compute calcul sur le Stream du fichier
+     * @param weigher taille estimée du résultat en octets
+     * @param <T> type du résultat
+     * @return résultat, calculé ou relu du cache
+     * @throws IOException si le fichier est illisible
+     */
+    public <T> T query(final Path file, final String name, final Function<Supplier<Stream<String>>, T> compute,
+                       final ToLongFunction<? super T> weigher) throws IOException {
+        return cached(file, name, false, compute, weigher);
+    }
+
+    /**
+     * Utilise {@link #getReport(Path)}, donc le cache, pour {@link #printStats(String, boolean)}.
+     */
+    @Override
+    public PasswordReport getResourceReport(final String filename, final boolean parallel) {
+        try {
+            return getReport(getResourcePath(filename), parallel);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private PasswordReport getReport(final Path file, final boolean parallel) throws IOException {
+        return cached(file, REPORT, parallel, delegate::getReport,
+                report -> OBJECT_BYTES + MAP_ENTRY_BYTES * report.getCountBySpecialCharPosition().size());
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T cached(final Path file, final String name, final boolean parallel,
+                         final Function<Supplier<Stream<String>>, T> compute,
+                         final ToLongFunction<? super T> weigher) throws IOException {
+        FileKey key = fingerprint(file);
+        EntryKey entryKey = new EntryKey(key, name);
+        synchronized (this) {
+            Entry entry = entries.get(entryKey);
+            if (entry != null) {
+                hits.incrementAndGet();
+                return (T) entry.value;
+            }
+        }
+        boolean persistent = directory != null && REPORT.equals(name);
+        T value = persistent ? (T) readReport(key) : null;
+        if (value != null) {
+            diskHits.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+            try (Stream<String> passwords = open(key.path, parallel)) {
+                value = immutable(compute.apply(() -> passwords));
+            }
+            if (persistent) {
+                writeReport(key, (PasswordReport) value);
+            }
+        }
+        put(entryKey, value, weigher.applyAsLong(value));
+        return value;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T immutable(final T value) {
+        if (value instanceof List) {
+            return (T) Collections.unmodifiableList((List<?>) value);
+        }
+        if (value instanceof Map) {
+            return (T) Collections.unmodifiableMap((Map<?, ?>) value);
+        }
+        return value;
+    }
+
+    private synchronized void put(final EntryKey key, final Object value, final long weight) {
+        if (weight > maxBytes || !key.file.equals(fingerprints.get(key.file.path))) {
+            // trop gros pour le budget, ou fichier modifié pendant le calcul
+            return;
+        }
+        Entry previous = entries.put(key, new Entry(value, weight));
+        usedBytes += weight - (previous == null ? 0 : previous.weight);
+        Iterator<Entry> eldest = entries.values().iterator();
+        while (usedBytes > maxBytes) {
+            usedBytes -= eldest.next().weight;
+            eldest.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    /**
+     * Empreinte du fichier ; le CRC32 n'est recalculé que si la taille ou la date ont changé.
+     */
+    private FileKey fingerprint(final Path file) throws IOException {
+        Path path = file.toRealPath();
+        BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        long size = attributes.size();
+        long modified = attributes.lastModifiedTime().toMillis();
+        synchronized (this) {
+            FileKey known = fingerprints.get(path);
+            if (known != null && known.size == size && known.modified == modified) {
+                return known;
+            }
+        }
+        FileKey key = new FileKey(path, size, modified, contentHash(path));
+        FileKey stale = null;
+        synchronized (this) {
+            FileKey previous = fingerprints.put(path, key);
+            if (previous != null && !previous.equals(key) && !replace(previous, key)) {
+                stale = previous;
+            }
+        }
+        // hors du verrou : les autres fichiers restent accessibles pendant l'entrée-sortie
+        if (stale != null && directory != null) {
+            Files.deleteIfExists(reportFile(stale));
+        }
+        return key;
+    }
+
+    /**
+     * Range les résultats de l'ancienne empreinte sous la nouvelle si le contenu est le même,
+     * les supprime sinon.
+     * @return true si les résultats ont été gardés, false si le rapport persisté est périmé
+     */
+    private boolean replace(final FileKey previous, final FileKey key) {
+        boolean sameContent = previous.size == key.size && previous.hash == key.hash;
+        List<Map.Entry<EntryKey, Entry>> kept = new ArrayList<>();
+        Iterator<Map.Entry<EntryKey, Entry>> it = entries.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<EntryKey, Entry> entry = it.next();
+            if (entry.getKey().file.equals(previous)) {
+                it.remove();
+                if (sameContent) {
+                    kept.add(entry);
+                } else {
+                    usedBytes -= entry.getValue().weight;
+                }
+            }
+        }
+        for (Map.Entry<EntryKey, Entry> entry : kept) {
+            entries.put(new EntryKey(key, entry.getKey().query), entry.getValue());
+        }
+        return sameContent;
+    }
+
+    /**
+     * Supprime les résultats d'un fichier, en mémoire et sur disque.
+     * @param file fichier de mots de passe
+     * @throws IOException si le rapport persisté ne peut pas être supprimé
+     */
+    public void invalidate(final Path file) throws IOException {
+        Path path;
+        try {
+            path = file.toRealPath();
+        } catch (NoSuchFileException e) {
+            path = file.toAbsolutePath().normalize();
+        }
+        FileKey previous;
+        synchronized (this) {
+            previous = fingerprints.remove(path);
+            if (previous == null) {
+                return;
+            }
+            Iterator<Map.Entry<EntryKey, Entry>> it = entries.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<EntryKey, Entry> entry = it.next();
+                if (entry.getKey().file.equals(previous)) {
+                    usedBytes -= entry.getValue().weight;
+                    it.remove();
+                }
+            }
+        }
+        if (directory != null) {
+            Files.deleteIfExists(reportFile(previous));
+        }
+    }
+
+    /**
+     * Vide le cache en mémoire ; les rapports persistés sont gardés.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        fingerprints.clear();
+        usedBytes = 0;
+    }
+
+    private static long contentHash(final Path path) throws IOException {
+        CRC32 crc = new CRC32();
+        byte[] buffer = new byte[HASH_BUFFER_SIZE];
+        try (InputStream in = Files.newInputStream(path)) {
+            for (int n = in.read(buffer); n >= 0; n = in.read(buffer)) {
+                crc.update(buffer, 0, n);
+            }
+        }
+        return crc.getValue();
+    }
+
+    private Stream<String> open(final Path path, final boolean parallel) throws IOException {
+        if (MappedFileLines.supports(charset)) {
+            return MappedFileLines.lines(path, charset, parallel);
+        }
+        Stream<String> lines = Files.lines(path, charset);
+        return parallel ? lines.parallel() : lines;
+    }
+
+    /**
+     * Fichier du rapport persisté : haché du chemin, haché des règles, taille et CRC32 du contenu.
+     */
+    private Path reportFile(final FileKey key) {
+        return directory.resolve(String.format("%s-%08x-%d-%08x.report", reportPrefix(key), rules, key.size, key.hash));
+    }
+
+    /**
+     * @return début commun des noms des rapports persistés d'un même chemin
+     */
+    private static String reportPrefix(final FileKey key) {
+        return String.format("%016x", PasswordFrequencySketch.hash(key.path.toString()));
+    }
+
+    /**
+     * @return rapport persisté, null s'il est absent ou illisible (il sera réécrit)
+     */
+    private PasswordReport readReport(final FileKey key) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(reportFile(key))))) {
+            return PasswordReport.read(in);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Ecrit le rapport dans un fichier temporaire renommé ensuite : un lecteur ne voit jamais de rapport partiel.
+     * Les rapports du même chemin pour un autre contenu ou d'autres règles sont ensuite supprimés.
+     */
+    private void writeReport(final FileKey key, final PasswordReport report) throws IOException {
+        Files.createDirectories(directory);
+        Path file = reportFile(key);
+        Path tmp = Files.createTempFile(directory, "report", ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                report.write(out);
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+        try (DirectoryStream<Path> reports = Files.newDirectoryStream(directory, reportPrefix(key) + "-*.report")) {
+            for (Path stale : reports) {
+                if (!stale.equals(file)) {
+                    Files.deleteIfExists(stale);
+                }
+            }
+        }
+    }
+
+    /**
+     * @param passwords liste de mots de passe
+     * @return taille estimée de la liste en octets (deux octets par caractère)
+     */
+    static long weigh(final List<String> passwords) {
+        long bytes = OBJECT_BYTES + (long) Integer.BYTES * passwords.size();
+        for (String password : passwords) {
+            bytes += STRING_BYTES + 2L * password.length();
+        }
+        return bytes;
+    }
+
+    /**
+     * @return nombre de résultats lus en mémoire
+     */
+    public long hitCount() {
+        return hits.get();
+    }
+
+    /**
+     * @return nombre de rapports relus sur disque
+     */
+    public long diskHitCount() {
+        return diskHits.get();
+    }
+
+    /**
+     * @return nombre de résultats calculés
+     */
+    public long missCount() {
+        return misses.get();
+    }
+
+    /**
+     * @return nombre de résultats évincés pour respecter le budget
+     */
+    public long evictionCount() {
+        return evictions.get();
+    }
+
+    /**
+     * @return nombre de résultats en mémoire
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return taille estimée des résultats en mémoire, en octets
+     */
+    public synchronized long usedBytes() {
+        return usedBytes;
+    }
+
+    @Override
+    public boolean isStrongPassword(final String password) {
+        return delegate.isStrongPassword(password);
+    }
+
+    @Override
+    public List<String> getAllWithUppercaseAndLowercase(final Supplier<Stream<String>> allPasswords) {
+        return delegate.getAllWithUppercaseAndLowercase(allPasswords);
+    }
+
+    @Override
+    public List<String> getAllWithNumbers(final Supplier<Stream<String>> allPasswords) {
+        return delegate.getAllWithNumbers(allPasswords);
+    }
+
+    @Override
+    public List<String> getAllWithSpecialChars(final Supplier<Stream<String>> allPasswords) {
+        return delegate.getAllWithSpecialChars(allPasswords);
+    }
+
+    @Override
+    public List<String> getAllStrong(final Supplier<Stream<String>> allPasswords) {
+        return delegate.getAllStrong(allPasswords);
+    }
+
+    @Override
+    public Map<Integer, Long> countBySpecialCharPosition(final Supplier<Stream<String>> allPasswords) {
+        return delegate.countBySpecialCharPosition(allPasswords);
+    }
+
+    @Override
+    public SpecialCharHistogram getSpecialCharHistogram(final Supplier<Stream<String>> allPasswords) {
+        return delegate.getSpecialCharHistogram(allPasswords);
+    }
+
+    @Override
+    public Map<Integer, List<String>> getAllBySpecialCharPosition(final Supplier<Stream<String>> allPasswords) {
+        return delegate.getAllBySpecialCharPosition(allPasswords);
+    }
+
+    @Override
+    public SpecialCharPositionIndex getSpecialCharPositionIndex(final Supplier<Stream<String>> allPasswords) {
+        return delegate.getSpecialCharPositionIndex(allPasswords);
+    }
+
+    @Override
+    public List<String> getAllWithOnlyOneLastSpecialChar(final Supplier<Stream<String>> allPasswords) {
+        return delegate.getAllWithOnlyOneLastSpecialChar(allPasswords);
+    }
+
+    @Override
+    public PasswordReport getReport(final Supplier<Stream<String>> allPasswords) {
+        return delegate.getReport(allPasswords);
+    }
+
+    @Override
+    public PasswordScoreHistogram getScoreHistogram(final Supplier<Stream<String>> allPasswords,
+                                                    final PasswordStrengthScorer scorer) {
+        return delegate.getScoreHistogram(allPasswords, scorer);
+    }
+
+    @Override
+    public PasswordFrequencySketch getFrequencySketch(final Supplier<Stream<String>> allPasswords, final boolean exact) {
+        return delegate.getFrequencySketch(allPasswords, exact);
+    }
+
+    @Override
+    public PasswordStatsMetrics getMetrics() {
+        return delegate.getMetrics();
+    }
+
+    /**
+     * Empreinte d'un fichier.
+     */
+    private static final class FileKey {
+        final Path path;
+        final long size;
+        final long modified;
+        final long hash;
+
+        FileKey(final Path path, final long size, final long modified, final long hash) {
+            this.path = path;
+            this.size = size;
+            this.modified = modified;
+            this.hash = hash;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof FileKey)) {
+                return false;
+            }
+            FileKey that = (FileKey) o;
+            return size == that.size && modified == that.modified && hash == that.hash && path.equals(that.path);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(path, size, modified, hash);
+        }
+    }
+
+    /**
+     * Clé d'un résultat : empreinte du fichier et nom de la requête.
+     */
+    private static final class EntryKey {
+        final FileKey file;
+        final String query;
+
+        EntryKey(final FileKey file, final String query) {
+            this.file = file;
+            this.query = query;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof EntryKey)) {
+                return false;
+            }
+            EntryKey that = (EntryKey) o;
+            return file.equals(that.file) && query.equals(that.query);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * file.hashCode() + query.hashCode();
+        }
+    }
+
+    private static final class Entry {
+        final Object value;
+        final long weight;
+
+        Entry(final Object value, final long weight) {
+            this.value = value;
+            this.weight = weight;
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package tech.techturningpoint.service;
+
+import tech.techturningpoint.model.Person;
+import tech.techturningpoint.model.PersonStore;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * Exercices sur les Streams, résolus par des boucles sur les colonnes d'un {@link PersonStore}.
+ *
+ * Chaque méthode accepte n'importe quelle liste : un {@link PersonStore} est utilisé directement,
+ * une autre liste est d'abord convertie (ce qui coûte un parcours). Pour des requêtes répétées,
+ * construire le store une fois avec {@link PersonStore#of(List)}.
+ */
+public class ColumnarExerciceStream implements IExerciceStream {
+
+    /**
+     * Ordonner par âge croissant et extraire le nom (tri stable).
+     *
+     * @param persons Liste de personnes
+     * @return Liste de noms
+     */
+    @Override
+    public List<String> getNamesSortedByAge(final List<Person> persons) {
+        PersonStore store = PersonStore.of(persons);
+        List<String> names = new ArrayList<>(store.size());
+        for (int i : sortedByAge(store)) {
+            names.add(store.getNom(i));
+        }
+        return names;
+    }
+
+    /**
+     * Ordonner par âge croissant et concaténer les noms pour affichage avec séparateur, préfixe et suffixe.
+     *
+     * @param persons Liste de personnes
+     * @return "Du plus jeune au plus âgé: <Liste de noms séparés par une virgule>".
+     */
+    @Override
+    public String displayNamesFromYoungestToOldest(final List<Person> persons) {
+        PersonStore store = PersonStore.of(persons);
+        StringJoiner joiner = new StringJoiner(", ", "Du plus jeune au plus âgé: ", ".");
+        for (int i : sortedByAge(store)) {
+            joiner.add(store.getNom(i));
+        }
+        return joiner.toString();
+    }
+
+    /**
+     * Faire une moyenne des âges.
+     * @param persons Liste de personnes
+     * @return moyenne des âges
+     */
+    @Override
+    public double averageAge(final List<Person> persons) {
+        PersonStore store = PersonStore.of(persons);
+        long sum = 0;
+        int size = store.size();
+        for (int i = 0; i < size; i++) {
+            sum += store.getAge(i);
+        }
+        return average(sum, size);
+    }
+
+    /**
+     * Faire une moyenne des âges des hommes ("M" ou "homme" sans tenir compte de la casse).
+     * @param persons Liste de personnes
+     * @return moyenne des âges
+     */
+    @Override
+    public double averageAgeMale(final List<Person> persons) {
+        PersonStore store = PersonStore.of(persons);
+        boolean[] male = new boolean[store.sexCount()];
+        for (int code = 0; code < male.length; code++) {
+            male[code] = PersonStatsSummary.isMale(store.getSex(code));
+        }
+        long sum = 0;
+        long count = 0;
+        for (int i = 0, size = store.size(); i < size; i++) {
+            byte code = store.getSexCode(i);
+            if (code != PersonStore.NO_SEX && male[code]) {
+                sum += store.getAge(i);
+                count++;
+            }
+        }
+        return average(sum, count);
+    }
+
+    /**
+     * Faire une moyenne des âges des personnes dont le nom commence par une lettre.
+     * Le test est fait une fois par nom distinct du dictionnaire.
+     * @param persons Liste de personnes
+     * @param letter initiale
+     * @return moyenne des âges
+     */
+    @Override
+    public double averageAgeByInitial(final List<Person> persons, final String letter) {
+        PersonStore store = PersonStore.of(persons);
+        boolean[] matches = new boolean[store.nameCount()];
+        for (int nameId = 0; nameId < matches.length; nameId++) {
+            String name = store.getName(nameId);
+            matches[nameId] = name != null && name.startsWith(letter);
+        }
+        long sum = 0;
+        long count = 0;
+        for (int i = 0, size = store.size(); i < size; i++) {
+            if (matches[store.getNameId(i)]) {
+                sum += store.getAge(i);
+                count++;
+            }
+        }
+        return average(sum, count);
+    }
+
+    /**
+     * Faire une moyenne des âges en fonction du sexe.
+     * Comme {@link ExerciceStream#averageAgeBySex(List)}, un sexe null est une clé comme une autre.
+     * @param persons Liste de personnes
+     * @return Map avec la moyenne d'âge en fonction du sexe
+     */
+    @Override
+    public Map<String, Double> averageAgeBySex(final List<Person> persons) {
+        PersonStore store = PersonStore.of(persons);
+        // dernière case : sexe null
+        int noSex = store.sexCount();
+        long[] sums = new long[noSex + 1];
+        long[] counts = new long[noSex + 1];
+        for (int i = 0, size = store.size(); i < size; i++) {
+            byte code = store.getSexCode(i);
+            int bucket = code == PersonStore.NO_SEX ? noSex : code;
+            sums[bucket] += store.getAge(i);
+            counts[bucket]++;
+        }
+        Map<String, Double> averages = new HashMap<>();
+        for (int code = 0; code < noSex; code++) {
+            averages.put(store.getSex(code), average(sums[code], counts[code]));
+        }
+        if (counts[noSex] > 0) {
+            averages.put(null, average(sums[noSex], counts[noSex]));
+        }
+        return averages;
+    }
+
+    /**
+     * Retourner la liste, classée par ordre alphabétique, de personnes qui écoutent un artiste très populaire.
+     * @param persons Liste de personnes
+     * @return liste de personnes qui écoutent un artiste très populaire (les personnes d'origine)
+     */
+    @Override
+    public List<Person> getMainstreamMusicListenersJava8(final List<Person> persons) {
+        PersonStore store = PersonStore.of(persons);
+        boolean[] mainstream = new boolean[store.artistCount()];
+        for (int artistId = 0; artistId < mainstream.length; artistId++) {
+            mainstream[artistId] = store.getArtistRanking(artistId) <= PersonStatsSummary.MAINSTREAM_RANKING;
+        }
+        int[] listeners = new int[store.size()];
+        int count = 0;
+        for (int i = 0, size = store.size(); i < size; i++) {
+            for (int entry = store.playlistStart(i), end = store.playlistEnd(i); entry < end; entry++) {
+                if (mainstream[store.getArtistId(entry)]) {
+                    listeners[count++] = i;
+                    break;
+                }
+            }
+        }
+        // tri stable par rang alphabétique du nom, sur des int
+        int[] ranks = nameRanks(store);
+        int[] keys = new int[count];
+        for (int k = 0; k < count; k++) {
+            keys[k] = ranks[store.getNameId(listeners[k])];
+        }
+        List<Person> result = new ArrayList<>(count);
+        for (int k : AgeOrder.sortedIndexes(keys)) {
+            result.add(store.get(listeners[k]));
+        }
+        return result;
+    }
+
+    /**
+     * Rang de chaque nom du dictionnaire dans l'ordre alphabétique (les noms du dictionnaire sont distincts).
+     */
+    private static int[] nameRanks(final PersonStore store) {
+        Comparator<String> order = Comparator.nullsFirst(Comparator.naturalOrder());
+        String[] sorted = new String[store.nameCount()];
+        for (int nameId = 0; nameId < sorted.length; nameId++) {
+            sorted[nameId] = store.getName(nameId);
+        }
+        Arrays.sort(sorted, order);
+        int[] ranks = new int[sorted.length];
+        for (int nameId = 0; nameId < ranks.length; nameId++) {
+            ranks[nameId] = Arrays.binarySearch(sorted, store.getName(nameId), order);
+        }
+        return ranks;
+    }
+
+    /**
+     * Indices des personnes triés par âge croissant, en conservant l'ordre pour les âges égaux.
+     */
+    private static int[] sortedByAge(final PersonStore store) {
+        int[] ages = new int[store.size()];
+        for (int i = 0; i < ages.length; i++) {
+            ages[i] = store.getAge(i);
+        }
+        return AgeOrder.sortedIndexes(ages);
+    }
+
+    private static double average(final long sum, final long count) {
+        return count == 0 ? 0.0 : (double) sum / count;
+    }
+}
@@ -2,9 +2,12 @@ package tech.techturningpoint.service;
 
 import tech.techturningpoint.model.Artiste;
 import tech.techturningpoint.model.Person;
+import tech.techturningpoint.model.PersonStore;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.RandomAccess;
+import java.util.function.Consumer;
 
 /**
  * Exercices sur Optional de Java 8.
@@ -54,4 +57,145 @@ public class ExerciceOptional implements IExerciceOptional {
 //        return "unknown";
     }
 
+    /**
+     * Version en masse de {@link #getNameFirstArtisteInIpod(Person)}, sans Optional ni allocation par personne.
+     * Un {@link PersonStore} est lu directement dans ses colonnes.
+     *
+     * @param persons personnes (éléments null acceptés)
+     * @param names tableau rempli à partir de l'indice 0, de taille au moins persons.size()
+     */
+    public void getNamesFirstArtisteInIpod(final List<Person> persons, final String[] names) {
+        checkCapacity(persons, names);
+        if (persons instanceof PersonStore) {
+            PersonStore store = (PersonStore) persons;
+            for (int i = 0, size = store.size(); i < size; i++) {
+                names[i] = firstArtisteName(store, i);
+            }
+        } else if (persons instanceof RandomAccess) {
+            for (int i = 0, size = persons.size(); i < size; i++) {
+                names[i] = firstArtisteName(persons.get(i));
+            }
+        } else {
+            int i = 0;
+            for (Person person : persons) {
+                names[i++] = firstArtisteName(person);
+            }
+        }
+    }
+
+    /**
+     * Version en masse de {@link #getNameFirstArtisteInIpod(Person)}, sans Optional ni allocation par personne.
+     * Un {@link PersonStore} est lu directement dans ses colonnes.
+     *
+     * @param persons personnes (éléments null acceptés)
+     * @param names reçoit les noms dans l'ordre de la liste
+     */
+    public void getNamesFirstArtisteInIpod(final List<Person> persons, final Consumer<? super String> names) {
+        if (persons instanceof PersonStore) {
+            PersonStore store = (PersonStore) persons;
+            for (int i = 0, size = store.size(); i < size; i++) {
+                names.accept(firstArtisteName(store, i));
+            }
+        } else if (persons instanceof RandomAccess) {
+            for (int i = 0, size = persons.size(); i < size; i++) {
+                names.accept(firstArtisteName(persons.get(i)));
+            }
+        } else {
+            for (Person person : persons) {
+                names.accept(firstArtisteName(person));
+            }
+        }
+    }
+
+    /**
+     * Version en masse de {@link #getNameOfChef(Person)}, sans Optional ni allocation par personne.
+     * Un {@link PersonStore} est lu directement dans sa colonne des chefs.
+     *
+     * @param persons personnes (éléments null acceptés)
+     * @param names tableau rempli à partir de l'indice 0, de taille au moins persons.size()
+     */
+    public void getNamesOfChef(final List<Person> persons, final String[] names) {
+        checkCapacity(persons, names);
+        if (persons instanceof PersonStore) {
+            PersonStore store = (PersonStore) persons;
+            for (int i = 0, size = store.size(); i < size; i++) {
+                names[i] = chefName(store, i);
+            }
+        } else if (persons instanceof RandomAccess) {
+            for (int i = 0, size = persons.size(); i < size; i++) {
+                names[i] = chefName(persons.get(i));
+            }
+        } else {
+            int i = 0;
+            for (Person person : persons) {
+                names[i++] = chefName(person);
+            }
+        }
+    }
+
+    /**
+     * Version en masse de {@link #getNameOfChef(Person)}, sans Optional ni allocation par personne.
+     * Un {@link PersonStore} est lu directement dans sa colonne des chefs.
+     *
+     * @param persons personnes (éléments null acceptés)
+     * @param names reçoit les noms dans l'ordre de la liste
+     */
+    public void getNamesOfChef(final List<Person> persons, final Consumer<? super String> names) {
+        if (persons instanceof PersonStore) {
+            PersonStore store = (PersonStore) persons;
+            for (int i = 0, size = store.size(); i < size; i++) {
+                names.accept(chefName(store, i));
+            }
+        } else if (persons instanceof RandomAccess) {
+            for (int i = 0, size = persons.size(); i < size; i++) {
+                names.accept(chefName(persons.get(i)));
+            }
+        } else {
+            for (Person person : persons) {
+                names.accept(chefName(person));
+            }
+        }
+    }
+
+    private static void checkCapacity(final List<Person> persons, final String[] names) {
+        if (names.length < persons.size()) {
+            throw new IllegalArgumentException("Tableau trop petit : " + names.length + " < " + persons.size());
+        }
+    }
+
+    /**
+     * Même résultat que {@link #getNameFirstArtisteInIpod(Person)}, "unknown" aussi pour un premier artiste null.
+     */
+    private static String firstArtisteName(final Person person) {
+        if (person == null || person.dansMonIpod == null || person.dansMonIpod.isEmpty()) {
+            return "unknown";
+        }
+        Artiste first = person.dansMonIpod.get(0);
+        return first == null || first.nom == null ? "unknown" : first.nom;
+    }
+
+    private static String firstArtisteName(final PersonStore store, final int index) {
+        int start = store.playlistStart(index);
+        if (start == store.playlistEnd(index)) {
+            return "unknown";
+        }
+        String nom = store.getArtistName(store.getArtistId(start));
+        return nom == null ? "unknown" : nom;
+    }
+
+    /**
+     * Même résultat que {@link #getNameOfChef(Person)}, "Eric" aussi pour un champ chef null.
+     */
+    private static String chefName(final Person person) {
+        if (person == null || person.chef == null || !person.chef.isPresent()) {
+            return "Eric";
+        }
+        String nom = person.chef.get().nom;
+        return nom == null ? "Eric" : nom;
+    }
+
+    private static String chefName(final PersonStore store, final int index) {
+        Person chef = store.getChef(index);
+        return chef == null || chef.nom == null ? "Eric" : chef.nom;
+    }
 }
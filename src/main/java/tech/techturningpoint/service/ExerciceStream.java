@@ -27,12 +27,10 @@ public class ExerciceStream implements IExerciceStream {
     @Override
     public List<String> getNamesSortedByAge(final List<Person> persons) {
         //TODO
-       return persons.stream()
-                .sorted(
-                        Comparator.comparing(p -> p.getAge())
-                )
+        // Tri stable par dénombrement plutôt que sorted(Comparator.comparing(p -> p.getAge()))
+        return AgeOrder.sortedByAge(persons).stream()
                 .map(p -> p.nom)
-               .collect(Collectors.toList()) ;
+                .collect(Collectors.toList());
 
     }
 
@@ -46,15 +44,24 @@ public class ExerciceStream implements IExerciceStream {
     @Override
     public String displayNamesFromYoungestToOldest(final List<Person> persons) {
         //TODO
-         return persons.stream()
-                 .sorted(
-                         Comparator.comparing(p -> p.getAge())
-                 )
-                 .map(p -> p.nom)
+        return AgeOrder.sortedByAge(persons).stream()
+                .map(p -> p.nom)
                 .collect(Collectors.joining(", ", "Du plus jeune au plus âgé: ", "."));
 
     }
 
+    /**
+     * Résumé de toutes les statistiques d'âge en un seul parcours.
+     * Pour afficher plusieurs moyennes (tableau de bord), calculer le résumé une fois et lire ses vues :
+     * chaque méthode de moyenne ci-dessous refait un parcours, limité à la valeur demandée.
+     * @param persons Liste de personnes
+     * @return résumé des statistiques
+     */
+    public PersonStatsSummary summarize(final List<Person> persons) {
+        return persons.stream()
+                .collect(PersonStatsSummary.collector());
+    }
+
     /**
      * Faire une moyenne des âges.
      * @param persons Liste de personnes
@@ -64,7 +71,9 @@ public class ExerciceStream implements IExerciceStream {
     public double averageAge(final List<Person> persons) {
         //TODO
         return persons.stream()
-                .collect(Collectors.averagingInt(p -> p.getAge()));
+                .mapToInt(Person::getAge)
+                .average()
+                .orElse(0);
     }
 
     /**
@@ -76,8 +85,10 @@ public class ExerciceStream implements IExerciceStream {
     public double averageAgeMale(final List<Person> persons) {
         //TODO
         return persons.stream()
-                .filter(p -> p.sexe == "M" || p.sexe.toLowerCase() == "homme")
-                .collect(Collectors.averagingDouble(p -> p.getAge()));
+                .filter(p -> PersonStatsSummary.isMale(p.sexe))
+                .mapToInt(Person::getAge)
+                .average()
+                .orElse(0);
     }
 
     /**
@@ -90,28 +101,31 @@ public class ExerciceStream implements IExerciceStream {
     public double averageAgeByInitial(final List<Person> persons, final String letter) {
         //TODO
         return persons.stream()
-                .filter(p -> p.nom.startsWith(letter) )
-                .collect(Collectors.averagingDouble(p -> p.getAge()));
+                .filter(p -> p.nom != null && p.nom.startsWith(letter))
+                .mapToInt(Person::getAge)
+                .average()
+                .orElse(0);
     }
 
     /**
      * Faire une moyenne des âges en fonction du sexe.
-     * Indices : Collectors.groupingBy, Collectors.averagingInt
+     * Comme {@link PersonStatsSummary#getAverageAgeBySex()}, un sexe null est une clé comme une autre.
      * @param persons Liste de personnes
      * @return Map avec la moyenne d'âge en fonction du sexe
      */
     @Override
     public Map<String, Double> averageAgeBySex(final List<Person> persons) {
         //TODO
-        return  persons.stream()
-                .collect(
-                        Collectors.groupingBy(
-                                p -> p.sexe,
-                                Collectors.averagingInt(Person::getAge)));
-
+        Map<String, IntSummaryStatistics> agesBySex = persons.stream()
+                .collect(HashMap::new,
+                        (map, p) -> map.computeIfAbsent(p.sexe, k -> new IntSummaryStatistics()).accept(p.getAge()),
+                        (left, right) -> right.forEach((sexe, stats) ->
+                                left.computeIfAbsent(sexe, k -> new IntSummaryStatistics()).combine(stats)));
+        Map<String, Double> averages = new HashMap<>();
+        agesBySex.forEach((sexe, stats) -> averages.put(sexe, stats.getAverage()));
+        return averages;
     }
 
-
     /**
      * Retourner la liste, classée par ordre alphabétique, de personnes qui écoutent un artiste très populaire.
      * Implémentation en Java 8 de la méthode {@link IExerciceStream#getMainstreamMusicListeners}
@@ -0,0 +1,233 @@
+package tech.techturningpoint.service;
+
+import tech.techturningpoint.model.Person;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Organigramme construit à partir de {@link Person#chef}.
+ *
+ * Chaque personne reçoit un numéro (les chefs hors de la population sont ajoutés),
+ * puis une table d'ancêtres par sauts de puissances de deux (binary lifting) :
+ * ancestors[k][v] est le chef de v situé 2^k niveaux au-dessus.
+ * Le n-ième chef, « rend compte à » et le plus proche chef commun se calculent en O(log profondeur).
+ * Les cycles sont détectés à la construction. La hiérarchie ne suit pas les modifications ultérieures.
+ */
+public final class Hierarchy {
+
+    private static final int NONE = -1;
+
+    private final Map<Person, Integer> ids;
+    private final Person[] persons;
+    private final int[] depths;
+    private final int[][] ancestors;
+
+    private Hierarchy(final Collection<Person> population) {
+        ids = new IdentityHashMap<>();
+        List<Person> numbered = new ArrayList<>(population.size());
+        for (Person person : population) {
+            number(person, numbered);
+        }
+        // Les chefs découverts en cours de route sont numérotés à leur tour
+        for (int i = 0; i < numbered.size(); i++) {
+            Person chef = chefOf(numbered.get(i));
+            if (chef != null) {
+                number(chef, numbered);
+            }
+        }
+        persons = numbered.toArray(new Person[0]);
+        int size = persons.length;
+
+        int[] parents = new int[size];
+        for (int v = 0; v < size; v++) {
+            Person chef = chefOf(persons[v]);
+            parents[v] = chef == null ? NONE : ids.get(chef);
+        }
+        depths = computeDepths(parents);
+
+        int maxDepth = 0;
+        for (int depth : depths) {
+            maxDepth = Math.max(maxDepth, depth);
+        }
+        int levels = Math.max(1, Integer.SIZE - Integer.numberOfLeadingZeros(maxDepth));
+        ancestors = new int[levels][];
+        ancestors[0] = parents;
+        for (int k = 1; k < levels; k++) {
+            int[] previous = ancestors[k - 1];
+            int[] current = new int[size];
+            for (int v = 0; v < size; v++) {
+                current[v] = previous[v] == NONE ? NONE : previous[previous[v]];
+            }
+            ancestors[k] = current;
+        }
+    }
+
+    /**
+     * Construit la hiérarchie.
+     * @param population personnes ; leurs chefs, directs ou non, sont inclus même s'ils n'y figurent pas
+     * @return hiérarchie
+     * @throws IllegalArgumentException si un cycle hiérarchique existe
+     */
+    public static Hierarchy of(final Collection<Person> population) {
+        return new Hierarchy(population);
+    }
+
+    private static Person chefOf(final Person person) {
+        return person.chef == null ? null : person.chef.orElse(null);
+    }
+
+    private void number(final Person person, final List<Person> numbered) {
+        if (!ids.containsKey(person)) {
+            ids.put(person, numbered.size());
+            numbered.add(person);
+        }
+    }
+
+    /**
+     * Profondeur de chaque personne, en remontant chaque chaîne une seule fois.
+     */
+    private int[] computeDepths(final int[] parents) {
+        int size = parents.length;
+        int[] depth = new int[size];
+        final int unknown = -1;
+        final int visiting = -2;
+        Arrays.fill(depth, unknown);
+        int[] path = new int[size];
+        for (int start = 0; start < size; start++) {
+            int length = 0;
+            int v = start;
+            while (v != NONE && depth[v] == unknown) {
+                depth[v] = visiting;
+                path[length++] = v;
+                v = parents[v];
+            }
+            if (v != NONE && depth[v] == visiting) {
+                throw new IllegalArgumentException("Cycle hiérarchique : " + describeCycle(parents, v));
+            }
+            int d = v == NONE ? -1 : depth[v];
+            while (length > 0) {
+                depth[path[--length]] = ++d;
+            }
+        }
+        return depth;
+    }
+
+    private String describeCycle(final int[] parents, final int start) {
+        StringBuilder cycle = new StringBuilder(String.valueOf(persons[start].nom));
+        for (int v = parents[start]; v != start; v = parents[v]) {
+            cycle.append(" -> ").append(persons[v].nom);
+        }
+        return cycle.append(" -> ").append(persons[start].nom).toString();
+    }
+
+    private int id(final Person person) {
+        Integer id = ids.get(person);
+        if (id == null) {
+            throw new IllegalArgumentException("Personne hors de la hiérarchie : " + person);
+        }
+        return id;
+    }
+
+    /**
+     * Ancêtre de v situé distance niveaux au-dessus, NONE s'il n'existe pas.
+     */
+    private int ancestor(final int v, final int distance) {
+        if (distance > depths[v]) {
+            return NONE;
+        }
+        int current = v;
+        for (int k = 0; distance >>> k != 0; k++) {
+            if ((distance >>> k & 1) != 0) {
+                current = ancestors[k][current];
+            }
+        }
+        return current;
+    }
+
+    /**
+     * @return nombre de personnes dans la hiérarchie (chefs ajoutés compris)
+     */
+    public int size() {
+        return persons.length;
+    }
+
+    /**
+     * @param person personne
+     * @return nombre de chefs au-dessus d'elle (0 pour un dirigeant sans chef)
+     */
+    public int depth(final Person person) {
+        return depths[id(person)];
+    }
+
+    /**
+     * @param person personne
+     * @param levels nombre de niveaux à remonter (1 pour le chef direct)
+     * @return chef situé levels niveaux au-dessus, s'il existe
+     */
+    public Optional<Person> getChef(final Person person, final int levels) {
+        if (levels < 0) {
+            throw new IllegalArgumentException("Nombre de niveaux négatif : " + levels);
+        }
+        int chef = ancestor(id(person), levels);
+        return chef == NONE ? Optional.empty() : Optional.of(persons[chef]);
+    }
+
+    /**
+     * @param person personne
+     * @return chaîne de management, du chef direct jusqu'au dirigeant
+     */
+    public List<Person> getChain(final Person person) {
+        int v = id(person);
+        List<Person> chain = new ArrayList<>(depths[v]);
+        for (int chef = ancestors[0][v]; chef != NONE; chef = ancestors[0][chef]) {
+            chain.add(persons[chef]);
+        }
+        return chain;
+    }
+
+    /**
+     * @param person subordonné
+     * @param chef chef supposé
+     * @return true si person rend compte à chef, directement ou non
+     */
+    public boolean reportsTo(final Person person, final Person chef) {
+        int v = id(person);
+        int c = id(chef);
+        return depths[v] > depths[c] && ancestor(v, depths[v] - depths[c]) == c;
+    }
+
+    /**
+     * Plus proche chef commun : la personne la plus basse dont chacune relève ou qu'elle est elle-même.
+     * Si l'une est le chef de l'autre, c'est elle qui est renvoyée.
+     * @param a première personne
+     * @param b seconde personne
+     * @return chef commun, vide si elles n'ont pas de dirigeant commun
+     */
+    public Optional<Person> getLowestCommonChef(final Person a, final Person b) {
+        int u = id(a);
+        int v = id(b);
+        if (depths[u] < depths[v]) {
+            int swap = u;
+            u = v;
+            v = swap;
+        }
+        u = ancestor(u, depths[u] - depths[v]);
+        if (u == v) {
+            return Optional.of(persons[u]);
+        }
+        for (int k = ancestors.length - 1; k >= 0; k--) {
+            if (ancestors[k][u] != ancestors[k][v]) {
+                u = ancestors[k][u];
+                v = ancestors[k][v];
+            }
+        }
+        int common = ancestors[0][u];
+        return common == NONE ? Optional.empty() : Optional.of(persons[common]);
+    }
+}
@@ -8,6 +8,9 @@ import java.util.*;
 
 /**
  * Interface pour les exercices sur les Streams Java 8.
+ *
+ * Les exercices parcourent toute la liste : sur un {@link PersonFile}, leur passer {@link PersonFile#readAll()}
+ * plutôt que le fichier lui-même, dont chaque {@code get} reconstruit la personne et ses chefs.
  */
 public interface IExerciceStream {
     /**
@@ -26,6 +29,30 @@ public interface IExerciceStream {
      */
     String displayNamesFromYoungestToOldest(List<Person> persons);
 
+    /**
+     * Les n plus jeunes, du plus jeune au plus âgé ; à âge égal, dans l'ordre de la liste.
+     * La liste n'est pas triée entièrement.
+     *
+     * @param persons Liste de personnes
+     * @param n       nombre maximal de personnes
+     * @return au plus n personnes
+     */
+    default List<Person> youngestN(List<Person> persons, int n) {
+        return AgeOrder.youngest(persons, n);
+    }
+
+    /**
+     * Les n plus âgés, du plus âgé au plus jeune ; à âge égal, dans l'ordre de la liste.
+     * La liste n'est pas triée entièrement.
+     *
+     * @param persons Liste de personnes
+     * @param n       nombre maximal de personnes
+     * @return au plus n personnes
+     */
+    default List<Person> oldestN(List<Person> persons, int n) {
+        return AgeOrder.oldest(persons, n);
+    }
+
     /**
      * Faire une moyenne des âges.
      *
@@ -9,8 +9,8 @@ import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.function.IntConsumer;
 import java.util.function.Supplier;
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Stream;
 
@@ -21,6 +21,7 @@ import java.util.stream.Stream;
 public interface IPasswordStats {
     /**
      * Pattern pour les caractères spéciaux.
+     * Les recherches de positions utilisent {@link PasswordClassifier#isSpecialChar(char)}, équivalent sans regex.
      */
     Pattern SPECIAL_CHAR_PATTERN = Pattern.compile("[\\\\ !\"#$%&'()*+,-\\./:;<=>?@\\[\\]^_`{|}~]");
 
@@ -31,6 +32,16 @@ public interface IPasswordStats {
      */
     boolean isStrongPassword(String password);
 
+    /**
+     * Est un mot de passe costaud qui n'est pas dans la liste des mots de passe interdits.
+     * @param password Mot de passe à tester
+     * @param blocklist mots de passe courants ou ayant fuité
+     * @return true si mot de passe fort et non interdit
+     */
+    default boolean isStrongPassword(final String password, final PasswordBlocklist blocklist) {
+        return isStrongPassword(password) && !blocklist.isBlocked(password);
+    }
+
     /**
      * Retourne tous les mots de passe ayant au moins une lettre capitale et une minuscule.
      * @param allPasswords Stream de mots de passe
@@ -66,6 +77,13 @@ public interface IPasswordStats {
      */
     Map<Integer, Long> countBySpecialCharPosition(Supplier<Stream<String>> allPasswords);
 
+    /**
+     * Histogramme primitif des positions des caractères spéciaux.
+     * @param allPasswords Stream de mots de passe
+     * @return histogramme des positions
+     */
+    SpecialCharHistogram getSpecialCharHistogram(Supplier<Stream<String>> allPasswords);
+
     /**
      * Renvoie la liste des mots de passe avec caractère spécial en fonction de la position du caractère spécial.
      * @param allPasswords Stream de mots de passe
@@ -73,6 +91,13 @@ public interface IPasswordStats {
      */
     Map<Integer, List<String>> getAllBySpecialCharPosition(Supplier<Stream<String>> allPasswords);
 
+    /**
+     * Construit l'index compact des mots de passe avec caractère spécial par position du caractère spécial.
+     * @param allPasswords Stream de mots de passe
+     * @return index interrogeable
+     */
+    SpecialCharPositionIndex getSpecialCharPositionIndex(Supplier<Stream<String>> allPasswords);
+
     /**
      * Renvoie la liste des mots de passe avec un seul caractère spécial à la fin.
      * @param allPasswords Stream de mots de passe
@@ -80,6 +105,52 @@ public interface IPasswordStats {
      */
     List<String> getAllWithOnlyOneLastSpecialChar(Supplier<Stream<String>> allPasswords);
 
+    /**
+     * Calcule en une seule lecture tous les compteurs et l'histogramme des positions de caractères spéciaux.
+     * @param allPasswords Stream de mots de passe
+     * @return rapport de statistiques
+     */
+    PasswordReport getReport(Supplier<Stream<String>> allPasswords);
+
+    /**
+     * Histogramme des forces des mots de passe (en bits et par niveau de 0 à 4).
+     * @param allPasswords Stream de mots de passe
+     * @param scorer moteur de score, voir {@link #readResourceAsScorer(String)}
+     * @return histogramme des forces
+     */
+    PasswordScoreHistogram getScoreHistogram(Supplier<Stream<String>> allPasswords, PasswordStrengthScorer scorer);
+
+    /**
+     * Nombre de mots de passe distincts et mots de passe les plus fréquents, en une seule lecture.
+     * @param allPasswords Stream de mots de passe
+     * @param exact true pour compter exactement (mémoire proportionnelle au nombre de mots de passe distincts),
+     *              false pour une esquisse de taille bornée, voir {@link PasswordFrequencySketch}
+     * @return fréquences
+     */
+    PasswordFrequencySketch getFrequencySketch(Supplier<Stream<String>> allPasswords, boolean exact);
+
+    /**
+     * Métriques des calculs, voir {@link PasswordStatsMetrics}.
+     * @return métriques ; par défaut {@link PasswordStatsMetrics#DISABLED}, qui refuse d'être activée
+     */
+    default PasswordStatsMetrics getMetrics() {
+        return PasswordStatsMetrics.DISABLED;
+    }
+
+    /**
+     * Chemin d'un fichier en ressource.
+     *
+     * @param filename nom du fichier en ressource
+     * @return chemin du fichier
+     */
+    default Path getResourcePath(final String filename) {
+        try {
+            return Paths.get(ClassLoader.getSystemResource(filename).toURI());
+        } catch (NullPointerException | URISyntaxException e) {
+            throw new IllegalArgumentException("Ressource inexistante : " + filename);
+        }
+    }
+
     /**
      * Lecture d'un fichier en ressource.
      *
@@ -89,52 +160,187 @@ public interface IPasswordStats {
     default Stream<String> readResourceAsStream(final String filename) {
         Stream<String> stream;
         try {
-            Path path = Paths.get(ClassLoader.getSystemResource(filename).toURI());
-            stream = Files.lines(path, Charset.defaultCharset());
-        } catch (NullPointerException | URISyntaxException | IOException e) {
+            stream = Files.lines(getResourcePath(filename), Charset.defaultCharset());
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Ressource inexistante : " + filename);
+        }
+        return stream;
+    }
+
+    /**
+     * Lecture d'un fichier en ressource projeté en mémoire, sans BufferedReader.
+     * Retombe sur {@link #readResourceAsStream(String)} si le charset par défaut n'est pas supporté
+     * par {@link MappedFileLines}.
+     *
+     * @param filename nom du fichier en ressource
+     * @return Stream ligne par ligne, à fermer après usage.
+     */
+    default Stream<String> readResourceAsMappedStream(final String filename) {
+        return readResourceAsMappedStream(filename, false);
+    }
+
+    /**
+     * Lecture d'un fichier en ressource projeté en mémoire, éventuellement en parallèle.
+     * En parallèle, le fichier est découpé en zones égales alignées sur les lignes.
+     *
+     * @param filename nom du fichier en ressource
+     * @param parallel true pour un Stream parallèle
+     * @return Stream ligne par ligne, à fermer après usage.
+     */
+    default Stream<String> readResourceAsMappedStream(final String filename, final boolean parallel) {
+        Charset charset = Charset.defaultCharset();
+        if (!MappedFileLines.supports(charset)) {
+            Stream<String> stream = readResourceAsStream(filename);
+            return parallel ? stream.parallel() : stream;
+        }
+        Stream<String> stream;
+        try {
+            stream = MappedFileLines.lines(getResourcePath(filename), charset, parallel);
+        } catch (IOException e) {
             throw new IllegalArgumentException("Ressource inexistante : " + filename);
         }
         return stream;
     }
 
+    /**
+     * Lecture d'un dictionnaire écrit par {@link PasswordDictionary#write(Path, Stream)}, sans le charger en mémoire.
+     * Chaque mot de passe est restitué autant de fois qu'il apparaissait dans le corpus d'origine,
+     * dans l'ordre du dictionnaire.
+     *
+     * @param path fichier du dictionnaire
+     * @param parallel true pour un Stream parallèle (découpé par blocs)
+     * @return Stream ligne par ligne
+     */
+    default Stream<String> readDictionaryAsStream(final Path path, final boolean parallel) {
+        Stream<String> stream;
+        try {
+            stream = PasswordDictionary.open(path).lines();
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Dictionnaire illisible : " + path, e);
+        }
+        return parallel ? stream.parallel() : stream;
+    }
+
+    /**
+     * Chargement d'une liste de mots de passe interdits depuis des fichiers en ressource.
+     * Ex: readResourceAsBlocklist("10k_most_common.txt", "leaked_passwords.txt")
+     *
+     * @param filenames noms des fichiers en ressource, un mot de passe par ligne
+     * @return liste de mots de passe interdits
+     */
+    default PasswordBlocklist readResourceAsBlocklist(final String... filenames) {
+        List<Stream<String>> streams = new ArrayList<>();
+        try {
+            for (String filename : filenames) {
+                streams.add(readResourceAsMappedStream(filename));
+            }
+            return PasswordBlocklist.of(streams.stream().flatMap(s -> s));
+        } finally {
+            streams.forEach(Stream::close);
+        }
+    }
+
+    /**
+     * Chargement d'un moteur de score depuis un dictionnaire en ressource, du plus courant au moins courant.
+     * Ex: readResourceAsScorer("10k_most_common.txt")
+     *
+     * @param filename nom du fichier en ressource, un mot de passe par ligne
+     * @return moteur de score
+     */
+    default PasswordStrengthScorer readResourceAsScorer(final String filename) {
+        try (Stream<String> words = readResourceAsMappedStream(filename)) {
+            return PasswordStrengthScorer.of(words);
+        }
+    }
+
     /**
      * Renvoie les positions des caractères spéciaux de la String.
      * @param testString String à tester
      * @return liste de positions (vide s'il n'y a pas de caratère spécial)
      */
     default List<Integer> getIndexOfSpecialChar(final String testString) {
-        Matcher matcher = SPECIAL_CHAR_PATTERN.matcher(testString);
         List<Integer> result = new ArrayList<>();
-        while(matcher.find()) {
-            result.add(matcher.start());
-        }
+        forEachSpecialCharPosition(testString, result::add);
         return result;
     }
 
+    /**
+     * Ecrit les positions des caractères spéciaux de la String dans un tableau réutilisable, sans allocation.
+     * @param testString String à tester
+     * @param positions tableau de sortie ; seules les premières positions y sont écrites s'il est trop petit
+     * @return nombre total de caractères spéciaux
+     */
+    default int getIndexOfSpecialChar(final String testString, final int[] positions) {
+        int count = 0;
+        for (int i = PasswordClassifier.indexOfSpecialChar(testString, 0); i >= 0;
+             i = PasswordClassifier.indexOfSpecialChar(testString, i + 1)) {
+            if (count < positions.length) {
+                positions[count] = i;
+            }
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Transmet chaque position de caractère spécial de la String, sans allocation.
+     * @param testString String à tester
+     * @param action consommateur des positions, par ordre croissant
+     */
+    default void forEachSpecialCharPosition(final String testString, final IntConsumer action) {
+        for (int i = PasswordClassifier.indexOfSpecialChar(testString, 0); i >= 0;
+             i = PasswordClassifier.indexOfSpecialChar(testString, i + 1)) {
+            action.accept(i);
+        }
+    }
+
     /**
      * Affichage des stats dans la console.
      * @param filename nom du fichier à analyser
      */
     default void printStats(final String filename) {
-        long tStart = System.currentTimeMillis();
-        Supplier<Stream<String>> allPasswords = () -> this.readResourceAsStream(filename);
-        long countAllStrong = this.getAllStrong(allPasswords).size();
-        long countAllWithSpecialChars = this.getAllWithSpecialChars(allPasswords).size();
-        long countAllWithNumbers = this.getAllWithNumbers(allPasswords).size();
-        long countAllWithUppercaseAndLowercase = this.getAllWithUppercaseAndLowercase(allPasswords).size();
-        long countAllWithOnlyOneLastSpecialChar = this.getAllWithOnlyOneLastSpecialChar(allPasswords).size();
-
-        System.out.println("Number of strong passwords : " + countAllStrong);
-        System.out.println("Number of passwords with at least 1 special char : " + countAllWithSpecialChars);
-        System.out.println("Number of passwords with at least 1 number : " + countAllWithNumbers);
-        System.out.println("Number of passwords mixing upper and lower case  : " + countAllWithUppercaseAndLowercase);
+        printStats(filename, false);
+    }
+
+    /**
+     * Affichage des stats dans la console.
+     * Si les métriques sont activées, elles sont ensuite transmises aux reporters de {@link #getMetrics()}.
+     * @param filename nom du fichier à analyser
+     * @param parallel true pour analyser le fichier en parallèle
+     */
+    default void printStats(final String filename, final boolean parallel) {
+        long tStart = System.nanoTime();
+        printReport(getResourceReport(filename, parallel));
+        double elapsedSeconds = (System.nanoTime() - tStart) / 1e9;
+        System.out.println("Total time : " + elapsedSeconds + 's');
+        getMetrics().report();
+    }
+
+    /**
+     * Rapport sur un fichier en ressource, utilisé par {@link #printStats(String, boolean)}.
+     * @param filename nom du fichier à analyser
+     * @param parallel true pour analyser le fichier en parallèle
+     * @return rapport de statistiques
+     */
+    default PasswordReport getResourceReport(final String filename, final boolean parallel) {
+        try (Stream<String> passwords = this.readResourceAsMappedStream(filename, parallel)) {
+            return this.getReport(() -> passwords);
+        }
+    }
+
+    /**
+     * Affichage d'un rapport dans la console.
+     * @param report rapport à afficher
+     */
+    default void printReport(final PasswordReport report) {
+        System.out.println("Number of strong passwords : " + report.getCountStrong());
+        System.out.println("Number of passwords with at least 1 special char : " + report.getCountWithSpecialChars());
+        System.out.println("Number of passwords with at least 1 number : " + report.getCountWithNumbers());
+        System.out.println("Number of passwords mixing upper and lower case  : " + report.getCountWithUppercaseAndLowercase());
         System.out.println("Count of passwords by special char position : ");
-        this.countBySpecialCharPosition(allPasswords).entrySet().stream()
+        report.getCountBySpecialCharPosition().entrySet().stream()
                 .forEach(e -> System.out.println(" - Position " + e.getKey() + " : " + e.getValue()));
 
-        System.out.println("\nCount of passwords with only one special char at the end : " + countAllWithOnlyOneLastSpecialChar);
-        long tEnd = System.currentTimeMillis();
-        double elapsedSeconds = (tEnd - tStart) / 1000.0;
-        System.out.println("Total time : " + elapsedSeconds + 's');
+        System.out.println("\nCount of passwords with only one special char at the end : " + report.getCountWithOnlyOneLastSpecialChar());
     }
 }
@@ -0,0 +1,265 @@
+package tech.techturningpoint.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Lecture ligne par ligne d'un fichier projeté en mémoire avec {@link FileChannel#map}.
+ *
+ * Les lignes sont découpées directement sur les octets projetés (fins de ligne \n, \r ou \r\n, comme
+ * {@link java.io.BufferedReader#readLine()}) et seule la ligne trouvée est décodée. Le fichier est projeté
+ * par fenêtres successives, ce qui permet de lire des fichiers de plus de 2 Go.
+ * Les séquences d'octets invalides pour le charset sont remplacées au lieu de lever une exception.
+ *
+ * En parallèle, le fichier est découpé en zones d'octets de tailles égales, alignées sur les débuts de ligne :
+ * chaque ligne appartient à la zone où elle commence.
+ */
+public final class MappedFileLines {
+
+    /**
+     * Taille par défaut d'une fenêtre de projection (64 Mo).
+     */
+    static final int DEFAULT_WINDOW_SIZE = 64 << 20;
+
+    /**
+     * Taille en dessous de laquelle une zone n'est plus découpée pour le parallélisme (16 Ko).
+     */
+    static final int MIN_SPLIT_SIZE = 16 << 10;
+
+    private MappedFileLines() {
+    }
+
+    /**
+     * Le découpage sur les octets n'est correct que si \n et \r sont codés sur un octet
+     * qui n'apparaît dans aucune séquence multi-octets.
+     * @param charset charset du fichier
+     * @return true si le charset est supporté
+     */
+    public static boolean supports(final Charset charset) {
+        return StandardCharsets.UTF_8.equals(charset)
+                || StandardCharsets.US_ASCII.equals(charset)
+                || StandardCharsets.ISO_8859_1.equals(charset);
+    }
+
+    /**
+     * Stream des lignes du fichier. Le Stream doit être fermé pour libérer le fichier.
+     * @param path fichier à lire
+     * @param charset charset du fichier, voir {@link #supports(Charset)}
+     * @return Stream ligne par ligne
+     * @throws IOException si le fichier ne peut pas être ouvert
+     */
+    public static Stream<String> lines(final Path path, final Charset charset) throws IOException {
+        return lines(path, charset, false);
+    }
+
+    /**
+     * Stream des lignes du fichier, éventuellement parallèle. Le Stream doit être fermé pour libérer le fichier.
+     * @param path fichier à lire
+     * @param charset charset du fichier, voir {@link #supports(Charset)}
+     * @param parallel true pour un Stream parallèle
+     * @return Stream ligne par ligne
+     * @throws IOException si le fichier ne peut pas être ouvert
+     */
+    public static Stream<String> lines(final Path path, final Charset charset, final boolean parallel) throws IOException {
+        return lines(path, charset, DEFAULT_WINDOW_SIZE, parallel);
+    }
+
+    static Stream<String> lines(final Path path, final Charset charset, final int windowSize,
+                                final boolean parallel) throws IOException {
+        if (!supports(charset)) {
+            throw new IllegalArgumentException("Charset non supporté : " + charset);
+        }
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            Spliterator<String> lines = new LineSpliterator(channel, charset, windowSize, 0, channel.size());
+            return StreamSupport.stream(lines, parallel).onClose(() -> {
+                try {
+                    channel.close();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Parcours des lignes commençant entre deux positions du fichier.
+     */
+    static class LineSpliterator extends Spliterators.AbstractSpliterator<String> {
+
+        final FileChannel channel;
+        final Charset charset;
+        final int windowSize;
+
+        /**
+         * Position dans le fichier de la prochaine ligne.
+         */
+        long position;
+
+        /**
+         * Fin (exclue) de la zone lue : début de ligne ou fin du fichier.
+         */
+        long end;
+
+        private final long fileSize;
+        private MappedByteBuffer window;
+        private ByteBuffer reader;
+        private long windowStart;
+        private byte[] line = new byte[128];
+
+        LineSpliterator(final FileChannel channel, final Charset charset, final int windowSize,
+                        final long start, final long end) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+            this.channel = channel;
+            this.charset = charset;
+            this.windowSize = windowSize;
+            this.position = start;
+            this.end = end;
+            try {
+                this.fileSize = channel.size();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public boolean tryAdvance(final Consumer<? super String> action) {
+            if (position >= end) {
+                return false;
+            }
+            long size = windowSize;
+            if (window == null || position < windowStart || position >= windowStart + window.limit()) {
+                map(size);
+            }
+            while (true) {
+                int from = (int) (position - windowStart);
+                int limit = window.limit();
+                boolean lastWindow = windowStart + limit >= fileSize;
+                int i = from;
+                while (i < limit) {
+                    byte b = window.get(i);
+                    if (b == '\n' || b == '\r') {
+                        break;
+                    }
+                    i++;
+                }
+                if (i < limit && (i + 1 < limit || lastWindow || window.get(i) == '\n')) {
+                    int next = i + 1;
+                    if (window.get(i) == '\r' && next < limit && window.get(next) == '\n') {
+                        next++;
+                    }
+                    position = windowStart + next;
+                    action.accept(decode(from, i));
+                    return true;
+                }
+                if (i == limit && lastWindow) {
+                    position = windowStart + limit;
+                    action.accept(decode(from, limit));
+                    return true;
+                }
+                // La ligne (ou un \r\n) déborde de la fenêtre : on la projette à nouveau, plus grande
+                if (size >= Integer.MAX_VALUE) {
+                    throw new UncheckedIOException(new IOException("Ligne trop longue à la position " + position));
+                }
+                size = Math.min(Integer.MAX_VALUE, size * 2);
+                map(size);
+            }
+        }
+
+        @Override
+        public Spliterator<String> trySplit() {
+            if (end - position < 2L * MIN_SPLIT_SIZE) {
+                return null;
+            }
+            long split = nextLineStart(position + (end - position) / 2);
+            if (split >= end) {
+                return null;
+            }
+            Spliterator<String> prefix = new LineSpliterator(channel, charset, windowSize, position, split);
+            position = split;
+            window = null;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return end - position;
+        }
+
+        /**
+         * Premier début de ligne après la position donnée : juste après le prochain \n, \r ou \r\n.
+         * @param from position de départ
+         * @return début de ligne, ou {@link #end} s'il n'y en a pas avant
+         */
+        private long nextLineStart(final long from) {
+            ByteBuffer chunk = ByteBuffer.allocate(8 << 10);
+            long offset = from;
+            try {
+                while (offset < end) {
+                    // méthode de Buffer, comme dans decode(int, int)
+                    ((Buffer) chunk).clear();
+                    int read = channel.read(chunk, offset);
+                    if (read <= 0) {
+                        return end;
+                    }
+                    for (int i = 0; i < read; i++) {
+                        byte b = chunk.get(i);
+                        if (b == '\n') {
+                            return offset + i + 1;
+                        }
+                        if (b == '\r') {
+                            long next = offset + i + 1;
+                            if (i + 1 < read) {
+                                return chunk.get(i + 1) == '\n' ? next + 1 : next;
+                            }
+                            ByteBuffer one = ByteBuffer.allocate(1);
+                            return channel.read(one, next) == 1 && one.get(0) == '\n' ? next + 1 : next;
+                        }
+                    }
+                    offset += read;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return end;
+        }
+
+        private void map(final long size) {
+            try {
+                long length = Math.min(size, fileSize - position);
+                window = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                reader = window.duplicate();
+                windowStart = position;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private String decode(final int from, final int to) {
+            int length = to - from;
+            if (line.length < length) {
+                line = new byte[Math.max(length, line.length * 2)];
+            }
+            // Buffer.position(int) : ByteBuffer.position(int) n'existe qu'à partir de Java 9
+            ((Buffer) reader).position(from);
+            reader.get(line, 0, length);
+            return new String(line, 0, length, charset);
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package tech.techturningpoint.service;
+
+import tech.techturningpoint.model.Person;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Index des personnes par préfixe du nom, construit une fois et enrichi au fil des ajouts.
+ *
+ * Deux arbres de préfixes (trie) : l'un sur les noms tels quels, l'autre sur les noms repliés en casse
+ * (même règle que {@link String#regionMatches(boolean, int, String, int, int)}).
+ * Chaque noeud porte le nombre et la somme des âges des personnes de son sous-arbre :
+ * le nombre et la moyenne d'âge pour un préfixe se lisent en O(longueur du préfixe),
+ * la liste en O(longueur du préfixe + taille du résultat).
+ * L'âge pris en compte est celui au moment de l'ajout. Les personnes sans nom sont ignorées.
+ */
+public final class NamePrefixIndex {
+
+    private final Node exact = new Node();
+    private final Node folded = new Node();
+
+    /**
+     * Construit l'index.
+     * @param persons personnes à indexer
+     * @return index
+     */
+    public static NamePrefixIndex of(final Collection<Person> persons) {
+        NamePrefixIndex index = new NamePrefixIndex();
+        index.addAll(persons);
+        return index;
+    }
+
+    /**
+     * Ajoute une personne à l'index, sans reconstruction.
+     * @param person personne
+     */
+    public synchronized void add(final Person person) {
+        if (person.nom == null) {
+            return;
+        }
+        insert(exact, person, false);
+        insert(folded, person, true);
+    }
+
+    /**
+     * Ajoute des personnes à l'index, sans reconstruction.
+     * @param persons personnes
+     */
+    public synchronized void addAll(final Collection<Person> persons) {
+        for (Person person : persons) {
+            add(person);
+        }
+    }
+
+    /**
+     * @return nombre de personnes indexées
+     */
+    public synchronized int size() {
+        return exact.count;
+    }
+
+    /**
+     * @param prefix préfixe du nom
+     * @return nombre de personnes dont le nom commence par le préfixe
+     */
+    public int count(final String prefix) {
+        return count(prefix, false);
+    }
+
+    /**
+     * @param prefix préfixe du nom
+     * @param ignoreCase true pour ignorer la casse
+     * @return nombre de personnes dont le nom commence par le préfixe
+     */
+    public synchronized int count(final String prefix, final boolean ignoreCase) {
+        Node node = find(prefix, ignoreCase);
+        return node == null ? 0 : node.count;
+    }
+
+    /**
+     * @param prefix préfixe du nom
+     * @return moyenne des âges des personnes dont le nom commence par le préfixe, 0 si aucune
+     */
+    public double averageAge(final String prefix) {
+        return averageAge(prefix, false);
+    }
+
+    /**
+     * @param prefix préfixe du nom
+     * @param ignoreCase true pour ignorer la casse
+     * @return moyenne des âges des personnes dont le nom commence par le préfixe, 0 si aucune
+     */
+    public synchronized double averageAge(final String prefix, final boolean ignoreCase) {
+        Node node = find(prefix, ignoreCase);
+        return node == null || node.count == 0 ? 0.0 : (double) node.ageSum / node.count;
+    }
+
+    /**
+     * @param prefix préfixe du nom
+     * @return personnes dont le nom commence par le préfixe
+     */
+    public List<Person> getAll(final String prefix) {
+        return getAll(prefix, false);
+    }
+
+    /**
+     * @param prefix préfixe du nom
+     * @param ignoreCase true pour ignorer la casse
+     * @return personnes dont le nom commence par le préfixe, par ordre des noms (repliés si la casse est ignorée)
+     * puis par ordre d'ajout
+     */
+    public synchronized List<Person> getAll(final String prefix, final boolean ignoreCase) {
+        Node node = find(prefix, ignoreCase);
+        List<Person> persons = new ArrayList<>(node == null ? 0 : node.count);
+        if (node != null) {
+            node.collect(persons);
+        }
+        return persons;
+    }
+
+    private static char fold(final char c) {
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+
+    private static void insert(final Node root, final Person person, final boolean ignoreCase) {
+        String nom = person.nom;
+        int age = person.getAge();
+        Node node = root;
+        node.count++;
+        node.ageSum += age;
+        for (int i = 0; i < nom.length(); i++) {
+            char c = ignoreCase ? fold(nom.charAt(i)) : nom.charAt(i);
+            node = node.childOrCreate(c);
+            node.count++;
+            node.ageSum += age;
+        }
+        if (node.persons == null) {
+            node.persons = new ArrayList<>(1);
+        }
+        node.persons.add(person);
+    }
+
+    private Node find(final String prefix, final boolean ignoreCase) {
+        Node node = ignoreCase ? folded : exact;
+        for (int i = 0; i < prefix.length() && node != null; i++) {
+            node = node.child(ignoreCase ? fold(prefix.charAt(i)) : prefix.charAt(i));
+        }
+        return node;
+    }
+
+    /**
+     * Noeud du trie : enfants triés par caractère, agrégats du sous-arbre, personnes dont le nom s'arrête ici.
+     */
+    private static final class Node {
+
+        private static final char[] NO_KEYS = new char[0];
+        private static final Node[] NO_CHILDREN = new Node[0];
+
+        char[] keys = NO_KEYS;
+        Node[] children = NO_CHILDREN;
+        int childCount;
+        int count;
+        long ageSum;
+        List<Person> persons;
+
+        Node child(final char c) {
+            int i = Arrays.binarySearch(keys, 0, childCount, c);
+            return i >= 0 ? children[i] : null;
+        }
+
+        Node childOrCreate(final char c) {
+            int i = Arrays.binarySearch(keys, 0, childCount, c);
+            if (i >= 0) {
+                return children[i];
+            }
+            i = -i - 1;
+            if (childCount == keys.length) {
+                int capacity = Math.max(2, childCount * 2);
+                keys = Arrays.copyOf(keys, capacity);
+                children = Arrays.copyOf(children, capacity);
+            }
+            System.arraycopy(keys, i, keys, i + 1, childCount - i);
+            System.arraycopy(children, i, children, i + 1, childCount - i);
+            Node child = new Node();
+            keys[i] = c;
+            children[i] = child;
+            childCount++;
+            return child;
+        }
+
+        void collect(final List<Person> result) {
+            if (persons != null) {
+                result.addAll(persons);
+            }
+            for (int i = 0; i < childCount; i++) {
+                children[i].collect(result);
+            }
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package tech.techturningpoint.service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Liste de mots de passe interdits (courants ou ayant fuité).
+ *
+ * Un filtre de Bloom répond sans accès mémoire aléatoire supplémentaire pour la grande majorité
+ * des mots de passe absents ; les autres sont vérifiés dans un ensemble exact à adressage ouvert.
+ * Le contenu est un instantané immuable, remplacé atomiquement par {@link #reload(Stream)}
+ * ou {@link #reloadSnapshot(Path)} : les vérifications concurrentes ne sont jamais bloquées.
+ */
+public final class PasswordBlocklist {
+
+    private static final int MAGIC = 0x50424C31;
+    private static final int VERSION = 1;
+
+    /**
+     * Bits du filtre de Bloom par mot de passe (environ 1 % de faux positifs avec 7 fonctions de hachage).
+     */
+    private static final int BITS_PER_PASSWORD = 10;
+    private static final int HASHES = 7;
+
+    private volatile Snapshot snapshot;
+
+    private PasswordBlocklist(final Snapshot snapshot) {
+        this.snapshot = snapshot;
+    }
+
+    /**
+     * Construit la liste à partir d'un Stream de mots de passe (les doublons sont ignorés).
+     * @param passwords mots de passe interdits
+     * @return liste de mots de passe interdits
+     */
+    public static PasswordBlocklist of(final Stream<String> passwords) {
+        return new PasswordBlocklist(Snapshot.build(passwords.distinct().collect(Collectors.toList())));
+    }
+
+    /**
+     * Lit un instantané écrit par {@link #writeSnapshot(Path)}.
+     * @param path fichier d'instantané
+     * @return liste de mots de passe interdits
+     * @throws IOException si le fichier est illisible ou n'est pas un instantané
+     */
+    public static PasswordBlocklist readSnapshot(final Path path) throws IOException {
+        return new PasswordBlocklist(Snapshot.read(path));
+    }
+
+    /**
+     * Est un mot de passe interdit.
+     * @param password mot de passe à tester
+     * @return true si le mot de passe est dans la liste
+     */
+    public boolean isBlocked(final String password) {
+        return password != null && snapshot.contains(password);
+    }
+
+    /**
+     * @return nombre de mots de passe interdits
+     */
+    public int size() {
+        return snapshot.passwords.length;
+    }
+
+    /**
+     * Remplace le contenu par de nouveaux mots de passe. L'ancien contenu reste utilisé
+     * jusqu'à ce que le nouveau soit entièrement construit.
+     * @param passwords mots de passe interdits
+     */
+    public void reload(final Stream<String> passwords) {
+        snapshot = Snapshot.build(passwords.distinct().collect(Collectors.toList()));
+    }
+
+    /**
+     * Remplace le contenu par un instantané écrit par {@link #writeSnapshot(Path)}.
+     * @param path fichier d'instantané
+     * @throws IOException si le fichier est illisible ou n'est pas un instantané
+     */
+    public void reloadSnapshot(final Path path) throws IOException {
+        snapshot = Snapshot.read(path);
+    }
+
+    /**
+     * Ecrit le contenu courant, filtre de Bloom compris, pour un rechargement rapide.
+     * @param path fichier d'instantané
+     * @throws IOException en cas d'erreur d'écriture
+     */
+    public void writeSnapshot(final Path path) throws IOException {
+        snapshot.write(path);
+    }
+
+    /**
+     * Hachage 64 bits (FNV-1a puis mélange final de MurmurHash3) des caractères du mot de passe.
+     */
+    private static long hash(final String password) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0, length = password.length(); i < length; i++) {
+            h ^= password.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    /**
+     * Contenu immuable : filtre de Bloom et table à adressage ouvert (sondage linéaire).
+     */
+    private static final class Snapshot {
+
+        final String[] passwords;
+        final long[] bloom;
+        final long bloomBits;
+        final String[] table;
+        final int[] tableHashes;
+        final int mask;
+
+        private Snapshot(final String[] passwords, final long[] bloom) {
+            this.passwords = passwords;
+            this.bloom = bloom;
+            this.bloomBits = (long) bloom.length << 6;
+            int capacity = Integer.highestOneBit(Math.max(2, passwords.length) * 2 - 1) << 1;
+            this.table = new String[capacity];
+            this.tableHashes = new int[capacity];
+            this.mask = capacity - 1;
+            for (String password : passwords) {
+                int h = (int) hash(password);
+                int slot = h & mask;
+                while (table[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                table[slot] = password;
+                tableHashes[slot] = h;
+            }
+        }
+
+        static Snapshot build(final List<String> passwords) {
+            long[] bloom = new long[bloomWords(passwords.size())];
+            long bloomBits = (long) bloom.length << 6;
+            for (String password : passwords) {
+                long h = hash(password);
+                for (int i = 0; i < HASHES; i++) {
+                    long bit = bloomIndex(h, i, bloomBits);
+                    bloom[(int) (bit >>> 6)] |= 1L << bit;
+                }
+            }
+            return new Snapshot(passwords.toArray(new String[0]), bloom);
+        }
+
+        /**
+         * @return nombre de mots de 64 bits du filtre de Bloom pour count mots de passe
+         */
+        private static int bloomWords(final int count) {
+            long bits = Math.max(64L, (long) count * BITS_PER_PASSWORD);
+            return (int) ((bits + 63) >>> 6);
+        }
+
+        /**
+         * Double hachage de Kirsch et Mitzenmacher : h1 + i * h2.
+         */
+        private static long bloomIndex(final long h, final int i, final long bloomBits) {
+            long combined = (h & 0xFFFFFFFFL) + i * (h >>> 32);
+            return Long.remainderUnsigned(combined, bloomBits);
+        }
+
+        boolean contains(final String password) {
+            long h = hash(password);
+            for (int i = 0; i < HASHES; i++) {
+                long bit = bloomIndex(h, i, bloomBits);
+                if ((bloom[(int) (bit >>> 6)] & 1L << bit) == 0) {
+                    return false;
+                }
+            }
+            int shortHash = (int) h;
+            for (int slot = shortHash & mask; table[slot] != null; slot = (slot + 1) & mask) {
+                if (tableHashes[slot] == shortHash && table[slot].equals(password)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        void write(final Path path) throws IOException {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(bloom.length);
+                for (long word : bloom) {
+                    out.writeLong(word);
+                }
+                out.writeInt(passwords.length);
+                for (String password : passwords) {
+                    byte[] bytes = password.getBytes(StandardCharsets.UTF_8);
+                    out.writeInt(bytes.length);
+                    out.write(bytes);
+                }
+            }
+        }
+
+        /**
+         * Les tailles lues sont vérifiées contre la taille du fichier avant toute allocation,
+         * et le filtre doit avoir la taille que {@link #build(List)} donne pour ce nombre de mots de passe.
+         */
+        static Snapshot read(final Path path) throws IOException {
+            long remaining = Files.size(path);
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+                if (remaining < 3 * Integer.BYTES || in.readInt() != MAGIC || in.readInt() != VERSION) {
+                    throw new IOException("Instantané de liste de mots de passe invalide : " + path);
+                }
+                int words = in.readInt();
+                remaining -= 3 * Integer.BYTES;
+                if (words <= 0 || (long) words * Long.BYTES + Integer.BYTES > remaining) {
+                    throw new IOException("Instantané de liste de mots de passe tronqué : " + path);
+                }
+                long[] bloom = new long[words];
+                for (int i = 0; i < bloom.length; i++) {
+                    bloom[i] = in.readLong();
+                }
+                int count = in.readInt();
+                remaining -= (long) words * Long.BYTES + Integer.BYTES;
+                if (count < 0 || (long) count * Integer.BYTES > remaining) {
+                    throw new IOException("Instantané de liste de mots de passe tronqué : " + path);
+                }
+                if (words != bloomWords(count)) {
+                    throw new IOException("Instantané de liste de mots de passe invalide : " + path);
+                }
+                List<String> passwords = new ArrayList<>(count);
+                byte[] bytes = new byte[128];
+                for (int i = 0; i < count; i++) {
+                    int length = in.readInt();
+                    remaining -= Integer.BYTES;
+                    // les mots de passe suivants occupent au moins leur longueur, un int chacun
+                    if (length < 0 || length + (long) (count - i - 1) * Integer.BYTES > remaining) {
+                        throw new IOException("Instantané de liste de mots de passe tronqué : " + path);
+                    }
+                    if (bytes.length < length) {
+                        bytes = new byte[length];
+                    }
+                    in.readFully(bytes, 0, length);
+                    remaining -= length;
+                    passwords.add(new String(bytes, 0, length, StandardCharsets.UTF_8));
+                }
+                if (remaining != 0) {
+                    throw new IOException("Instantané de liste de mots de passe invalide : " + path);
+                }
+                return new Snapshot(passwords.toArray(new String[0]), bloom);
+            }
+        }
+    }
+}
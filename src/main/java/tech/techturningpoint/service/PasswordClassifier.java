@@ -0,0 +1,191 @@
+package tech.techturningpoint.service;
+
+/**
+ * Classification des caractères d'un mot de passe en un seul parcours, sans expression régulière.
+ *
+ * Le résultat est un masque d'entier : les bits bas portent les classes de caractères rencontrées,
+ * les bits 8 à 15 la plus longue suite de code points identiques (saturée à 255).
+ * Les méthodes {@code has*} reproduisent exactement la sémantique des {@code String.matches(".*X.*")}
+ * de {@link PasswordStats} : le {@code .} ne reconnaît pas les fins de ligne, donc un mot de passe
+ * qui en contient ne correspond à aucun motif.
+ */
+public final class PasswordClassifier {
+
+    /**
+     * Au moins une lettre capitale ASCII.
+     */
+    public static final int UPPERCASE = 1;
+
+    /**
+     * Au moins une lettre minuscule ASCII.
+     */
+    public static final int LOWERCASE = 1 << 1;
+
+    /**
+     * Au moins un chiffre.
+     */
+    public static final int DIGIT = 1 << 2;
+
+    /**
+     * Au moins un caractère spécial (au sens de {@link PasswordStats#hasSpecial}, sans l'antislash).
+     */
+    public static final int SPECIAL = 1 << 3;
+
+    /**
+     * Au moins une fin de ligne (LF, CR, NEL, LS ou PS).
+     */
+    public static final int LINE_TERMINATOR = 1 << 4;
+
+    /**
+     * Au moins trois code points identiques à la suite (au sens de {@code (.)\1\1}).
+     */
+    public static final int REPETITION = 1 << 5;
+
+    /**
+     * Décalage de la longueur de la plus longue suite dans le masque.
+     */
+    public static final int RUN_SHIFT = 8;
+
+    private static final int MAX_RUN = 0xFF;
+
+    /**
+     * Classe de chaque caractère ASCII.
+     */
+    private static final byte[] ASCII_CLASSES = new byte[128];
+
+    static {
+        for (char c = 'A'; c <= 'Z'; c++) {
+            ASCII_CLASSES[c] = UPPERCASE;
+        }
+        for (char c = 'a'; c <= 'z'; c++) {
+            ASCII_CLASSES[c] = LOWERCASE;
+        }
+        for (char c = '0'; c <= '9'; c++) {
+            ASCII_CLASSES[c] = DIGIT;
+        }
+        for (char c : " !\"#$%&'()*+,-./:;<=>?@[]^_`{|}~".toCharArray()) {
+            ASCII_CLASSES[c] = SPECIAL;
+        }
+        ASCII_CLASSES['\n'] = LINE_TERMINATOR;
+        ASCII_CLASSES['\r'] = LINE_TERMINATOR;
+    }
+
+    private PasswordClassifier() {
+    }
+
+    /**
+     * Parcourt le mot de passe une seule fois.
+     * @param password mot de passe (non null)
+     * @return masque des classes et longueur de la plus longue suite
+     */
+    public static int classify(final CharSequence password) {
+        int mask = 0;
+        int length = password.length();
+        int maxRun = 0;
+        int run = 0;
+        int previous = -1;
+        int i = 0;
+        while (i < length) {
+            char c = password.charAt(i);
+            int codePoint = c;
+            int width = 1;
+            if (c < 128) {
+                mask |= ASCII_CLASSES[c];
+            } else if (c == '\u0085' || c == '\u2028' || c == '\u2029') {
+                mask |= LINE_TERMINATOR;
+            } else if (Character.isHighSurrogate(c) && i + 1 < length
+                    && Character.isLowSurrogate(password.charAt(i + 1))) {
+                codePoint = Character.toCodePoint(c, password.charAt(i + 1));
+                width = 2;
+            }
+
+            run = codePoint == previous ? run + 1 : 1;
+            previous = codePoint;
+            if (run > maxRun) {
+                maxRun = run;
+            }
+            if ((mask & REPETITION) == 0 && repeatsThreeTimes(password, i, width)) {
+                mask |= REPETITION;
+            }
+            i += width;
+        }
+        return mask | Math.min(maxRun, MAX_RUN) << RUN_SHIFT;
+    }
+
+    /**
+     * Equivalent de {@code (.)\1\1} à la position donnée : la rétro-référence compare les char,
+     * ce qui diffère d'une suite de code points sur des surrogates isolés.
+     */
+    private static boolean repeatsThreeTimes(final CharSequence password, final int start, final int width) {
+        if (start + 3 * width > password.length()) {
+            return false;
+        }
+        for (int j = 0; j < width; j++) {
+            char c = password.charAt(start + j);
+            if (c != password.charAt(start + width + j) || c != password.charAt(start + 2 * width + j)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Caractère spécial au sens de {@link IPasswordStats#SPECIAL_CHAR_PATTERN} (antislash compris).
+     * @param c caractère à tester
+     * @return true si caractère spécial
+     */
+    public static boolean isSpecialChar(final char c) {
+        return c < 128 && (ASCII_CLASSES[c] == SPECIAL || c == '\\');
+    }
+
+    /**
+     * Position du prochain caractère spécial au sens de {@link IPasswordStats#SPECIAL_CHAR_PATTERN}.
+     * @param password mot de passe
+     * @param from position de départ de la recherche
+     * @return position trouvée, -1 s'il n'y en a plus
+     */
+    public static int indexOfSpecialChar(final CharSequence password, final int from) {
+        for (int i = from, length = password.length(); i < length; i++) {
+            if (isSpecialChar(password.charAt(i))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Le masque contient toutes les classes demandées, comme {@code .*[X]+.*} pour chacune.
+     * @param mask masque issu de {@link #classify(CharSequence)}
+     * @param classes classes recherchées
+     * @return true si toutes les classes sont présentes
+     */
+    public static boolean hasAll(final int mask, final int classes) {
+        return (mask & (classes | LINE_TERMINATOR)) == classes;
+    }
+
+    /**
+     * Equivalent de {@code s.matches(".*(.)\\1\\1+.*")}.
+     * @param mask masque issu de {@link #classify(CharSequence)}
+     * @return true si une répétition est détectée
+     */
+    public static boolean hasRepetition(final int mask) {
+        return (mask & (REPETITION | LINE_TERMINATOR)) == REPETITION;
+    }
+
+    /**
+     * @param mask masque issu de {@link #classify(CharSequence)}
+     * @return longueur de la plus longue suite de code points identiques (saturée à 255)
+     */
+    public static int maxRun(final int mask) {
+        return mask >>> RUN_SHIFT & MAX_RUN;
+    }
+
+    /**
+     * Mot de passe fort hors critères de longueur : toutes les classes et pas de répétition.
+     * @param mask masque issu de {@link #classify(CharSequence)}
+     * @return true si le masque est celui d'un mot de passe fort
+     */
+    public static boolean isStrong(final int mask) {
+        return hasAll(mask, UPPERCASE | LOWERCASE | DIGIT | SPECIAL) && !hasRepetition(mask);
+    }
+}
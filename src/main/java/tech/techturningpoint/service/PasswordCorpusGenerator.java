@@ -0,0 +1,260 @@
+package tech.techturningpoint.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Générateur déterministe de corpus de mots de passe synthétiques.
+ *
+ * Le modèle est mesuré sur un échantillon (par exemple leaked_passwords.txt) :
+ * distribution des longueurs, puis pour chaque longueur et chaque position la répartition des classes
+ * (majuscule, minuscule, chiffre, caractère spécial, autre) et, pour chaque classe, la fréquence des caractères.
+ * Les positions sont tirées indépendamment : les marges par position (donc les positions des caractères
+ * spéciaux et le mélange des classes) sont reproduites, pas les corrélations entre positions.
+ * Une même graine et un même échantillon donnent toujours le même corpus.
+ */
+public final class PasswordCorpusGenerator {
+
+    private static final int UPPERCASE = 0;
+    private static final int LOWERCASE = 1;
+    private static final int DIGIT = 2;
+    private static final int SPECIAL = 3;
+    private static final int OTHER = 4;
+    private static final int CLASSES = 5;
+
+    /**
+     * Longueur maximale modélisée ; les lignes plus longues de l'échantillon sont ignorées.
+     */
+    static final int MAX_LENGTH = 255;
+
+    /**
+     * Nombre cumulé d'échantillons par longueur.
+     */
+    private final long[] lengthCumulative;
+
+    /**
+     * Pour chaque longueur L, L * 5 compteurs cumulés : répartition des classes position par position.
+     */
+    private final long[][] classCumulative;
+
+    /**
+     * Caractères observés par classe et leurs compteurs cumulés.
+     */
+    private final char[][] classChars;
+    private final long[][] classCharCumulative;
+
+    private PasswordCorpusGenerator(final Sample sample) {
+        lengthCumulative = cumulate(sample.lengths);
+        classCumulative = new long[sample.lengths.length][];
+        for (int length = 0; length < sample.lengths.length; length++) {
+            long[] counts = sample.positions[length];
+            long[] cumulative = new long[length * CLASSES];
+            for (int p = 0; p < length; p++) {
+                long total = 0;
+                for (int c = 0; c < CLASSES; c++) {
+                    total += counts[p * CLASSES + c];
+                    cumulative[p * CLASSES + c] = total;
+                }
+            }
+            classCumulative[length] = cumulative;
+        }
+        classChars = new char[CLASSES][];
+        classCharCumulative = new long[CLASSES][];
+        for (int c = 0; c < CLASSES; c++) {
+            int distinct = 0;
+            for (long count : sample.chars[c]) {
+                if (count > 0) {
+                    distinct++;
+                }
+            }
+            classChars[c] = new char[distinct];
+            classCharCumulative[c] = new long[distinct];
+            long total = 0;
+            for (int ch = 0, i = 0; ch < sample.chars[c].length; ch++) {
+                if (sample.chars[c][ch] > 0) {
+                    total += sample.chars[c][ch];
+                    classChars[c][i] = (char) ch;
+                    classCharCumulative[c][i++] = total;
+                }
+            }
+        }
+    }
+
+    /**
+     * Mesure le modèle sur un échantillon.
+     * @param sample mots de passe de référence
+     * @return générateur
+     */
+    public static PasswordCorpusGenerator fromSample(final Stream<String> sample) {
+        Sample measured = new Sample();
+        sample.forEachOrdered(measured::add);
+        if (measured.count == 0) {
+            throw new IllegalArgumentException("Echantillon vide");
+        }
+        return new PasswordCorpusGenerator(measured);
+    }
+
+    /**
+     * Corpus synthétique infini, à limiter avec {@link Stream#limit(long)}.
+     * @param seed graine
+     * @return Stream séquentiel de mots de passe, toujours le même pour une graine donnée
+     */
+    public Stream<String> generate(final long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        StringBuilder password = new StringBuilder(MAX_LENGTH);
+        Spliterator<String> spliterator = new Spliterators.AbstractSpliterator<String>(
+                Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(final Consumer<? super String> action) {
+                next(random, password);
+                action.accept(password.toString());
+                return true;
+            }
+        };
+        return StreamSupport.stream(spliterator, false);
+    }
+
+    /**
+     * Ecrit un corpus synthétique directement sur le disque, une ligne par mot de passe, en UTF-8.
+     * @param path fichier à écrire
+     * @param lines nombre de mots de passe
+     * @param seed graine
+     * @throws IOException en cas d'erreur d'écriture
+     */
+    public void write(final Path path, final long lines, final long seed) throws IOException {
+        SplittableRandom random = new SplittableRandom(seed);
+        StringBuilder password = new StringBuilder(MAX_LENGTH);
+        try (Writer out = new BufferedWriter(
+                new OutputStreamWriter(Files.newOutputStream(path), StandardCharsets.UTF_8), 1 << 16)) {
+            for (long i = 0; i < lines; i++) {
+                next(random, password);
+                out.append(password).append('\n');
+            }
+        }
+    }
+
+    private void next(final SplittableRandom random, final StringBuilder password) {
+        password.setLength(0);
+        int length = pick(lengthCumulative, 0, lengthCumulative.length, random);
+        long[] classes = classCumulative[length];
+        for (int p = 0; p < length; p++) {
+            int c = pick(classes, p * CLASSES, CLASSES, random) - p * CLASSES;
+            password.append(classChars[c][pick(classCharCumulative[c], 0, classChars[c].length, random)]);
+        }
+    }
+
+    /**
+     * Tire un indice dans [from, from + count) proportionnellement aux compteurs cumulés.
+     */
+    private static int pick(final long[] cumulative, final int from, final int count, final SplittableRandom random) {
+        long total = cumulative[from + count - 1];
+        long target = random.nextLong(total);
+        int i = Arrays.binarySearch(cumulative, from, from + count, target);
+        // Premier indice dont le cumul dépasse strictement la cible (en sautant les compteurs nuls)
+        i = i < 0 ? -i - 1 : i + 1;
+        while (cumulative[i] <= target) {
+            i++;
+        }
+        return i;
+    }
+
+    private static long[] cumulate(final long[] counts) {
+        long[] cumulative = new long[counts.length];
+        long total = 0;
+        for (int i = 0; i < counts.length; i++) {
+            total += counts[i];
+            cumulative[i] = total;
+        }
+        return cumulative;
+    }
+
+    private static int classOf(final char c) {
+        if (c >= 'A' && c <= 'Z') {
+            return UPPERCASE;
+        }
+        if (c >= 'a' && c <= 'z') {
+            return LOWERCASE;
+        }
+        if (c >= '0' && c <= '9') {
+            return DIGIT;
+        }
+        return PasswordClassifier.isSpecialChar(c) ? SPECIAL : OTHER;
+    }
+
+    /**
+     * Compteurs mesurés sur l'échantillon.
+     */
+    private static final class Sample {
+        long count;
+        long[] lengths = new long[1];
+        long[][] positions = {new long[0]};
+        final long[][] chars = new long[CLASSES][Character.MAX_VALUE + 1];
+
+        void add(final String password) {
+            int length = password.length();
+            if (length > MAX_LENGTH) {
+                return;
+            }
+            if (length >= lengths.length) {
+                int previous = lengths.length;
+                lengths = Arrays.copyOf(lengths, length + 1);
+                positions = Arrays.copyOf(positions, length + 1);
+                for (int l = previous; l <= length; l++) {
+                    positions[l] = new long[l * CLASSES];
+                }
+            }
+            count++;
+            lengths[length]++;
+            for (int p = 0; p < length; p++) {
+                char ch = password.charAt(p);
+                int c = classOf(ch);
+                positions[length][p * CLASSES + c]++;
+                chars[c][ch]++;
+            }
+        }
+    }
+
+    /**
+     * Génère un corpus depuis la ligne de commande.
+     * Usage : PasswordCorpusGenerator fichier lignes [graine [échantillon]]
+     * L'échantillon par défaut est la ressource leaked_passwords.txt.
+     * @param args arguments
+     * @throws IOException en cas d'erreur de lecture ou d'écriture
+     */
+    public static void main(final String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage : PasswordCorpusGenerator fichier lignes [graine [échantillon]]");
+            return;
+        }
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 0L;
+        PasswordCorpusGenerator generator;
+        if (args.length > 3) {
+            try (Stream<String> sample = MappedFileLines.lines(Paths.get(args[3]), StandardCharsets.UTF_8)) {
+                generator = fromSample(sample);
+            }
+        } else {
+            try (Stream<String> sample = new PasswordStats().readResourceAsMappedStream("leaked_passwords.txt")) {
+                generator = fromSample(sample);
+            }
+        }
+        PasswordStatsMetrics metrics = PasswordStatsMetrics.enabled();
+        long start = metrics.start();
+        generator.write(Paths.get(args[0]), Long.parseLong(args[1]), seed);
+        metrics.record("write", start);
+        System.out.println("Total time : " + metrics.getMethodNanos().get("write") / 1e9 + 's');
+        metrics.report();
+    }
+}
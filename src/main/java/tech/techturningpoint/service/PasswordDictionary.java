@@ -0,0 +1,626 @@
+package tech.techturningpoint.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Dictionnaire trié de mots de passe, compressé par préfixes communs et interrogé par projection en mémoire.
+ *
+ * Format (version 1) :
+ * <ul>
+ *     <li>en-tête : magic, version, taille de bloc, nombre de blocs, nombre de mots distincts,
+ *     nombre de lignes d'origine, position de l'index ;</li>
+ *     <li>blocs d'au plus {@link #DEFAULT_BLOCK_SIZE} mots triés par octets UTF-8 : le premier mot est complet,
+ *     les suivants ne stockent que la longueur du préfixe commun avec le précédent et leur suffixe ;
+ *     chaque mot est suivi de son nombre d'occurrences dans le corpus d'origine (entiers de longueur variable) ;</li>
+ *     <li>index : position de chaque bloc.</li>
+ * </ul>
+ * Aucun bloc ne chevauche une frontière de {@link #SEGMENT_SIZE} octets, ce qui permet de projeter
+ * des fichiers de plus de 2 Go par segments. Les recherches font une dichotomie sur les premiers mots
+ * des blocs puis décodent un seul bloc, sans créer de String pour les comparaisons.
+ * Source pour {@link IPasswordStats} : {@code () -> dictionary.lines()} restitue chaque mot autant de fois
+ * qu'il apparaissait (dans l'ordre du dictionnaire) ; les compteurs et histogrammes sont donc inchangés.
+ */
+public final class PasswordDictionary {
+
+    private static final int MAGIC = 0x50574431;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 40;
+
+    /**
+     * Nombre de mots par bloc.
+     */
+    static final int DEFAULT_BLOCK_SIZE = 16;
+
+    /**
+     * Taille d'un segment projeté (1 Go).
+     */
+    static final int SEGMENT_SIZE = 1 << 30;
+
+    private final int blockSize;
+    private final int blockCount;
+    private final long size;
+    private final long lineCount;
+    private final LongBuffer blockOffsets;
+    private final ByteBuffer[] segments;
+
+    private PasswordDictionary(final Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE) {
+                throw new IOException("Dictionnaire de mots de passe invalide : " + path);
+            }
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+            if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+                throw new IOException("Dictionnaire de mots de passe invalide : " + path);
+            }
+            blockSize = header.getInt();
+            blockCount = header.getInt();
+            size = header.getLong();
+            lineCount = header.getLong();
+            long indexOffset = header.getLong();
+            // blockSize sert de diviseur : chaque taille est vérifiée avant le premier calcul de bloc
+            if (blockSize <= 0 || blockCount < 0 || size < 0 || lineCount < size
+                    || blockCount != (size + blockSize - 1) / blockSize) {
+                throw new IOException("Dictionnaire de mots de passe invalide : " + path);
+            }
+            long indexLength = (long) blockCount * Long.BYTES;
+            if (indexOffset < HEADER_SIZE || indexLength > Integer.MAX_VALUE
+                    || indexOffset + indexLength != channel.size()) {
+                throw new IOException("Dictionnaire de mots de passe tronqué : " + path);
+            }
+            blockOffsets = channel.map(FileChannel.MapMode.READ_ONLY, indexOffset, indexLength).asLongBuffer();
+            long dataLength = indexOffset - HEADER_SIZE;
+            long previous = -1;
+            for (int b = 0; b < blockCount; b++) {
+                long offset = blockOffsets.get(b);
+                if (offset <= previous || offset >= dataLength) {
+                    throw new IOException("Dictionnaire de mots de passe invalide : " + path);
+                }
+                previous = offset;
+            }
+            segments = new ByteBuffer[(int) ((dataLength + SEGMENT_SIZE - 1) / SEGMENT_SIZE)];
+            for (int s = 0; s < segments.length; s++) {
+                long start = (long) s * SEGMENT_SIZE;
+                segments[s] = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE + start,
+                        Math.min(SEGMENT_SIZE, dataLength - start));
+            }
+        }
+    }
+
+    /**
+     * Projette un dictionnaire écrit par {@link #write(Path, Stream)}.
+     * @param path fichier du dictionnaire
+     * @return dictionnaire
+     * @throws IOException si le fichier est illisible ou n'est pas un dictionnaire
+     */
+    public static PasswordDictionary open(final Path path) throws IOException {
+        return new PasswordDictionary(path);
+    }
+
+    /**
+     * Ecrit le dictionnaire de mots de passe quelconques : ils sont comptés et triés en mémoire.
+     * @param path fichier à écrire
+     * @param passwords mots de passe, doublons compris
+     * @throws IOException en cas d'erreur d'écriture
+     */
+    public static void write(final Path path, final Stream<String> passwords) throws IOException {
+        Map<String, Long> counts = new HashMap<>();
+        passwords.forEach(p -> counts.merge(p, 1L, Long::sum));
+        List<Map.Entry<byte[], Long>> sorted = new ArrayList<>(counts.size());
+        counts.forEach((password, count) ->
+                sorted.add(new AbstractMap.SimpleImmutableEntry<>(password.getBytes(StandardCharsets.UTF_8), count)));
+        sorted.sort((a, b) -> compare(a.getKey(), b.getKey()));
+        try (Writer writer = new Writer(path, DEFAULT_BLOCK_SIZE)) {
+            for (Map.Entry<byte[], Long> entry : sorted) {
+                writer.add(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * Ecrit le dictionnaire de mots de passe déjà triés par octets UTF-8 (par exemple avec {@code LC_ALL=C sort}),
+     * sans les charger en mémoire : seuls le bloc courant et l'index des blocs sont conservés.
+     * @param path fichier à écrire
+     * @param sortedPasswords mots de passe triés, doublons adjacents
+     * @throws IOException en cas d'erreur d'écriture
+     * @throws IllegalArgumentException si les mots de passe ne sont pas triés
+     */
+    public static void writeSorted(final Path path, final Stream<String> sortedPasswords) throws IOException {
+        try (Writer writer = new Writer(path, DEFAULT_BLOCK_SIZE)) {
+            byte[] previous = null;
+            long count = 0;
+            for (Iterator<String> it = sortedPasswords.iterator(); it.hasNext(); ) {
+                byte[] bytes = it.next().getBytes(StandardCharsets.UTF_8);
+                int order = previous == null ? 1 : compare(bytes, previous);
+                if (order < 0) {
+                    throw new IllegalArgumentException("Mots de passe non triés : " + new String(bytes, StandardCharsets.UTF_8));
+                }
+                if (order == 0) {
+                    count++;
+                } else {
+                    if (previous != null) {
+                        writer.add(previous, count);
+                    }
+                    previous = bytes;
+                    count = 1;
+                }
+            }
+            if (previous != null) {
+                writer.add(previous, count);
+            }
+        }
+    }
+
+    /**
+     * Ordre des octets non signés, identique à l'ordre des points de code.
+     */
+    private static int compare(final byte[] a, final byte[] b) {
+        return compare(a, a.length, b, b.length);
+    }
+
+    private static int compare(final byte[] a, final int aLength, final byte[] b, final int bLength) {
+        int length = Math.min(aLength, bLength);
+        for (int i = 0; i < length; i++) {
+            int diff = (a[i] & 0xFF) - (b[i] & 0xFF);
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        return aLength - bLength;
+    }
+
+    /**
+     * @return nombre de mots de passe distincts
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * @return nombre de lignes du corpus d'origine (doublons compris)
+     */
+    public long lineCount() {
+        return lineCount;
+    }
+
+    /**
+     * @param password mot de passe
+     * @return true s'il est dans le dictionnaire
+     */
+    public boolean contains(final String password) {
+        return count(password) > 0;
+    }
+
+    /**
+     * @param password mot de passe
+     * @return nombre d'occurrences dans le corpus d'origine, 0 s'il est absent
+     */
+    public long count(final String password) {
+        Cursor cursor = find(password.getBytes(StandardCharsets.UTF_8));
+        return cursor == null ? 0 : cursor.count;
+    }
+
+    /**
+     * @param password mot de passe
+     * @return rang du mot de passe dans l'ordre du dictionnaire, -1 s'il est absent
+     */
+    public long indexOf(final String password) {
+        Cursor cursor = find(password.getBytes(StandardCharsets.UTF_8));
+        return cursor == null ? -1 : cursor.ordinal;
+    }
+
+    /**
+     * @param ordinal rang dans l'ordre du dictionnaire
+     * @return mot de passe de ce rang
+     */
+    public String get(final long ordinal) {
+        if (ordinal < 0 || ordinal >= size) {
+            throw new IndexOutOfBoundsException("Rang : " + ordinal + ", taille : " + size);
+        }
+        Cursor cursor = new Cursor((int) (ordinal / blockSize));
+        do {
+            cursor.next();
+        } while (cursor.ordinal < ordinal);
+        return cursor.current();
+    }
+
+    /**
+     * @return mots de passe distincts, dans l'ordre du dictionnaire ; le Stream peut être parallélisé par blocs
+     */
+    public Stream<String> stream() {
+        return StreamSupport.stream(new BlockSpliterator(0, blockCount, false), false);
+    }
+
+    /**
+     * @return lignes du corpus d'origine, chaque mot étant répété selon son nombre d'occurrences
+     */
+    public Stream<String> lines() {
+        return StreamSupport.stream(new BlockSpliterator(0, blockCount, true), false);
+    }
+
+    /**
+     * @param prefix préfixe
+     * @return mots de passe distincts commençant par le préfixe, dans l'ordre du dictionnaire
+     */
+    public Stream<String> withPrefix(final String prefix) {
+        if (blockCount == 0) {
+            return Stream.empty();
+        }
+        byte[] key = prefix.getBytes(StandardCharsets.UTF_8);
+        Cursor start = new Cursor(Math.max(0, lastBlockStartingBefore(key)));
+        Spliterator<String> spliterator = new Spliterator<String>() {
+            @Override
+            public boolean tryAdvance(final Consumer<? super String> action) {
+                while (start.hasNext()) {
+                    start.next();
+                    int order = compare(start.bytes, Math.min(start.length, key.length), key, key.length);
+                    if (order == 0 && start.length >= key.length) {
+                        action.accept(start.current());
+                        return true;
+                    }
+                    if (order > 0) {
+                        return false;
+                    }
+                }
+                return false;
+            }
+
+            @Override
+            public Spliterator<String> trySplit() {
+                return null;
+            }
+
+            @Override
+            public long estimateSize() {
+                return Long.MAX_VALUE;
+            }
+
+            @Override
+            public int characteristics() {
+                return ORDERED | DISTINCT | NONNULL;
+            }
+        };
+        return StreamSupport.stream(spliterator, false);
+    }
+
+    /**
+     * Dernier bloc dont le premier mot est strictement inférieur à la clé (-1 si aucun).
+     */
+    private int lastBlockStartingBefore(final byte[] key) {
+        int low = 0;
+        int high = blockCount - 1;
+        int result = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            Cursor cursor = new Cursor(mid);
+            cursor.next();
+            if (compare(cursor.bytes, cursor.length, key, key.length) < 0) {
+                result = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return result;
+    }
+
+    private Cursor find(final byte[] key) {
+        if (blockCount == 0) {
+            return null;
+        }
+        int block = lastBlockStartingBefore(key);
+        // Le mot peut être le premier du bloc suivant
+        Cursor cursor = new Cursor(Math.max(0, block));
+        int blocksToScan = block < 0 ? 1 : 2;
+        long end = Math.min(size, (long) (Math.max(0, block) + blocksToScan) * blockSize);
+        while (cursor.nextOrdinal < end && cursor.hasNext()) {
+            cursor.next();
+            int order = compare(cursor.bytes, cursor.length, key, key.length);
+            if (order == 0) {
+                return cursor;
+            }
+            if (order > 0) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    private static int readVarInt(final ByteBuffer buffer, final int[] position) {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = buffer.get(position[0]++);
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return value;
+    }
+
+    private static long readVarLong(final ByteBuffer buffer, final int[] position) {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = buffer.get(position[0]++);
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return value;
+    }
+
+    /**
+     * Décodage séquentiel à partir du début d'un bloc ; le mot courant est gardé en octets.
+     */
+    private final class Cursor {
+        private int block;
+        private int remainingInBlock;
+        private boolean firstInBlock;
+        private ByteBuffer segment;
+        private final int[] position = new int[1];
+        long nextOrdinal;
+        long ordinal = -1;
+        byte[] bytes = new byte[64];
+        int length;
+        long count;
+
+        Cursor(final int block) {
+            this.block = block;
+            this.nextOrdinal = (long) block * blockSize;
+            enterBlock();
+        }
+
+        private void enterBlock() {
+            if (block < blockCount) {
+                long offset = blockOffsets.get(block);
+                segment = segments[(int) (offset / SEGMENT_SIZE)];
+                position[0] = (int) (offset % SEGMENT_SIZE);
+                remainingInBlock = (int) Math.min(blockSize, size - (long) block * blockSize);
+                firstInBlock = true;
+            }
+        }
+
+        boolean hasNext() {
+            return block < blockCount && (remainingInBlock > 0 || block + 1 < blockCount);
+        }
+
+        void next() {
+            if (remainingInBlock == 0) {
+                block++;
+                enterBlock();
+            }
+            int shared = firstInBlock ? 0 : readVarInt(segment, position);
+            int suffix = readVarInt(segment, position);
+            if (bytes.length < shared + suffix) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, shared + suffix));
+            }
+            for (int i = 0; i < suffix; i++) {
+                bytes[shared + i] = segment.get(position[0]++);
+            }
+            length = shared + suffix;
+            count = readVarLong(segment, position);
+            firstInBlock = false;
+            remainingInBlock--;
+            ordinal = nextOrdinal++;
+        }
+
+        String current() {
+            return new String(bytes, 0, length, StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Parcours d'une plage de blocs, découpable en deux pour le parallélisme.
+     */
+    private final class BlockSpliterator implements Spliterator<String> {
+        private int fromBlock;
+        private final int toBlock;
+        private final boolean repeat;
+        private Cursor cursor;
+        private long pending;
+
+        BlockSpliterator(final int fromBlock, final int toBlock, final boolean repeat) {
+            this.fromBlock = fromBlock;
+            this.toBlock = toBlock;
+            this.repeat = repeat;
+        }
+
+        @Override
+        public boolean tryAdvance(final Consumer<? super String> action) {
+            if (cursor == null) {
+                if (fromBlock >= toBlock) {
+                    return false;
+                }
+                cursor = new Cursor(fromBlock);
+            }
+            if (pending > 0) {
+                pending--;
+                action.accept(cursor.current());
+                return true;
+            }
+            if (!cursor.hasNext() || nextBlockReached()) {
+                return false;
+            }
+            cursor.next();
+            pending = repeat ? cursor.count - 1 : 0;
+            action.accept(cursor.current());
+            return true;
+        }
+
+        private boolean nextBlockReached() {
+            return cursor.remainingInBlock == 0 && cursor.block + 1 >= toBlock;
+        }
+
+        @Override
+        public Spliterator<String> trySplit() {
+            if (cursor != null || toBlock - fromBlock < 2) {
+                return null;
+            }
+            int middle = (fromBlock + toBlock) >>> 1;
+            BlockSpliterator prefix = new BlockSpliterator(fromBlock, middle, repeat);
+            fromBlock = middle;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            long words = Math.min(size, (long) toBlock * blockSize) - Math.min(size, (long) fromBlock * blockSize);
+            return repeat ? Long.MAX_VALUE : words;
+        }
+
+        @Override
+        public int characteristics() {
+            return repeat ? ORDERED | NONNULL : ORDERED | DISTINCT | NONNULL | SIZED | SUBSIZED;
+        }
+    }
+
+    /**
+     * Ecriture séquentielle des blocs, l'en-tête étant complété à la fermeture.
+     */
+    private static final class Writer implements AutoCloseable {
+        private final FileChannel channel;
+        private final int blockSize;
+        private final ByteArrayOutputStream block = new ByteArrayOutputStream();
+        private long[] offsets = new long[64];
+        private int blockCount;
+        private int inBlock;
+        private byte[] previous = new byte[0];
+        private long size;
+        private long lineCount;
+        private long dataLength;
+
+        Writer(final Path path, final int blockSize) throws IOException {
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            this.blockSize = blockSize;
+        }
+
+        void add(final byte[] bytes, final long count) throws IOException {
+            int shared = 0;
+            if (inBlock > 0) {
+                int max = Math.min(previous.length, bytes.length);
+                while (shared < max && previous[shared] == bytes[shared]) {
+                    shared++;
+                }
+                writeVarLong(shared);
+            }
+            writeVarLong(bytes.length - shared);
+            block.write(bytes, shared, bytes.length - shared);
+            writeVarLong(count);
+            previous = bytes;
+            size++;
+            lineCount += count;
+            if (++inBlock == blockSize) {
+                flushBlock();
+            }
+        }
+
+        private void writeVarLong(final long value) {
+            long v = value;
+            while ((v & ~0x7FL) != 0) {
+                block.write((int) (v & 0x7F | 0x80));
+                v >>>= 7;
+            }
+            block.write((int) v);
+        }
+
+        private void flushBlock() throws IOException {
+            if (inBlock == 0) {
+                return;
+            }
+            int length = block.size();
+            if (length > SEGMENT_SIZE) {
+                throw new IllegalArgumentException("Bloc de mots de passe supérieur à " + SEGMENT_SIZE + " octets");
+            }
+            long inSegment = dataLength % SEGMENT_SIZE;
+            if (inSegment + length > SEGMENT_SIZE) {
+                // Le bloc commence au segment suivant
+                dataLength += SEGMENT_SIZE - inSegment;
+            }
+            if (blockCount == offsets.length) {
+                offsets = Arrays.copyOf(offsets, blockCount * 2);
+            }
+            offsets[blockCount++] = dataLength;
+            writeFully(ByteBuffer.wrap(block.toByteArray()), HEADER_SIZE + dataLength);
+            dataLength += length;
+            block.reset();
+            inBlock = 0;
+        }
+
+        private void writeFully(final ByteBuffer buffer, final long position) throws IOException {
+            long at = position;
+            while (buffer.hasRemaining()) {
+                at += channel.write(buffer, at);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                flushBlock();
+                long indexOffset = HEADER_SIZE + dataLength;
+                byte[] index = new byte[blockCount * Long.BYTES];
+                ByteBuffer indexBuffer = ByteBuffer.wrap(index);
+                for (int b = 0; b < blockCount; b++) {
+                    indexBuffer.putLong(offsets[b]);
+                }
+                writeFully(ByteBuffer.wrap(index), indexOffset);
+                byte[] header = new byte[HEADER_SIZE];
+                ByteBuffer.wrap(header).putInt(MAGIC).putInt(VERSION).putInt(blockSize).putInt(blockCount)
+                        .putLong(size).putLong(lineCount).putLong(indexOffset);
+                writeFully(ByteBuffer.wrap(header), 0);
+                channel.truncate(indexOffset + (long) blockCount * Long.BYTES);
+            } finally {
+                channel.close();
+            }
+        }
+    }
+
+    /**
+     * Construit un dictionnaire depuis la ligne de commande.
+     * Usage : PasswordDictionary source destination [--sorted]
+     * Avec --sorted, la source doit être triée par octets et n'est pas chargée en mémoire.
+     * @param args arguments
+     * @throws IOException en cas d'erreur de lecture ou d'écriture
+     */
+    public static void main(final String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage : PasswordDictionary source destination [--sorted]");
+            return;
+        }
+        PasswordStatsMetrics metrics = PasswordStatsMetrics.enabled();
+        long start = metrics.start();
+        Charset charset = StandardCharsets.UTF_8;
+        try (Stream<String> passwords = metrics.timedRead(MappedFileLines.lines(Paths.get(args[0]), charset))) {
+            if (args.length > 2 && "--sorted".equals(args[2])) {
+                writeSorted(Paths.get(args[1]), passwords);
+            } else {
+                write(Paths.get(args[1]), passwords);
+            }
+        }
+        metrics.record("write", start);
+        System.out.println("Total time : " + metrics.getMethodNanos().get("write") / 1e9 + 's'
+                + ", " + metrics.getLinesRead() + " lines");
+        metrics.report();
+    }
+}
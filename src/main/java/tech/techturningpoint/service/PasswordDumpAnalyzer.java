@@ -0,0 +1,334 @@
+package tech.techturningpoint.service;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Analyse concurrente d'un dump de mots de passe découpé en fichiers (shards).
+ *
+ * Chaque shard est lu séquentiellement par une tâche d'un pool de taille fixe (par défaut un thread par cœur) :
+ * le temps total dépend du nombre de cœurs et du volume, pas du nombre de fichiers.
+ * Les rapports partiels sont fusionnés dans un {@link PasswordStatsAccumulator} global.
+ * Un shard illisible est écarté et signalé sans interrompre les autres.
+ * La progression et les fusions ont lieu sur le thread appelant : le {@link Listener} n'a pas à être thread-safe.
+ */
+public final class PasswordDumpAnalyzer {
+
+    /**
+     * Suivi de la progression, appelé sur le thread appelant après chaque shard.
+     */
+    public interface Listener {
+
+        /**
+         * @param shard fichier analysé
+         * @param report rapport du shard
+         * @param done nombre de shards terminés (y compris en échec)
+         * @param total nombre total de shards
+         */
+        default void shardDone(final Path shard, final PasswordReport report, final int done, final int total) {
+        }
+
+        /**
+         * @param shard fichier en échec
+         * @param error erreur de lecture
+         * @param done nombre de shards terminés (y compris en échec)
+         * @param total nombre total de shards
+         */
+        default void shardFailed(final Path shard, final Exception error, final int done, final int total) {
+        }
+    }
+
+    /**
+     * Listener qui ne fait rien.
+     */
+    public static final Listener SILENT = new Listener() {
+    };
+
+    private final PasswordStats stats;
+    private final int threads;
+    private final Charset charset;
+
+    /**
+     * Analyse avec un thread par cœur, dans le charset par défaut.
+     * @param stats règles utilisées pour qualifier les mots de passe
+     */
+    public PasswordDumpAnalyzer(final PasswordStats stats) {
+        this(stats, Runtime.getRuntime().availableProcessors(), Charset.defaultCharset());
+    }
+
+    /**
+     * Constructeur.
+     * @param stats règles utilisées pour qualifier les mots de passe
+     * @param threads nombre de shards lus en même temps
+     * @param charset charset des fichiers
+     */
+    public PasswordDumpAnalyzer(final PasswordStats stats, final int threads, final Charset charset) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Nombre de threads invalide : " + threads);
+        }
+        this.stats = Objects.requireNonNull(stats);
+        this.threads = threads;
+        this.charset = Objects.requireNonNull(charset);
+    }
+
+    /**
+     * Liste les shards d'un répertoire, triés par chemin.
+     * Le glob s'applique au chemin relatif au répertoire : "*.txt" ne prend que le premier niveau,
+     * "**.txt" descend dans les sous-répertoires.
+     * @param directory répertoire du dump
+     * @param glob motif des fichiers
+     * @return fichiers réguliers correspondant au motif
+     * @throws IOException si le répertoire ne peut pas être parcouru
+     */
+    public static List<Path> findShards(final Path directory, final String glob) throws IOException {
+        PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + glob);
+        try (Stream<Path> paths = Files.walk(directory)) {
+            return paths.filter(Files::isRegularFile)
+                    .filter(p -> matcher.matches(directory.relativize(p)))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Analyse les shards d'un répertoire.
+     * @param directory répertoire du dump
+     * @param glob motif des fichiers, voir {@link #findShards(Path, String)}
+     * @param listener suivi de la progression
+     * @return rapport global et shards en échec
+     * @throws IOException si le répertoire ne peut pas être parcouru
+     * @throws InterruptedException si le thread appelant est interrompu (les analyses en cours sont annulées)
+     */
+    public Result analyze(final Path directory, final String glob, final Listener listener)
+            throws IOException, InterruptedException {
+        return analyze(findShards(directory, glob), listener);
+    }
+
+    /**
+     * Analyse une liste de shards.
+     * @param shards fichiers à analyser
+     * @param listener suivi de la progression
+     * @return rapport global et shards en échec
+     * @throws InterruptedException si le thread appelant est interrompu (les analyses en cours sont annulées)
+     */
+    public Result analyze(final List<Path> shards, final Listener listener) throws InterruptedException {
+        PasswordStatsMetrics metrics = stats.getMetrics();
+        long start = metrics.start();
+        PasswordStatsAccumulator global = new PasswordStatsAccumulator(stats);
+        List<ShardFailure> failures = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, Math.max(1, shards.size())),
+                new ShardThreadFactory());
+        try {
+            CompletionService<Shard> completion = new ExecutorCompletionService<>(executor);
+            for (Path path : shards) {
+                completion.submit(() -> analyzeShard(path));
+            }
+            for (int done = 1; done <= shards.size(); done++) {
+                Shard shard = take(completion);
+                if (shard.error == null) {
+                    global.merge(shard.accumulator);
+                    listener.shardDone(shard.path, shard.accumulator.snapshot(), done, shards.size());
+                } else {
+                    failures.add(new ShardFailure(shard.path, shard.error));
+                    listener.shardFailed(shard.path, shard.error, done, shards.size());
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+            metrics.record("analyzeDump", start);
+        }
+        return new Result(global.snapshot(), shards.size(), failures);
+    }
+
+    /**
+     * Lecture d'un shard : toute exception est rattachée au shard, seules les Error remontent.
+     */
+    private Shard analyzeShard(final Path path) {
+        try (Stream<String> lines = open(path)) {
+            return new Shard(path, stats.getMetrics().timedRead(lines).collect(PasswordStatsAccumulator.collector(stats)), null);
+        } catch (Exception e) {
+            return new Shard(path, null, e);
+        }
+    }
+
+    private Stream<String> open(final Path path) throws IOException {
+        return MappedFileLines.supports(charset) ? MappedFileLines.lines(path, charset) : Files.lines(path, charset);
+    }
+
+    private static Shard take(final CompletionService<Shard> completion) throws InterruptedException {
+        try {
+            return completion.take().get();
+        } catch (ExecutionException e) {
+            // analyzeShard ne lève que des Error
+            throw (Error) e.getCause();
+        }
+    }
+
+    /**
+     * Analyse d'un dump depuis la ligne de commande.
+     * Usage : PasswordDumpAnalyzer répertoire [glob [threads]]
+     * Le glob par défaut est "**" (tous les fichiers), les fichiers sont lus en UTF-8.
+     * @param args arguments
+     * @throws IOException si le répertoire ne peut pas être parcouru
+     * @throws InterruptedException si l'analyse est interrompue
+     */
+    public static void main(final String[] args) throws IOException, InterruptedException {
+        if (args.length < 1) {
+            System.err.println("Usage : PasswordDumpAnalyzer répertoire [glob [threads]]");
+            return;
+        }
+        PasswordStatsMetrics metrics = PasswordStatsMetrics.enabled();
+        long start = metrics.start();
+        String glob = args.length > 1 ? args[1] : "**";
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        PasswordStats stats = new PasswordStats(metrics);
+        Result result = new PasswordDumpAnalyzer(stats, threads, StandardCharsets.UTF_8)
+                .analyze(Paths.get(args[0]), glob, new Listener() {
+                    @Override
+                    public void shardDone(final Path shard, final PasswordReport report, final int done, final int total) {
+                        System.out.println("[" + done + "/" + total + "] " + shard + " : " + report.getCount() + " passwords");
+                    }
+
+                    @Override
+                    public void shardFailed(final Path shard, final Exception error, final int done, final int total) {
+                        System.err.println("[" + done + "/" + total + "] " + shard + " : " + error);
+                    }
+                });
+        stats.printReport(result.getReport());
+        System.out.println("Shards : " + result.getShardCount() + ", failed : " + result.getFailures().size());
+        metrics.record("analyze", start);
+        System.out.println("Total time : " + metrics.getMethodNanos().get("analyze") / 1e9 + 's'
+                + ", " + metrics.getLinesRead() + " lines");
+        metrics.report();
+    }
+
+    /**
+     * Résultat d'un shard : accumulateur ou erreur.
+     */
+    private static final class Shard {
+        final Path path;
+        final PasswordStatsAccumulator accumulator;
+        final Exception error;
+
+        Shard(final Path path, final PasswordStatsAccumulator accumulator, final Exception error) {
+            this.path = path;
+            this.accumulator = accumulator;
+            this.error = error;
+        }
+    }
+
+    /**
+     * Threads démons nommés, pour ne pas bloquer l'arrêt de la JVM.
+     */
+    private static final class ShardThreadFactory implements ThreadFactory {
+        private static final AtomicInteger POOL = new AtomicInteger();
+        private final int pool = POOL.incrementAndGet();
+        private final AtomicInteger thread = new AtomicInteger();
+
+        @Override
+        public Thread newThread(final Runnable task) {
+            Thread t = new Thread(task, "password-dump-" + pool + "-" + thread.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        }
+    }
+
+    /**
+     * Shard en échec.
+     */
+    public static final class ShardFailure {
+        private final Path shard;
+        private final Exception error;
+
+        ShardFailure(final Path shard, final Exception error) {
+            this.shard = shard;
+            this.error = error;
+        }
+
+        /**
+         * @return fichier en échec
+         */
+        public Path getShard() {
+            return shard;
+        }
+
+        /**
+         * @return erreur de lecture
+         */
+        public Exception getError() {
+            return error;
+        }
+
+        @Override
+        public String toString() {
+            return shard + " : " + error;
+        }
+    }
+
+    /**
+     * Résultat d'une analyse : rapport fusionné des shards lus et liste des shards en échec.
+     */
+    public static final class Result {
+        private final PasswordReport report;
+        private final int shardCount;
+        private final List<ShardFailure> failures;
+
+        Result(final PasswordReport report, final int shardCount, final List<ShardFailure> failures) {
+            this.report = report;
+            this.shardCount = shardCount;
+            this.failures = Collections.unmodifiableList(failures);
+        }
+
+        /**
+         * @return rapport global des shards lus
+         */
+        public PasswordReport getReport() {
+            return report;
+        }
+
+        /**
+         * @return nombre de shards à analyser
+         */
+        public int getShardCount() {
+            return shardCount;
+        }
+
+        /**
+         * @return shards en échec, dans l'ordre où ils ont échoué
+         */
+        public List<ShardFailure> getFailures() {
+            return failures;
+        }
+
+        /**
+         * @return true si tous les shards ont été lus
+         */
+        public boolean isComplete() {
+            return failures.isEmpty();
+        }
+
+        @Override
+        public String toString() {
+            return "Result{shardCount=" + shardCount + ", failures=" + failures + ", report=" + report + '}';
+        }
+    }
+}
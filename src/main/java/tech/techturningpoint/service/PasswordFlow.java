@@ -0,0 +1,258 @@
+package tech.techturningpoint.service;
+
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Equivalent Java 8 de {@code java.util.concurrent.Flow} (Java 9) : éditeur, abonné et abonnement
+ * avec demande bornée. Les interfaces ont les mêmes méthodes et le même contrat que celles de Flow,
+ * ce qui rend l'adaptation triviale sur un JDK récent.
+ *
+ * Un éditeur n'émet jamais plus d'éléments que l'abonné n'en a demandé : un consommateur lent
+ * ralentit la lecture au lieu de faire grossir un tampon.
+ */
+public final class PasswordFlow {
+
+    private PasswordFlow() {
+    }
+
+    /**
+     * Source d'éléments émis à la demande.
+     * @param <T> type des éléments
+     */
+    @FunctionalInterface
+    public interface Publisher<T> {
+        /**
+         * Abonne un abonné, qui reçoit d'abord {@link Subscriber#onSubscribe(Subscription)}.
+         * @param subscriber abonné
+         */
+        void subscribe(Subscriber<? super T> subscriber);
+    }
+
+    /**
+     * Destinataire des éléments. Les appels sont faits l'un après l'autre, jamais en même temps.
+     * @param <T> type des éléments
+     */
+    public interface Subscriber<T> {
+        /**
+         * @param subscription abonnement, pour demander des éléments ou annuler
+         */
+        void onSubscribe(Subscription subscription);
+
+        /**
+         * @param item élément demandé
+         */
+        void onNext(T item);
+
+        /**
+         * Fin en erreur, aucun autre appel ne suit.
+         * @param error erreur
+         */
+        void onError(Throwable error);
+
+        /**
+         * Fin normale, aucun autre appel ne suit.
+         */
+        void onComplete();
+    }
+
+    /**
+     * Lien entre un éditeur et un abonné.
+     */
+    public interface Subscription {
+        /**
+         * Ajoute n éléments à la demande ; n non positif termine l'abonnement en erreur.
+         * @param n nombre d'éléments supplémentaires
+         */
+        void request(long n);
+
+        /**
+         * Arrête l'émission ; des éléments déjà en cours peuvent encore arriver.
+         */
+        void cancel();
+    }
+
+    /**
+     * Editeur à froid d'un Stream : chaque abonnement ouvre un nouveau Stream, lu sur l'executor
+     * au rythme de la demande, puis fermé à la fin, en cas d'erreur ou d'annulation.
+     * @param source fournisseur du Stream (par exemple la lecture d'un fichier)
+     * @param executor threads de lecture
+     * @param <T> type des éléments
+     * @return éditeur
+     */
+    public static <T> Publisher<T> fromStream(final Supplier<? extends Stream<? extends T>> source, final Executor executor) {
+        Objects.requireNonNull(source);
+        Objects.requireNonNull(executor);
+        return subscriber -> subscriber.onSubscribe(new StreamSubscription<>(subscriber, source, executor));
+    }
+
+    /**
+     * Filtre un éditeur : la demande de l'abonné est transmise en amont, et chaque élément écarté
+     * est remplacé par une nouvelle demande d'un élément.
+     * @param upstream éditeur source
+     * @param predicate éléments à garder
+     * @param <T> type des éléments
+     * @return éditeur filtré
+     */
+    public static <T> Publisher<T> filter(final Publisher<T> upstream, final Predicate<? super T> predicate) {
+        Objects.requireNonNull(predicate);
+        return subscriber -> upstream.subscribe(new Subscriber<T>() {
+            private Subscription subscription;
+
+            @Override
+            public void onSubscribe(final Subscription subscription) {
+                this.subscription = subscription;
+                subscriber.onSubscribe(subscription);
+            }
+
+            @Override
+            public void onNext(final T item) {
+                boolean keep;
+                try {
+                    keep = predicate.test(item);
+                } catch (RuntimeException e) {
+                    subscription.cancel();
+                    subscriber.onError(e);
+                    return;
+                }
+                if (keep) {
+                    subscriber.onNext(item);
+                } else {
+                    subscription.request(1);
+                }
+            }
+
+            @Override
+            public void onError(final Throwable error) {
+                subscriber.onError(error);
+            }
+
+            @Override
+            public void onComplete() {
+                subscriber.onComplete();
+            }
+        });
+    }
+
+    /**
+     * Abonnement d'un Stream. Un seul thread à la fois exécute {@link #run()} (compteur wip),
+     * ce qui sérialise les appels à l'abonné sans verrou.
+     */
+    private static final class StreamSubscription<T> implements Subscription, Runnable {
+
+        private final Subscriber<? super T> subscriber;
+        private final Supplier<? extends Stream<? extends T>> source;
+        private final Executor executor;
+
+        private final AtomicLong demand = new AtomicLong();
+        private final AtomicInteger wip = new AtomicInteger();
+        private volatile boolean cancelled;
+        private volatile IllegalArgumentException invalidRequest;
+
+        /**
+         * Etat de lecture, modifié seulement dans run().
+         */
+        private Stream<? extends T> stream;
+        private Iterator<? extends T> iterator;
+        private boolean done;
+
+        StreamSubscription(final Subscriber<? super T> subscriber, final Supplier<? extends Stream<? extends T>> source,
+                           final Executor executor) {
+            this.subscriber = subscriber;
+            this.source = source;
+            this.executor = executor;
+        }
+
+        @Override
+        public void request(final long n) {
+            if (n <= 0) {
+                invalidRequest = new IllegalArgumentException("Demande non positive : " + n);
+            } else {
+                demand.accumulateAndGet(n, (current, added) -> current + added < 0 ? Long.MAX_VALUE : current + added);
+            }
+            schedule();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            schedule();
+        }
+
+        private void schedule() {
+            if (wip.getAndIncrement() == 0) {
+                executor.execute(this);
+            }
+        }
+
+        @Override
+        public void run() {
+            int missed = 1;
+            do {
+                drain();
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void drain() {
+            if (done) {
+                return;
+            }
+            try {
+                if (cancelled) {
+                    finish();
+                    return;
+                }
+                if (invalidRequest != null) {
+                    finish();
+                    subscriber.onError(invalidRequest);
+                    return;
+                }
+                if (iterator == null) {
+                    stream = source.get();
+                    iterator = stream.iterator();
+                }
+                long requested = demand.get();
+                long emitted = 0;
+                while (emitted < requested) {
+                    if (cancelled) {
+                        finish();
+                        return;
+                    }
+                    if (!iterator.hasNext()) {
+                        break;
+                    }
+                    subscriber.onNext(iterator.next());
+                    emitted++;
+                }
+                if (!cancelled && !iterator.hasNext()) {
+                    finish();
+                    subscriber.onComplete();
+                    return;
+                }
+                demand.addAndGet(-emitted);
+            } catch (RuntimeException e) {
+                finish();
+                subscriber.onError(e);
+            }
+        }
+
+        /**
+         * Ferme le Stream une seule fois ; une erreur de fermeture remonte comme une erreur de lecture.
+         */
+        private void finish() {
+            done = true;
+            Stream<? extends T> opened = stream;
+            stream = null;
+            if (opened != null) {
+                opened.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,478 @@
+package tech.techturningpoint.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.stream.Collector;
+
+/**
+ * Fréquences des mots de passe en une seule lecture et en mémoire bornée :
+ * <ul>
+ *     <li>nombre de mots de passe distincts par HyperLogLog (2^precision registres d'un octet) ;</li>
+ *     <li>mots de passe les plus fréquents par SpaceSaving (capacity compteurs au plus).</li>
+ * </ul>
+ * Les valeurs par défaut ({@link #DEFAULT_PRECISION}, {@link #DEFAULT_CAPACITY}) tiennent en quelques centaines
+ * de Ko quelle que soit la taille du fichier. Le mode exact ({@link #exact()}) garde un compteur par mot de passe
+ * distinct : il sert à vérifier la précision sur de petits fichiers.
+ *
+ * Comme {@link SpecialCharHistogram}, une esquisse n'est pas thread-safe : chaque thread remplit la sienne,
+ * puis on les fusionne avec {@link #merge(PasswordFrequencySketch)}.
+ */
+public final class PasswordFrequencySketch implements Consumer<String> {
+
+    /**
+     * Précision par défaut : 16384 registres (16 Ko), erreur relative type de 0,8 %.
+     */
+    public static final int DEFAULT_PRECISION = 14;
+
+    /**
+     * Nombre de compteurs par défaut des mots de passe fréquents.
+     */
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    private static final int MIN_PRECISION = 4;
+    private static final int MAX_PRECISION = 18;
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private static final Comparator<Counter> BY_COUNT =
+            Comparator.comparingLong((Counter c) -> c.count).reversed().thenComparing(c -> c.password);
+
+    private final int precision;
+    private final int capacity;
+    private final boolean exact;
+
+    /**
+     * Registres HyperLogLog, null en mode exact.
+     */
+    private final byte[] registers;
+
+    private final Map<String, Counter> counters = new HashMap<>();
+
+    /**
+     * Tas min des compteurs sur count, null en mode exact.
+     */
+    private Counter[] heap;
+    private int size;
+    private long total;
+
+    private PasswordFrequencySketch(final int precision, final int capacity, final boolean exact) {
+        this.precision = precision;
+        this.capacity = capacity;
+        this.exact = exact;
+        this.registers = exact ? null : new byte[1 << precision];
+        this.heap = exact ? null : new Counter[capacity];
+    }
+
+    /**
+     * Esquisse de précision et de capacité par défaut.
+     */
+    public PasswordFrequencySketch() {
+        this(DEFAULT_PRECISION, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructeur.
+     * @param precision log2 du nombre de registres HyperLogLog, de 4 à 18 ; erreur relative type 1,04 / sqrt(2^precision)
+     * @param capacity nombre maximal de mots de passe fréquents suivis
+     */
+    public PasswordFrequencySketch(final int precision, final int capacity) {
+        this(checkPrecision(precision), checkCapacity(capacity), false);
+    }
+
+    /**
+     * @return esquisse en mode exact : un compteur par mot de passe distinct, sans borne de mémoire
+     */
+    public static PasswordFrequencySketch exact() {
+        return new PasswordFrequencySketch(0, Integer.MAX_VALUE, true);
+    }
+
+    /**
+     * Collecteur parallélisable : une esquisse par thread, fusionnées à la fin.
+     * @param precision log2 du nombre de registres HyperLogLog
+     * @param capacity nombre maximal de mots de passe fréquents suivis
+     * @return collecteur
+     */
+    public static Collector<String, PasswordFrequencySketch, PasswordFrequencySketch> collector(final int precision,
+                                                                                               final int capacity) {
+        checkPrecision(precision);
+        checkCapacity(capacity);
+        return Collector.of(() -> new PasswordFrequencySketch(precision, capacity), PasswordFrequencySketch::accept,
+                PasswordFrequencySketch::merge, Collector.Characteristics.IDENTITY_FINISH);
+    }
+
+    /**
+     * @return collecteur parallélisable en mode exact
+     */
+    public static Collector<String, PasswordFrequencySketch, PasswordFrequencySketch> exactCollector() {
+        return Collector.of(PasswordFrequencySketch::exact, PasswordFrequencySketch::accept,
+                PasswordFrequencySketch::merge, Collector.Characteristics.IDENTITY_FINISH);
+    }
+
+    private static int checkPrecision(final int precision) {
+        if (precision < MIN_PRECISION || precision > MAX_PRECISION) {
+            throw new IllegalArgumentException("Pr\u00e9cision invalide : " + precision);
+        }
+        return precision;
+    }
+
+    private static int checkCapacity(final int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacit\u00e9 invalide : " + capacity);
+        }
+        return capacity;
+    }
+
+    /**
+     * Compte un mot de passe.
+     * @param password mot de passe
+     */
+    @Override
+    public void accept(final String password) {
+        Objects.requireNonNull(password);
+        total++;
+        if (exact) {
+            Counter counter = counters.get(password);
+            if (counter == null) {
+                counters.put(password, new Counter(password, 1, 0));
+            } else {
+                counter.count++;
+            }
+            return;
+        }
+        long hash = hash(password);
+        int register = (int) (hash >>> (64 - precision));
+        // rang du premier bit à 1 après les bits du registre ; le bit sentinelle borne le rang
+        byte rank = (byte) (Long.numberOfLeadingZeros((hash << precision) | (1L << (precision - 1))) + 1);
+        if (rank > registers[register]) {
+            registers[register] = rank;
+        }
+        offer(password);
+    }
+
+    /**
+     * Compte une occurrence dans SpaceSaving : si le mot de passe n'est pas suivi et que tous les compteurs
+     * sont pris, il remplace le moins fréquent, dont le compte devient son erreur.
+     */
+    private void offer(final String password) {
+        Counter counter = counters.get(password);
+        if (counter != null) {
+            counter.count++;
+            siftDown(counter.index);
+        } else if (size < capacity) {
+            counter = new Counter(password, 1, 0);
+            counters.put(password, counter);
+            counter.index = size;
+            heap[size++] = counter;
+            siftUp(counter.index);
+        } else {
+            Counter min = heap[0];
+            counters.remove(min.password);
+            min.password = password;
+            min.error = min.count;
+            min.count++;
+            counters.put(password, min);
+            siftDown(0);
+        }
+    }
+
+    /**
+     * Fusionne une autre esquisse de mêmes précision, capacité et mode dans celle-ci.
+     * Les mots de passe suivis d'un seul côté reçoivent le plus petit compte de l'autre côté,
+     * ce qui garde les bornes d'erreur (Agarwal et al., "Mergeable Summaries").
+     * @param other esquisse à ajouter
+     * @return this
+     */
+    public PasswordFrequencySketch merge(final PasswordFrequencySketch other) {
+        if (other.exact != exact || other.precision != precision || other.capacity != capacity) {
+            throw new IllegalArgumentException("Esquisses incompatibles : " + describe() + " et " + other.describe());
+        }
+        total += other.total;
+        if (exact) {
+            for (Counter theirs : other.counters.values()) {
+                Counter mine = counters.get(theirs.password);
+                if (mine == null) {
+                    counters.put(theirs.password, new Counter(theirs.password, theirs.count, 0));
+                } else {
+                    mine.count += theirs.count;
+                }
+            }
+            return this;
+        }
+        for (int i = 0; i < registers.length; i++) {
+            if (other.registers[i] > registers[i]) {
+                registers[i] = other.registers[i];
+            }
+        }
+        long myMin = minCount();
+        long otherMin = other.minCount();
+        List<Counter> merged = new ArrayList<>(size + other.size);
+        for (int i = 0; i < size; i++) {
+            Counter mine = heap[i];
+            Counter theirs = other.counters.get(mine.password);
+            merged.add(theirs != null
+                    ? new Counter(mine.password, mine.count + theirs.count, mine.error + theirs.error)
+                    : new Counter(mine.password, mine.count + otherMin, mine.error + otherMin));
+        }
+        for (int i = 0; i < other.size; i++) {
+            Counter theirs = other.heap[i];
+            if (!counters.containsKey(theirs.password)) {
+                merged.add(new Counter(theirs.password, theirs.count + myMin, theirs.error + myMin));
+            }
+        }
+        merged.sort(BY_COUNT);
+        counters.clear();
+        Arrays.fill(heap, null);
+        size = 0;
+        for (Counter counter : merged.subList(0, Math.min(capacity, merged.size()))) {
+            counters.put(counter.password, counter);
+            counter.index = size;
+            heap[size++] = counter;
+        }
+        // trié par ordre décroissant : on reconstruit le tas min
+        for (int i = size / 2 - 1; i >= 0; i--) {
+            siftDown(i);
+        }
+        return this;
+    }
+
+    /**
+     * @return nombre de mots de passe comptés
+     */
+    public long count() {
+        return total;
+    }
+
+    /**
+     * @return true en mode exact
+     */
+    public boolean isExact() {
+        return exact;
+    }
+
+    /**
+     * Estimation HyperLogLog, avec la correction de Flajolet et al. pour les petits nombres (comptage linéaire).
+     * @return nombre de mots de passe distincts, exact en mode exact
+     */
+    public long distinctCount() {
+        if (exact) {
+            return counters.size();
+        }
+        int m = registers.length;
+        double sum = 0;
+        int zeros = 0;
+        for (byte register : registers) {
+            sum += Math.scalb(1.0, -register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+        double estimate = alpha(m) * m * m / sum;
+        if (estimate <= 2.5 * m && zeros > 0) {
+            estimate = m * Math.log((double) m / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    /**
+     * @return erreur relative type de {@link #distinctCount()} : 1,04 / sqrt(2^precision), 0 en mode exact
+     */
+    public double distinctCountError() {
+        return exact ? 0 : 1.04 / Math.sqrt(registers.length);
+    }
+
+    /**
+     * Borne de l'erreur des fréquences : un mot de passe absent de {@link #topN(int)} apparaît au plus
+     * autant de fois, et aucun compte ne dépasse la vraie fréquence de plus de count() / capacity.
+     * @return plus petit compte suivi si tous les compteurs sont pris, 0 sinon et en mode exact
+     */
+    public long frequencyError() {
+        return exact || size < capacity ? 0 : heap[0].count;
+    }
+
+    /**
+     * @return nombre de mots de passe suivis (au plus la capacité, sauf en mode exact)
+     */
+    public int monitoredCount() {
+        return counters.size();
+    }
+
+    /**
+     * Mots de passe les plus fréquents, du plus au moins fréquent puis par ordre alphabétique.
+     * Chaque compte surestime la vraie fréquence d'au plus {@link Frequency#getError()}.
+     * @param n nombre de mots de passe voulus
+     * @return au plus n fréquences
+     */
+    public List<Frequency> topN(final int n) {
+        List<Counter> sorted = new ArrayList<>(counters.values());
+        sorted.sort(BY_COUNT);
+        List<Frequency> result = new ArrayList<>(Math.min(n, sorted.size()));
+        for (Counter counter : sorted.subList(0, Math.min(n, sorted.size()))) {
+            result.add(new Frequency(counter.password, counter.count, counter.error));
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    private long minCount() {
+        return size < capacity ? 0 : heap[0].count;
+    }
+
+    private String describe() {
+        return exact ? "exact" : "precision=" + precision + ", capacity=" + capacity;
+    }
+
+    private static double alpha(final int m) {
+        switch (m) {
+            case 16:
+                return 0.673;
+            case 32:
+                return 0.697;
+            case 64:
+                return 0.709;
+            default:
+                return 0.7213 / (1 + 1.079 / m);
+        }
+    }
+
+    /**
+     * FNV-1a 64 bits sur les caractères, puis mélange final de MurmurHash3 pour répartir les bits de poids fort.
+     */
+    static long hash(final CharSequence password) {
+        long h = FNV_OFFSET;
+        for (int i = 0; i < password.length(); i++) {
+            h = (h ^ password.charAt(i)) * FNV_PRIME;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private void siftUp(int i) {
+        Counter counter = heap[i];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (heap[parent].count <= counter.count) {
+                break;
+            }
+            place(heap[parent], i);
+            i = parent;
+        }
+        place(counter, i);
+    }
+
+    private void siftDown(int i) {
+        Counter counter = heap[i];
+        int half = size >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            if (child + 1 < size && heap[child + 1].count < heap[child].count) {
+                child++;
+            }
+            if (counter.count <= heap[child].count) {
+                break;
+            }
+            place(heap[child], i);
+            i = child;
+        }
+        place(counter, i);
+    }
+
+    private void place(final Counter counter, final int i) {
+        heap[i] = counter;
+        counter.index = i;
+    }
+
+    @Override
+    public String toString() {
+        return "PasswordFrequencySketch{" + describe() + ", count=" + total + ", distinct=" + distinctCount()
+                + ", top=" + topN(10) + '}';
+    }
+
+    /**
+     * Compteur SpaceSaving, réutilisé quand son mot de passe est remplacé.
+     */
+    private static final class Counter {
+        String password;
+        long count;
+        long error;
+        int index;
+
+        Counter(final String password, final long count, final long error) {
+            this.password = password;
+            this.count = count;
+            this.error = error;
+        }
+    }
+
+    /**
+     * Fréquence estimée d'un mot de passe : la vraie fréquence est entre count - error et count.
+     */
+    public static final class Frequency {
+        private final String password;
+        private final long count;
+        private final long error;
+
+        Frequency(final String password, final long count, final long error) {
+            this.password = password;
+            this.count = count;
+            this.error = error;
+        }
+
+        public String getPassword() {
+            return password;
+        }
+
+        /**
+         * @return nombre d'occurrences estimé, jamais inférieur au vrai
+         */
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * @return surestimation maximale de {@link #getCount()}, 0 en mode exact
+         */
+        public long getError() {
+            return error;
+        }
+
+        /**
+         * @return nombre d'occurrences garanti
+         */
+        public long getGuaranteedCount() {
+            return count - error;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Frequency that = (Frequency) o;
+            return count == that.count && error == that.error && password.equals(that.password);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(password, count, error);
+        }
+
+        @Override
+        public String toString() {
+            return error == 0 ? password + '=' + count : password + '=' + count + "\u00b1" + error;
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package tech.techturningpoint.service;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Rapport de statistiques sur des mots de passe, calculé en une seule lecture.
+ * Voir {@link IPasswordStats#getReport(java.util.function.Supplier)} et {@link PasswordStatsAccumulator#snapshot()}.
+ * Un rapport s'écrit dans un format binaire versionné avec {@link #write(DataOutput)}, pour être relu
+ * sans relire les mots de passe (voir {@link CachingPasswordStats}).
+ */
+public final class PasswordReport {
+
+    private static final int MAGIC = 0x50525054;
+    private static final int VERSION = 1;
+
+    private final long count;
+    private final long countStrong;
+    private final long countWithSpecialChars;
+    private final long countWithNumbers;
+    private final long countWithUppercaseAndLowercase;
+    private final long countWithOnlyOneLastSpecialChar;
+    private final SortedMap<Integer, Long> countBySpecialCharPosition;
+
+    PasswordReport(final long count, final long countStrong, final long countWithSpecialChars,
+                   final long countWithNumbers, final long countWithUppercaseAndLowercase,
+                   final long countWithOnlyOneLastSpecialChar, final SpecialCharHistogram countBySpecialCharPosition) {
+        this(count, countStrong, countWithSpecialChars, countWithNumbers, countWithUppercaseAndLowercase,
+                countWithOnlyOneLastSpecialChar, countBySpecialCharPosition.toMap());
+    }
+
+    private PasswordReport(final long count, final long countStrong, final long countWithSpecialChars,
+                           final long countWithNumbers, final long countWithUppercaseAndLowercase,
+                           final long countWithOnlyOneLastSpecialChar, final SortedMap<Integer, Long> countBySpecialCharPosition) {
+        this.count = count;
+        this.countStrong = countStrong;
+        this.countWithSpecialChars = countWithSpecialChars;
+        this.countWithNumbers = countWithNumbers;
+        this.countWithUppercaseAndLowercase = countWithUppercaseAndLowercase;
+        this.countWithOnlyOneLastSpecialChar = countWithOnlyOneLastSpecialChar;
+        this.countBySpecialCharPosition = Collections.unmodifiableSortedMap(countBySpecialCharPosition);
+    }
+
+    /**
+     * Ecrit le rapport : magic, version, compteurs, puis les couples (position, compte).
+     * @param out destination
+     * @throws IOException en cas d'erreur d'écriture
+     */
+    void write(final DataOutput out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeLong(count);
+        out.writeLong(countStrong);
+        out.writeLong(countWithSpecialChars);
+        out.writeLong(countWithNumbers);
+        out.writeLong(countWithUppercaseAndLowercase);
+        out.writeLong(countWithOnlyOneLastSpecialChar);
+        out.writeInt(countBySpecialCharPosition.size());
+        for (Map.Entry<Integer, Long> entry : countBySpecialCharPosition.entrySet()) {
+            out.writeInt(entry.getKey());
+            out.writeLong(entry.getValue());
+        }
+    }
+
+    /**
+     * Relit un rapport écrit par {@link #write(DataOutput)}.
+     * @param in source
+     * @return rapport
+     * @throws IOException si la source est illisible, tronquée ou n'est pas un rapport de cette version
+     */
+    static PasswordReport read(final DataInput in) throws IOException {
+        if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+            throw new IOException("Rapport de mots de passe invalide");
+        }
+        long count = in.readLong();
+        long countStrong = in.readLong();
+        long countWithSpecialChars = in.readLong();
+        long countWithNumbers = in.readLong();
+        long countWithUppercaseAndLowercase = in.readLong();
+        long countWithOnlyOneLastSpecialChar = in.readLong();
+        int positions = in.readInt();
+        if (positions < 0) {
+            throw new IOException("Rapport de mots de passe invalide");
+        }
+        SortedMap<Integer, Long> countBySpecialCharPosition = new TreeMap<>();
+        for (int i = 0; i < positions; i++) {
+            countBySpecialCharPosition.put(in.readInt(), in.readLong());
+        }
+        return new PasswordReport(count, countStrong, countWithSpecialChars, countWithNumbers,
+                countWithUppercaseAndLowercase, countWithOnlyOneLastSpecialChar, countBySpecialCharPosition);
+    }
+
+    /**
+     * @return nombre de mots de passe lus
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * @return nombre de mots de passe forts
+     */
+    public long getCountStrong() {
+        return countStrong;
+    }
+
+    /**
+     * @return nombre de mots de passe ayant au moins un caractère spécial
+     */
+    public long getCountWithSpecialChars() {
+        return countWithSpecialChars;
+    }
+
+    /**
+     * @return nombre de mots de passe ayant au moins un chiffre
+     */
+    public long getCountWithNumbers() {
+        return countWithNumbers;
+    }
+
+    /**
+     * @return nombre de mots de passe ayant au moins une lettre capitale et une minuscule
+     */
+    public long getCountWithUppercaseAndLowercase() {
+        return countWithUppercaseAndLowercase;
+    }
+
+    /**
+     * @return nombre de mots de passe avec un seul caractère spécial à la fin
+     */
+    public long getCountWithOnlyOneLastSpecialChar() {
+        return countWithOnlyOneLastSpecialChar;
+    }
+
+    /**
+     * @return Map triée &lt;Position du char, compte&gt;
+     */
+    public SortedMap<Integer, Long> getCountBySpecialCharPosition() {
+        return countBySpecialCharPosition;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof PasswordReport)) {
+            return false;
+        }
+        PasswordReport that = (PasswordReport) o;
+        return count == that.count
+                && countStrong == that.countStrong
+                && countWithSpecialChars == that.countWithSpecialChars
+                && countWithNumbers == that.countWithNumbers
+                && countWithUppercaseAndLowercase == that.countWithUppercaseAndLowercase
+                && countWithOnlyOneLastSpecialChar == that.countWithOnlyOneLastSpecialChar
+                && countBySpecialCharPosition.equals(that.countBySpecialCharPosition);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(count, countStrong, countWithSpecialChars, countWithNumbers,
+                countWithUppercaseAndLowercase, countWithOnlyOneLastSpecialChar, countBySpecialCharPosition);
+    }
+
+    @Override
+    public String toString() {
+        return "PasswordReport{" +
+                "count=" + count +
+                ", countStrong=" + countStrong +
+                ", countWithSpecialChars=" + countWithSpecialChars +
+                ", countWithNumbers=" + countWithNumbers +
+                ", countWithUppercaseAndLowercase=" + countWithUppercaseAndLowercase +
+                ", countWithOnlyOneLastSpecialChar=" + countWithOnlyOneLastSpecialChar +
+                ", countBySpecialCharPosition=" + countBySpecialCharPosition +
+                '}';
+    }
+}
@@ -0,0 +1,123 @@
+package tech.techturningpoint.service;
+
+import java.util.Arrays;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.function.DoubleConsumer;
+
+/**
+ * Histogramme des forces de mots de passe calculées par {@link PasswordStrengthScorer}, sans boxing :
+ * comptes par bit entier (force arrondie à l'inférieur) et par niveau de 0 à 4.
+ * Comme {@link SpecialCharHistogram}, un histogramme n'est pas thread-safe : chaque thread remplit le sien,
+ * puis on les fusionne avec {@link #merge(PasswordScoreHistogram)}.
+ */
+public final class PasswordScoreHistogram implements DoubleConsumer {
+
+    /**
+     * Nombre de niveaux de {@link PasswordStrengthScorer#level(double)}.
+     */
+    public static final int LEVELS = 5;
+
+    private long[] countsByBits = new long[64];
+    private final long[] countsByLevel = new long[LEVELS];
+    private long count;
+    private double sumBits;
+
+    /**
+     * Compte une force.
+     * @param bits force issue de {@link PasswordStrengthScorer#entropy(CharSequence)}
+     */
+    @Override
+    public void accept(final double bits) {
+        int bucket = (int) bits;
+        if (bucket >= countsByBits.length) {
+            countsByBits = Arrays.copyOf(countsByBits, Math.max(bucket + 1, countsByBits.length * 2));
+        }
+        countsByBits[bucket]++;
+        countsByLevel[PasswordStrengthScorer.level(bits)]++;
+        count++;
+        sumBits += bits;
+    }
+
+    /**
+     * @return nombre de mots de passe comptés
+     */
+    public long total() {
+        return count;
+    }
+
+    /**
+     * @return force moyenne en bits, 0 si l'histogramme est vide
+     */
+    public double averageBits() {
+        return count == 0 ? 0 : sumBits / count;
+    }
+
+    /**
+     * @param level niveau de 0 à 4
+     * @return nombre de mots de passe de ce niveau
+     */
+    public long getLevelCount(final int level) {
+        return countsByLevel[level];
+    }
+
+    /**
+     * @param bits bit entier
+     * @return nombre de mots de passe dont la force est dans [bits, bits + 1)
+     */
+    public long getBitsCount(final int bits) {
+        return bits >= 0 && bits < countsByBits.length ? countsByBits[bits] : 0L;
+    }
+
+    /**
+     * @return nombre de buckets non vides
+     */
+    public int bucketCount() {
+        int buckets = 0;
+        for (long c : countsByBits) {
+            if (c != 0) {
+                buckets++;
+            }
+        }
+        return buckets;
+    }
+
+    /**
+     * Fusionne un autre histogramme dans celui-ci.
+     * @param other histogramme à ajouter
+     * @return this
+     */
+    public PasswordScoreHistogram merge(final PasswordScoreHistogram other) {
+        if (other.countsByBits.length > countsByBits.length) {
+            countsByBits = Arrays.copyOf(countsByBits, other.countsByBits.length);
+        }
+        for (int i = 0; i < other.countsByBits.length; i++) {
+            countsByBits[i] += other.countsByBits[i];
+        }
+        for (int level = 0; level < LEVELS; level++) {
+            countsByLevel[level] += other.countsByLevel[level];
+        }
+        count += other.count;
+        sumBits += other.sumBits;
+        return this;
+    }
+
+    /**
+     * @return Map triée &lt;bit entier, compte&gt;, sans les buckets vides
+     */
+    public SortedMap<Integer, Long> toMap() {
+        SortedMap<Integer, Long> map = new TreeMap<>();
+        for (int i = 0; i < countsByBits.length; i++) {
+            if (countsByBits[i] != 0) {
+                map.put(i, countsByBits[i]);
+            }
+        }
+        return map;
+    }
+
+    @Override
+    public String toString() {
+        return "PasswordScoreHistogram{levels=" + Arrays.toString(countsByLevel)
+                + ", averageBits=" + averageBits() + ", bits=" + toMap() + '}';
+    }
+}
@@ -8,6 +8,7 @@ import java.util.*;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
 //import java.util.random.RandomGeneratorFactory;
+import java.util.stream.Collector;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -18,6 +19,40 @@ import java.util.stream.Stream;
  */
 public class PasswordStats implements IPasswordStats {
 
+    /**
+     * Version des règles de classement (force, caractères spéciaux...) : à incrémenter quand elles changent,
+     * pour que les rapports persistés par {@link CachingPasswordStats} soient recalculés.
+     */
+    public static final int RULES_VERSION = 1;
+
+    /**
+     * Métriques des méthodes de calcul, désactivées par défaut.
+     */
+    private final PasswordStatsMetrics metrics;
+
+    /**
+     * Constructeur, sans métriques.
+     */
+    public PasswordStats() {
+        this(new PasswordStatsMetrics());
+    }
+
+    /**
+     * Constructeur.
+     * @param metrics métriques alimentées par les méthodes de calcul quand elles sont activées
+     */
+    public PasswordStats(final PasswordStatsMetrics metrics) {
+        this.metrics = Objects.requireNonNull(metrics);
+    }
+
+    /**
+     * @return métriques de cette instance
+     */
+    @Override
+    public PasswordStatsMetrics getMetrics() {
+        return metrics;
+    }
+
     /**
      * N'est pas vide.
      */
@@ -26,22 +61,22 @@ public class PasswordStats implements IPasswordStats {
     /**
      * Contient au moins une lettre capitale.
      */
-    public Predicate<String> hasUppercase = s -> s.matches(".*[A-Z]+.*");
+    public Predicate<String> hasUppercase = s -> PasswordClassifier.hasAll(PasswordClassifier.classify(s), PasswordClassifier.UPPERCASE);
 
     /**
      * Contient au moins une lettre minuscule.
      */
-    public Predicate<String> hasLowercase = s -> s.matches(".*[a-z]+.*");
+    public Predicate<String> hasLowercase = s -> PasswordClassifier.hasAll(PasswordClassifier.classify(s), PasswordClassifier.LOWERCASE);
 
     /**
      * Contient au moins un chiffre.
      */
-    public Predicate<String> hasNumber = s -> s.matches(".*[0-9]+.*");
+    public Predicate<String> hasNumber = s -> PasswordClassifier.hasAll(PasswordClassifier.classify(s), PasswordClassifier.DIGIT);
 
     /**
      * Contient au moins un caractère spécial.
      */
-    public Predicate<String> hasSpecial = s -> s.matches(".*[ !\"#$%&'()*+,-\\./:;<=>?@\\[\\]^_`{|}~]+.*");
+    public Predicate<String> hasSpecial = s -> PasswordClassifier.hasAll(PasswordClassifier.classify(s), PasswordClassifier.SPECIAL);
 
     /**
      * Est assez long (8).
@@ -56,21 +91,25 @@ public class PasswordStats implements IPasswordStats {
     /**
      * N'a pas plus 2 caractères identiques à la suite.
      */
-    public Predicate<String> hasNoRepetition = s -> !s.matches(".*(.)\\1\\1+.*");
+    public Predicate<String> hasNoRepetition = s -> !PasswordClassifier.hasRepetition(PasswordClassifier.classify(s));
 
     /**
      * Est un mot de passe costaud.
-     * TODO : Composer les prédicats.
+     * Les critères de longueur sont testés d'abord, puis les classes de caractères
+     * en un seul parcours du mot de passe (équivalent à la composition de tous les prédicats).
      */
-    public Predicate<String> isStrongPassword =
-            //TODO
-            isNotBlank.and(hasUppercase)
-                    .and(hasLowercase)
-                    .and(hasNumber)
-                    .and(hasSpecial)
-                    .and(isLongEnough)
-                    .and(isNotTooLong)
-                    .and(hasNoRepetition);
+    public Predicate<String> isStrongPassword = s -> isNotBlank.test(s) && isStrong(s, PasswordClassifier.classify(s));
+
+    /**
+     * Est un mot de passe costaud, à partir de son masque de classes déjà calculé.
+     *
+     * @param password Mot de passe non vide
+     * @param mask masque issu de {@link PasswordClassifier#classify(CharSequence)}
+     * @return true si mot de passe fort
+     */
+    boolean isStrong(final String password, final int mask) {
+        return isLongEnough.test(password) && isNotTooLong.test(password) && PasswordClassifier.isStrong(mask);
+    }
 
     /**
      * Est un mot de passe costaud.
@@ -95,8 +134,13 @@ public class PasswordStats implements IPasswordStats {
 
         //TODO
 
-        return allPasswords.get().filter(hasNumber)
-                .collect(Collectors.toList());
+        long start = metrics.start();
+        try {
+            return read(allPasswords).filter(classify(hasNumber))
+                    .collect(group(Collectors.toList()));
+        } finally {
+            metrics.record("getAllWithNumbers", start);
+        }
     }
 
     /**
@@ -109,8 +153,13 @@ public class PasswordStats implements IPasswordStats {
     public List<String> getAllWithUppercaseAndLowercase(Supplier<Stream<String>> allPasswords) {
 
         //TODO
-        return allPasswords.get().filter(hasUppercase.and(hasLowercase))
-                .collect(Collectors.toList());
+        long start = metrics.start();
+        try {
+            return read(allPasswords).filter(classify(hasUppercase.and(hasLowercase)))
+                    .collect(group(Collectors.toList()));
+        } finally {
+            metrics.record("getAllWithUppercaseAndLowercase", start);
+        }
     }
 
     /**
@@ -123,8 +172,13 @@ public class PasswordStats implements IPasswordStats {
     public List<String> getAllWithSpecialChars(Supplier<Stream<String>> allPasswords) {
         //TODO
 
-        return allPasswords.get().filter(hasSpecial)
-                .collect(Collectors.toList());
+        long start = metrics.start();
+        try {
+            return read(allPasswords).filter(classify(hasSpecial))
+                    .collect(group(Collectors.toList()));
+        } finally {
+            metrics.record("getAllWithSpecialChars", start);
+        }
     }
 
     /**
@@ -136,14 +190,20 @@ public class PasswordStats implements IPasswordStats {
     @Override
     public List<String> getAllStrong(Supplier<Stream<String>> allPasswords) {
 
-        return allPasswords.get().filter(isStrongPassword)
-                .collect(Collectors.toList());
+        long start = metrics.start();
+        try {
+            return read(allPasswords).filter(classify(isStrongPassword))
+                    .collect(group(Collectors.toList()));
+        } finally {
+            metrics.record("getAllStrong", start);
+        }
     }
 
     /**
      * Compte les mots de passe en fonction de la position des caractères spéciaux dans le mot.
      * Ex: pour "b1op!", "#bli!", le résultat sera [(0, 1), (4, 2)]
      * Indices si vous êtes bloqué : voir le readme ou le wiki.
+     * Dans les métriques, le calcul est compté sous getSpecialCharHistogram.
      *
      * @param allPasswords Stream de mots de passe
      * @return Map<Position du char, compte>
@@ -151,18 +211,38 @@ public class PasswordStats implements IPasswordStats {
     @Override
     public Map<Integer, Long> countBySpecialCharPosition(Supplier<Stream<String>> allPasswords) {
 
-        return allPasswords.get().filter(hasSpecial)
-                //mieux methode d'utiliser hasSpecial
-                .map(this::getIndexOfSpecialChar)
-                .flatMap(Collection::stream)
-                .collect(Collectors.groupingBy(i -> i, Collectors.counting()));
+        return getSpecialCharHistogram(allPasswords).toMap();
 
     }
 
+    /**
+     * Histogramme primitif des positions des caractères spéciaux : chaque thread remplit le sien,
+     * les histogrammes sont fusionnés à la fin.
+     *
+     * @param allPasswords Stream de mots de passe
+     * @return histogramme des positions
+     */
+    @Override
+    public SpecialCharHistogram getSpecialCharHistogram(Supplier<Stream<String>> allPasswords) {
+        long start = metrics.start();
+        try {
+            SpecialCharHistogram histogram = read(allPasswords).filter(classify(hasSpecial))
+                    .collect(group(Collector.<String, SpecialCharHistogram>of(SpecialCharHistogram::new,
+                            (h, p) -> forEachSpecialCharPosition(p, h),
+                            SpecialCharHistogram::merge,
+                            Collector.Characteristics.IDENTITY_FINISH)));
+            metrics.gauge("specialCharHistogram.positions", histogram.positionCount());
+            return histogram;
+        } finally {
+            metrics.record("getSpecialCharHistogram", start);
+        }
+    }
+
     /**
      * Renvoie la liste des mots de passe avec caractère spécial en fonction des positions des caractères spéciaux.
      * Ex: pour "b1op!", "#bli!", le résultat sera [(0, ["#bli!"]), (4, ["blop!, "#bli!])]
-     * Indices si vous êtes bloqué : voir le readme ou le wiki.
+     * Les listes sont des vues sur {@link #getSpecialCharPositionIndex(Supplier)},
+     * sous le nom duquel le calcul est compté dans les métriques.
      *
      * @param allPasswords Stream de mots de passe
      * @return Map<Position du char, Liste des mots de passe.>
@@ -170,28 +250,27 @@ public class PasswordStats implements IPasswordStats {
     @Override
     public Map<Integer, List<String>> getAllBySpecialCharPosition(Supplier<Stream<String>> allPasswords) {
 
-        //TODO
-        Map<Integer, List<String>> newCouplePositionCountPwd =
-                allPasswords.get().filter(hasSpecial)
-                        .map(p -> {
-                            List<Integer> listPosition = getIndexOfSpecialChar(p);
-                            ArrayList<AbstractMap.SimpleEntry<Integer, String>>
-                                    arrayList
-                                    = new ArrayList<AbstractMap.SimpleEntry<Integer, String>>();
-
-                            for(Integer i : listPosition)
-
-                                    arrayList.add(new AbstractMap.SimpleEntry<Integer, String>(i, p));
+        return getSpecialCharPositionIndex(allPasswords).toMap();
+    }
 
-                            return arrayList;
-                        })
-                        .flatMap(i -> i.stream())
-                        .collect(Collectors.groupingBy(
-                                p -> p.getKey(),
-                                Collectors.mapping(
-                                        l -> l.getValue(),
-                                        Collectors.toList())));
-        return newCouplePositionCountPwd;
+    /**
+     * Construit l'index compact des mots de passe avec caractère spécial par position du caractère spécial.
+     *
+     * @param allPasswords Stream de mots de passe
+     * @return index interrogeable
+     */
+    @Override
+    public SpecialCharPositionIndex getSpecialCharPositionIndex(Supplier<Stream<String>> allPasswords) {
+        long start = metrics.start();
+        try {
+            SpecialCharPositionIndex index = read(allPasswords).filter(classify(hasSpecial))
+                    .collect(group(SpecialCharPositionIndex.collector()));
+            metrics.gauge("specialCharPositionIndex.distinct", index.distinctCount());
+            metrics.gauge("specialCharPositionIndex.occurrences", index.occurrenceCount());
+            return index;
+        } finally {
+            metrics.record("getSpecialCharPositionIndex", start);
+        }
     }
 
     /**
@@ -206,7 +285,98 @@ public class PasswordStats implements IPasswordStats {
     @Override
     public List<String> getAllWithOnlyOneLastSpecialChar(Supplier<Stream<String>> allPasswords) {
 
-        return allPasswords.get().filter(hasSpecial.and(p -> getIndexOfSpecialChar(p).get(0).equals(p.length() - 1)))
-                .collect(Collectors.toList());
+        long start = metrics.start();
+        try {
+            return read(allPasswords)
+                    .filter(classify(hasSpecial.and(p -> PasswordClassifier.indexOfSpecialChar(p, 0) == p.length() - 1)))
+                    .collect(group(Collectors.toList()));
+        } finally {
+            metrics.record("getAllWithOnlyOneLastSpecialChar", start);
+        }
+    }
+
+    /**
+     * Calcule tous les compteurs en une seule lecture : chaque mot de passe est classifié une seule fois.
+     *
+     * @param allPasswords Stream de mots de passe
+     * @return rapport de statistiques
+     */
+    @Override
+    public PasswordReport getReport(Supplier<Stream<String>> allPasswords) {
+        long start = metrics.start();
+        try {
+            PasswordReport report = read(allPasswords).collect(PasswordStatsAccumulator.collector(this)).snapshot();
+            metrics.gauge("report.positions", report.getCountBySpecialCharPosition().size());
+            return report;
+        } finally {
+            metrics.record("getReport", start);
+        }
+    }
+
+    /**
+     * Calcule la force de chaque mot de passe, par thread dans un histogramme primitif fusionné à la fin.
+     *
+     * @param allPasswords Stream de mots de passe
+     * @param scorer moteur de score
+     * @return histogramme des forces
+     */
+    @Override
+    public PasswordScoreHistogram getScoreHistogram(Supplier<Stream<String>> allPasswords,
+                                                    PasswordStrengthScorer scorer) {
+        long start = metrics.start();
+        try {
+            PasswordScoreHistogram histogram = read(allPasswords)
+                    .collect(group(Collector.<String, PasswordScoreHistogram>of(PasswordScoreHistogram::new,
+                            (h, p) -> h.accept(scorer.entropy(p)),
+                            PasswordScoreHistogram::merge,
+                            Collector.Characteristics.IDENTITY_FINISH)));
+            metrics.gauge("scoreHistogram.buckets", histogram.bucketCount());
+            return histogram;
+        } finally {
+            metrics.record("getScoreHistogram", start);
+        }
+    }
+
+    /**
+     * Esquisse des fréquences par thread, fusionnées à la fin ; la fusion garde les bornes d'erreur.
+     *
+     * @param allPasswords Stream de mots de passe
+     * @param exact true pour compter exactement
+     * @return fréquences
+     */
+    @Override
+    public PasswordFrequencySketch getFrequencySketch(Supplier<Stream<String>> allPasswords, boolean exact) {
+        long start = metrics.start();
+        try {
+            PasswordFrequencySketch sketch = read(allPasswords).collect(group(exact
+                    ? PasswordFrequencySketch.exactCollector()
+                    : PasswordFrequencySketch.collector(PasswordFrequencySketch.DEFAULT_PRECISION,
+                            PasswordFrequencySketch.DEFAULT_CAPACITY)));
+            metrics.gauge("frequencySketch.monitored", sketch.monitoredCount());
+            return sketch;
+        } finally {
+            metrics.record("getFrequencySketch", start);
+        }
+    }
+
+    /**
+     * Lecture instrumentée (étape {@link PasswordStatsMetrics.Stage#READ}).
+     */
+    private Stream<String> read(final Supplier<Stream<String>> allPasswords) {
+        return metrics.timedRead(allPasswords.get());
+    }
+
+    /**
+     * Filtre instrumenté (étape {@link PasswordStatsMetrics.Stage#CLASSIFY}).
+     */
+    private Predicate<String> classify(final Predicate<String> predicate) {
+        return metrics.timed(PasswordStatsMetrics.Stage.CLASSIFY, predicate);
+    }
+
+    /**
+     * Collecteur instrumenté (étape {@link PasswordStatsMetrics.Stage#GROUP}).
+     */
+    private <A, R> Collector<String, A, R> group(final Collector<String, A, R> collector) {
+        return metrics.timed(PasswordStatsMetrics.Stage.GROUP, collector);
     }
 }
@@ -0,0 +1,160 @@
+package tech.techturningpoint.service;
+
+import java.util.function.Consumer;
+import java.util.stream.Collector;
+import java.util.stream.Stream;
+
+/**
+ * Accumulateur incrémental des statistiques de {@link PasswordStats}.
+ *
+ * Les mots de passe sont ajoutés un par un ou par lots, sans relire l'historique ; {@link #snapshot()}
+ * renvoie à tout moment un rapport cohérent (un lot apparaît entièrement ou pas du tout).
+ * La fusion est associative, ce qui permet de combiner des résultats partiels calculés par thread,
+ * notamment avec {@link #collector(PasswordStats)}.
+ */
+public final class PasswordStatsAccumulator implements Consumer<String> {
+
+    private final PasswordStats stats;
+
+    /**
+     * Métriques de stats si elles étaient activées à la création de l'accumulateur, null sinon.
+     */
+    private final PasswordStatsMetrics metrics;
+
+    private long count;
+    private long countStrong;
+    private long countWithSpecialChars;
+    private long countWithNumbers;
+    private long countWithUppercaseAndLowercase;
+    private long countWithOnlyOneLastSpecialChar;
+    private final SpecialCharHistogram countBySpecialCharPosition = new SpecialCharHistogram();
+
+    /**
+     * Constructeur.
+     * @param stats règles utilisées pour qualifier les mots de passe
+     */
+    public PasswordStatsAccumulator(final PasswordStats stats) {
+        this.stats = stats;
+        this.metrics = stats.getMetrics().isEnabled() ? stats.getMetrics() : null;
+    }
+
+    /**
+     * Collecteur de l'accumulateur : chaque thread remplit le sien sans synchronisation,
+     * les résultats partiels sont fusionnés à la fin.
+     * @param stats règles utilisées pour qualifier les mots de passe
+     * @return collecteur utilisable sur un Stream parallèle
+     */
+    public static Collector<String, PasswordStatsAccumulator, PasswordStatsAccumulator> collector(final PasswordStats stats) {
+        return Collector.of(
+                () -> new PasswordStatsAccumulator(stats),
+                PasswordStatsAccumulator::add,
+                PasswordStatsAccumulator::add,
+                Collector.Characteristics.IDENTITY_FINISH);
+    }
+
+    /**
+     * Ajoute un mot de passe.
+     * @param password mot de passe
+     */
+    @Override
+    public synchronized void accept(final String password) {
+        add(password);
+    }
+
+    /**
+     * Ajoute un lot de mots de passe, de façon atomique vis-à-vis de {@link #snapshot()}.
+     * @param passwords lot de mots de passe (éventuellement parallèle)
+     */
+    public void acceptAll(final Stream<String> passwords) {
+        PasswordStatsAccumulator batch = passwords.collect(collector(stats));
+        synchronized (this) {
+            add(batch);
+        }
+    }
+
+    /**
+     * Ajoute un lot de mots de passe, de façon atomique vis-à-vis de {@link #snapshot()}.
+     * @param passwords lot de mots de passe
+     */
+    public void acceptAll(final Iterable<String> passwords) {
+        PasswordStatsAccumulator batch = new PasswordStatsAccumulator(stats);
+        passwords.forEach(batch::add);
+        synchronized (this) {
+            add(batch);
+        }
+    }
+
+    /**
+     * Fusionne les statistiques d'un autre accumulateur dans celui-ci.
+     * @param other accumulateur à ajouter (non modifié)
+     * @return this
+     */
+    public PasswordStatsAccumulator merge(final PasswordStatsAccumulator other) {
+        PasswordStatsAccumulator copy = new PasswordStatsAccumulator(stats);
+        synchronized (other) {
+            copy.add(other);
+        }
+        synchronized (this) {
+            return add(copy);
+        }
+    }
+
+    /**
+     * @return rapport de toutes les statistiques accumulées jusqu'ici
+     */
+    public synchronized PasswordReport snapshot() {
+        return new PasswordReport(count, countStrong, countWithSpecialChars, countWithNumbers,
+                countWithUppercaseAndLowercase, countWithOnlyOneLastSpecialChar, countBySpecialCharPosition);
+    }
+
+    /**
+     * Ajout sans synchronisation : chaque mot de passe est classifié une seule fois.
+     * Avec métriques, la classification et le comptage d'un mot de passe échantillonné sont mesurés séparément.
+     */
+    private void add(final String password) {
+        if (metrics == null || !PasswordStatsMetrics.sample()) {
+            add(password, PasswordClassifier.classify(password));
+            return;
+        }
+        long start = System.nanoTime();
+        int mask = PasswordClassifier.classify(password);
+        long classified = System.nanoTime();
+        add(password, mask);
+        metrics.addSampledStageNanos(PasswordStatsMetrics.Stage.CLASSIFY, classified - start);
+        metrics.addSampledStageNanos(PasswordStatsMetrics.Stage.GROUP, System.nanoTime() - classified);
+    }
+
+    private void add(final String password, final int mask) {
+        count++;
+        if (stats.isNotBlank.test(password) && stats.isStrong(password, mask)) {
+            countStrong++;
+        }
+        if (PasswordClassifier.hasAll(mask, PasswordClassifier.DIGIT)) {
+            countWithNumbers++;
+        }
+        if (PasswordClassifier.hasAll(mask, PasswordClassifier.UPPERCASE | PasswordClassifier.LOWERCASE)) {
+            countWithUppercaseAndLowercase++;
+        }
+        if (PasswordClassifier.hasAll(mask, PasswordClassifier.SPECIAL)) {
+            countWithSpecialChars++;
+            stats.forEachSpecialCharPosition(password, countBySpecialCharPosition);
+            if (PasswordClassifier.indexOfSpecialChar(password, 0) == password.length() - 1) {
+                countWithOnlyOneLastSpecialChar++;
+            }
+        }
+    }
+
+    /**
+     * Fusion sans synchronisation.
+     */
+    private PasswordStatsAccumulator add(final PasswordStatsAccumulator other) {
+        count += other.count;
+        countStrong += other.countStrong;
+        countWithSpecialChars += other.countWithSpecialChars;
+        countWithNumbers += other.countWithNumbers;
+        countWithUppercaseAndLowercase += other.countWithUppercaseAndLowercase;
+        countWithOnlyOneLastSpecialChar += other.countWithOnlyOneLastSpecialChar;
+        countBySpecialCharPosition.merge(other.countBySpecialCharPosition);
+        return this;
+    }
+}
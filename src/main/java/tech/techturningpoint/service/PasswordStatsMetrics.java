@@ -0,0 +1,585 @@
+package tech.techturningpoint.service;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Collector;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Métriques de {@link PasswordStats} : appels et durées par méthode, durées par étape
+ * (lecture, classification, regroupement), débit en lignes et octets par seconde, jauges de taille.
+ *
+ * Les métriques sont désactivées par défaut : les méthodes d'instrumentation renvoient alors
+ * le Stream, le prédicat ou le collecteur d'origine, sans enveloppe ni horloge.
+ * L'état est lu à la construction du pipeline : activer les métriques ne touche pas un calcul en cours.
+ * Les compteurs sont des {@link LongAdder}, alimentés sans verrou depuis tous les threads d'un Stream parallèle.
+ * Les lignes et les octets sont comptés exactement ; les durées d'étape sont estimées en mesurant
+ * un élément sur {@link #SAMPLE_INTERVAL} (tiré au hasard), pour ne pas payer l'horloge à chaque mot de passe.
+ */
+public final class PasswordStatsMetrics implements PasswordStatsMetricsMXBean {
+
+    /**
+     * Etapes d'un calcul.
+     */
+    public enum Stage {
+        /**
+         * Lecture des lignes depuis la source, sans le temps passé en aval.
+         */
+        READ,
+        /**
+         * Classification des caractères d'un mot de passe.
+         */
+        CLASSIFY,
+        /**
+         * Regroupement des résultats : listes, compteurs, histogrammes, index.
+         */
+        GROUP
+    }
+
+    /**
+     * Valeur de {@link #start()} quand les métriques sont désactivées.
+     */
+    private static final long NOT_STARTED = Long.MIN_VALUE;
+
+    /**
+     * En moyenne, un élément mesuré sur SAMPLE_INTERVAL ; sa durée compte pour SAMPLE_INTERVAL éléments.
+     */
+    static final int SAMPLE_INTERVAL = 64;
+    private static final int SAMPLE_MASK = SAMPLE_INTERVAL - 1;
+
+    /**
+     * Métriques toujours désactivées, partagées par les implémentations sans métriques propres
+     * (voir {@link IPasswordStats#getMetrics()}) : les activer ou y ajouter un reporter lève
+     * {@link UnsupportedOperationException}, au lieu d'être perdu en silence.
+     */
+    public static final PasswordStatsMetrics DISABLED = new PasswordStatsMetrics(false);
+
+    private final boolean configurable;
+    private volatile boolean enabled;
+
+    private final Map<Stage, LongAdder> stageNanos = new EnumMap<>(Stage.class);
+    private final LongAdder linesRead = new LongAdder();
+    private final LongAdder bytesRead = new LongAdder();
+    private final ConcurrentHashMap<String, MethodTimer> methods = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, AtomicLong> gauges = new ConcurrentHashMap<>();
+    private final List<PasswordStatsReporter> reporters = new CopyOnWriteArrayList<>();
+
+    /**
+     * Métriques désactivées.
+     */
+    public PasswordStatsMetrics() {
+        this(true);
+    }
+
+    private PasswordStatsMetrics(final boolean configurable) {
+        this.configurable = configurable;
+        for (Stage stage : Stage.values()) {
+            stageNanos.put(stage, new LongAdder());
+        }
+    }
+
+    /**
+     * @return métriques activées
+     */
+    public static PasswordStatsMetrics enabled() {
+        PasswordStatsMetrics metrics = new PasswordStatsMetrics();
+        metrics.setEnabled(true);
+        return metrics;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void setEnabled(final boolean enabled) {
+        if (enabled) {
+            checkConfigurable();
+        }
+        this.enabled = enabled;
+    }
+
+    /**
+     * Début de la mesure d'une méthode, à passer à {@link #record(String, long)}.
+     * @return horloge en nanosecondes, ou une valeur ignorée si les métriques sont désactivées
+     */
+    public long start() {
+        return enabled ? System.nanoTime() : NOT_STARTED;
+    }
+
+    /**
+     * Compte un appel de méthode et sa durée.
+     * @param method nom de la méthode
+     * @param start valeur renvoyée par {@link #start()}
+     */
+    public void record(final String method, final long start) {
+        if (start != NOT_STARTED) {
+            methods.computeIfAbsent(method, k -> new MethodTimer()).add(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Ajoute une durée à une étape.
+     * @param stage étape
+     * @param nanos durée en nanosecondes
+     */
+    public void addStageNanos(final Stage stage, final long nanos) {
+        stageNanos.get(stage).add(nanos);
+    }
+
+    /**
+     * Ajoute à une étape la durée d'un élément échantillonné par {@link #sample()}.
+     */
+    void addSampledStageNanos(final Stage stage, final long nanos) {
+        stageNanos.get(stage).add(nanos * SAMPLE_INTERVAL);
+    }
+
+    /**
+     * @return true pour un élément sur {@link #SAMPLE_INTERVAL} en moyenne, sans état partagé entre threads
+     */
+    static boolean sample() {
+        return (ThreadLocalRandom.current().nextInt() & SAMPLE_MASK) == 0;
+    }
+
+    /**
+     * Met à jour une jauge, si les métriques sont activées.
+     * @param name nom de la jauge
+     * @param value valeur courante
+     */
+    public void gauge(final String name, final long value) {
+        if (enabled) {
+            gauges.computeIfAbsent(name, k -> new AtomicLong()).set(value);
+        }
+    }
+
+    /**
+     * Instrumente la lecture : compte les lignes, leur taille en octets (UTF-8, sans fin de ligne)
+     * et le temps passé dans la source. Le Stream renvoyé garde le parallélisme et la fermeture de la source.
+     * @param source Stream de mots de passe
+     * @return Stream instrumenté, ou la source si les métriques sont désactivées
+     */
+    public Stream<String> timedRead(final Stream<String> source) {
+        if (!enabled) {
+            return source;
+        }
+        return StreamSupport.stream(new TimedSpliterator(source.spliterator()), source.isParallel())
+                .onClose(source::close);
+    }
+
+    /**
+     * Instrumente un prédicat.
+     * @param stage étape à laquelle imputer le temps
+     * @param predicate prédicat
+     * @return prédicat instrumenté, ou le prédicat d'origine si les métriques sont désactivées
+     */
+    public Predicate<String> timed(final Stage stage, final Predicate<String> predicate) {
+        if (!enabled) {
+            return predicate;
+        }
+        LongAdder nanos = stageNanos.get(stage);
+        return s -> {
+            if (!sample()) {
+                return predicate.test(s);
+            }
+            long start = System.nanoTime();
+            boolean result = predicate.test(s);
+            nanos.add((System.nanoTime() - start) * SAMPLE_INTERVAL);
+            return result;
+        };
+    }
+
+    /**
+     * Instrumente l'accumulation (échantillonnée) et la fusion (mesurée à chaque fois) d'un collecteur.
+     * @param stage étape à laquelle imputer le temps
+     * @param collector collecteur
+     * @param <A> type de l'accumulateur
+     * @param <R> type du résultat
+     * @return collecteur instrumenté, ou le collecteur d'origine si les métriques sont désactivées
+     */
+    public <A, R> Collector<String, A, R> timed(final Stage stage, final Collector<String, A, R> collector) {
+        if (!enabled) {
+            return collector;
+        }
+        LongAdder nanos = stageNanos.get(stage);
+        BiConsumer<A, String> accumulator = collector.accumulator();
+        BinaryOperator<A> combiner = collector.combiner();
+        return Collector.of(
+                collector.supplier(),
+                (container, s) -> {
+                    if (!sample()) {
+                        accumulator.accept(container, s);
+                        return;
+                    }
+                    long start = System.nanoTime();
+                    accumulator.accept(container, s);
+                    nanos.add((System.nanoTime() - start) * SAMPLE_INTERVAL);
+                },
+                (left, right) -> {
+                    long start = System.nanoTime();
+                    A merged = combiner.apply(left, right);
+                    nanos.add(System.nanoTime() - start);
+                    return merged;
+                },
+                collector.finisher(),
+                collector.characteristics().toArray(new Collector.Characteristics[0]));
+    }
+
+    @Override
+    public long getLinesRead() {
+        return linesRead.sum();
+    }
+
+    @Override
+    public long getBytesRead() {
+        return bytesRead.sum();
+    }
+
+    @Override
+    public long getReadNanos() {
+        return stageNanos.get(Stage.READ).sum();
+    }
+
+    @Override
+    public long getClassifyNanos() {
+        return stageNanos.get(Stage.CLASSIFY).sum();
+    }
+
+    @Override
+    public long getGroupNanos() {
+        return stageNanos.get(Stage.GROUP).sum();
+    }
+
+    @Override
+    public double getLinesPerSecond() {
+        return snapshot().getLinesPerSecond();
+    }
+
+    @Override
+    public double getBytesPerSecond() {
+        return snapshot().getBytesPerSecond();
+    }
+
+    @Override
+    public Map<String, Long> getMethodCalls() {
+        Map<String, Long> calls = new TreeMap<>();
+        methods.forEach((method, timer) -> calls.put(method, timer.calls.sum()));
+        return calls;
+    }
+
+    @Override
+    public Map<String, Long> getMethodNanos() {
+        Map<String, Long> nanos = new TreeMap<>();
+        methods.forEach((method, timer) -> nanos.put(method, timer.nanos.sum()));
+        return nanos;
+    }
+
+    @Override
+    public Map<String, Long> getGauges() {
+        Map<String, Long> values = new TreeMap<>();
+        gauges.forEach((name, value) -> values.put(name, value.get()));
+        return values;
+    }
+
+    @Override
+    public void reset() {
+        stageNanos.values().forEach(LongAdder::reset);
+        linesRead.reset();
+        bytesRead.reset();
+        methods.clear();
+        gauges.clear();
+    }
+
+    /**
+     * @return copie cohérente des métriques (chaque compteur est lu une fois)
+     */
+    public Snapshot snapshot() {
+        Map<Stage, Long> stages = new EnumMap<>(Stage.class);
+        stageNanos.forEach((stage, nanos) -> stages.put(stage, nanos.sum()));
+        return new Snapshot(linesRead.sum(), bytesRead.sum(), stages, getMethodCalls(), getMethodNanos(), getGauges());
+    }
+
+    /**
+     * @param reporter destinataire des métriques à chaque {@link #report()}
+     */
+    public void addReporter(final PasswordStatsReporter reporter) {
+        checkConfigurable();
+        reporters.add(reporter);
+    }
+
+    private void checkConfigurable() {
+        if (!configurable) {
+            throw new UnsupportedOperationException(
+                    "M\u00e9triques partag\u00e9es non configurables : passer une instance \u00e0 l'impl\u00e9mentation");
+        }
+    }
+
+    /**
+     * @param reporter destinataire à retirer
+     */
+    public void removeReporter(final PasswordStatsReporter reporter) {
+        reporters.remove(reporter);
+    }
+
+    /**
+     * Transmet un instantané des métriques à chaque reporter, si les métriques sont activées.
+     */
+    public void report() {
+        if (enabled && !reporters.isEmpty()) {
+            Snapshot snapshot = snapshot();
+            reporters.forEach(reporter -> reporter.report(snapshot));
+        }
+    }
+
+    /**
+     * Enregistre les métriques sur le serveur JMX de la plateforme,
+     * sous le nom "tech.techturningpoint:type=PasswordStats,name=&lt;name&gt;".
+     * @param name nom de l'instance
+     * @return nom JMX, pour le désenregistrement
+     * @throws JMException si le nom est invalide ou déjà enregistré
+     */
+    public ObjectName registerMBean(final String name) throws JMException {
+        ObjectName objectName = new ObjectName("tech.techturningpoint:type=PasswordStats,name=" + ObjectName.quote(name));
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+        return objectName;
+    }
+
+    /**
+     * Taille en octets d'une chaîne encodée en UTF-8, sans l'encoder.
+     */
+    static long utf8Length(final CharSequence s) {
+        long bytes = 0;
+        int length = s.length();
+        for (int i = 0; i < length; i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                bytes++;
+            } else if (c < 0x800) {
+                bytes += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(s.charAt(i + 1))) {
+                bytes += 4;
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                // Surrogate isolé, remplacé par '?' à l'encodage
+                bytes++;
+            } else {
+                bytes += 3;
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Appels et durée cumulée d'une méthode.
+     */
+    private static final class MethodTimer {
+        final LongAdder calls = new LongAdder();
+        final LongAdder nanos = new LongAdder();
+
+        void add(final long elapsed) {
+            calls.increment();
+            nanos.add(elapsed);
+        }
+    }
+
+    /**
+     * Spliterator qui mesure le temps passé dans la source, hors traitement en aval.
+     * Les compteurs locaux sont reportés dans les LongAdder à chaque élément mesuré et à la fin de la source.
+     */
+    private final class TimedSpliterator implements Spliterator<String>, Consumer<String> {
+
+        private final Spliterator<String> source;
+        private String current;
+        private int ticks;
+        private long lines;
+        private long bytes;
+
+        TimedSpliterator(final Spliterator<String> source) {
+            this.source = source;
+        }
+
+        @Override
+        public void accept(final String s) {
+            current = s;
+        }
+
+        @Override
+        public boolean tryAdvance(final Consumer<? super String> action) {
+            boolean advanced;
+            if ((ticks++ & SAMPLE_MASK) != 0) {
+                advanced = source.tryAdvance(this);
+                if (!advanced) {
+                    flush();
+                }
+            } else {
+                long start = System.nanoTime();
+                advanced = source.tryAdvance(this);
+                stageNanos.get(Stage.READ).add((System.nanoTime() - start) * SAMPLE_INTERVAL);
+                flush();
+            }
+            if (advanced) {
+                String s = current;
+                current = null;
+                lines++;
+                bytes += utf8Length(s);
+                action.accept(s);
+            }
+            return advanced;
+        }
+
+        private void flush() {
+            linesRead.add(lines);
+            bytesRead.add(bytes);
+            lines = 0;
+            bytes = 0;
+        }
+
+        @Override
+        public Spliterator<String> trySplit() {
+            Spliterator<String> prefix = source.trySplit();
+            return prefix == null ? null : new TimedSpliterator(prefix);
+        }
+
+        @Override
+        public long estimateSize() {
+            return source.estimateSize();
+        }
+
+        @Override
+        public long getExactSizeIfKnown() {
+            return source.getExactSizeIfKnown();
+        }
+
+        @Override
+        public int characteristics() {
+            return source.characteristics();
+        }
+    }
+
+    /**
+     * Instantané immuable des métriques.
+     */
+    public static final class Snapshot {
+
+        private final long linesRead;
+        private final long bytesRead;
+        private final Map<Stage, Long> stageNanos;
+        private final Map<String, Long> methodCalls;
+        private final Map<String, Long> methodNanos;
+        private final Map<String, Long> gauges;
+
+        Snapshot(final long linesRead, final long bytesRead, final Map<Stage, Long> stageNanos,
+                 final Map<String, Long> methodCalls, final Map<String, Long> methodNanos, final Map<String, Long> gauges) {
+            this.linesRead = linesRead;
+            this.bytesRead = bytesRead;
+            this.stageNanos = Collections.unmodifiableMap(stageNanos);
+            this.methodCalls = Collections.unmodifiableMap(methodCalls);
+            this.methodNanos = Collections.unmodifiableMap(methodNanos);
+            this.gauges = Collections.unmodifiableMap(gauges);
+        }
+
+        /**
+         * @return nombre de lignes lues
+         */
+        public long getLinesRead() {
+            return linesRead;
+        }
+
+        /**
+         * @return nombre d'octets lus (UTF-8, sans fin de ligne)
+         */
+        public long getBytesRead() {
+            return bytesRead;
+        }
+
+        /**
+         * @param stage étape
+         * @return durée cumulée de l'étape sur tous les threads, en nanosecondes
+         */
+        public long getStageNanos(final Stage stage) {
+            return stageNanos.get(stage);
+        }
+
+        /**
+         * @return Map triée &lt;méthode, nombre d'appels&gt;
+         */
+        public Map<String, Long> getMethodCalls() {
+            return methodCalls;
+        }
+
+        /**
+         * @return Map triée &lt;méthode, durée cumulée en nanosecondes&gt;
+         */
+        public Map<String, Long> getMethodNanos() {
+            return methodNanos;
+        }
+
+        /**
+         * @return Map triée &lt;jauge, dernière valeur&gt;
+         */
+        public Map<String, Long> getGauges() {
+            return gauges;
+        }
+
+        /**
+         * @return durée cumulée des méthodes, en nanosecondes
+         */
+        public long getTotalMethodNanos() {
+            long total = 0;
+            for (long nanos : methodNanos.values()) {
+                total += nanos;
+            }
+            return total;
+        }
+
+        /**
+         * @return lignes lues par seconde d'exécution des méthodes, 0 si aucune méthode n'a été mesurée
+         */
+        public double getLinesPerSecond() {
+            return perSecond(linesRead);
+        }
+
+        /**
+         * @return octets lus par seconde d'exécution des méthodes, 0 si aucune méthode n'a été mesurée
+         */
+        public double getBytesPerSecond() {
+            return perSecond(bytesRead);
+        }
+
+        private double perSecond(final long value) {
+            long nanos = getTotalMethodNanos();
+            return nanos == 0 ? 0 : value * 1e9 / nanos;
+        }
+
+        @Override
+        public String toString() {
+            return "PasswordStatsMetrics{" +
+                    "linesRead=" + linesRead +
+                    ", bytesRead=" + bytesRead +
+                    ", linesPerSecond=" + Math.round(getLinesPerSecond()) +
+                    ", bytesPerSecond=" + Math.round(getBytesPerSecond()) +
+                    ", stageNanos=" + stageNanos +
+                    ", methodCalls=" + methodCalls +
+                    ", methodNanos=" + methodNanos +
+                    ", gauges=" + gauges +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package tech.techturningpoint.service;
+
+import java.util.Map;
+
+/**
+ * Interface JMX des métriques de {@link PasswordStats}, voir {@link PasswordStatsMetrics#registerMBean(String)}.
+ */
+public interface PasswordStatsMetricsMXBean {
+
+    /**
+     * @return true si les métriques sont activées
+     */
+    boolean isEnabled();
+
+    /**
+     * Active ou désactive les métriques pour les prochains calculs.
+     * @param enabled true pour activer
+     */
+    void setEnabled(boolean enabled);
+
+    /**
+     * @return nombre de lignes lues
+     */
+    long getLinesRead();
+
+    /**
+     * @return nombre d'octets lus (UTF-8, sans fin de ligne)
+     */
+    long getBytesRead();
+
+    /**
+     * @return durée cumulée de lecture, en nanosecondes
+     */
+    long getReadNanos();
+
+    /**
+     * @return durée cumulée de classification, en nanosecondes
+     */
+    long getClassifyNanos();
+
+    /**
+     * @return durée cumulée de regroupement, en nanosecondes
+     */
+    long getGroupNanos();
+
+    /**
+     * @return lignes lues par seconde d'exécution des méthodes
+     */
+    double getLinesPerSecond();
+
+    /**
+     * @return octets lus par seconde d'exécution des méthodes
+     */
+    double getBytesPerSecond();
+
+    /**
+     * @return Map &lt;méthode, nombre d'appels&gt;
+     */
+    Map<String, Long> getMethodCalls();
+
+    /**
+     * @return Map &lt;méthode, durée cumulée en nanosecondes&gt;
+     */
+    Map<String, Long> getMethodNanos();
+
+    /**
+     * @return Map &lt;jauge, dernière valeur&gt;
+     */
+    Map<String, Long> getGauges();
+
+    /**
+     * Remet tous les compteurs et jauges à zéro.
+     */
+    void reset();
+}
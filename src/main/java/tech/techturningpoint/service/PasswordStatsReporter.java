@@ -0,0 +1,25 @@
+package tech.techturningpoint.service;
+
+import java.io.PrintStream;
+
+/**
+ * Destinataire des métriques de {@link PasswordStats}, voir {@link PasswordStatsMetrics#addReporter(PasswordStatsReporter)}.
+ * Ex: metrics.addReporter(PasswordStatsReporter.to(System.out))
+ */
+@FunctionalInterface
+public interface PasswordStatsReporter {
+
+    /**
+     * Reçoit un instantané des métriques.
+     * @param snapshot métriques
+     */
+    void report(PasswordStatsMetrics.Snapshot snapshot);
+
+    /**
+     * @param out flux de sortie
+     * @return reporter qui écrit chaque instantané sur une ligne
+     */
+    static PasswordStatsReporter to(final PrintStream out) {
+        return snapshot -> out.println(snapshot);
+    }
+}
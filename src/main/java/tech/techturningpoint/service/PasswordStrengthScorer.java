@@ -0,0 +1,491 @@
+package tech.techturningpoint.service;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Estimation de la force d'un mot de passe en bits (log2 du nombre d'essais pour le deviner), sans regex.
+ *
+ * Le mot de passe est découpé en segments de coût minimal (programmation dynamique sur les positions).
+ * Chaque segment est soit un caractère deviné par force brute, soit un motif :
+ * <ul>
+ *     <li>suite d'un même caractère ("aaaa") ;</li>
+ *     <li>suite alphabétique ou numérique, croissante ou décroissante ("abcd", "4321") ;</li>
+ *     <li>marche sur un clavier QWERTY ou AZERTY, majuscules comprises ("qwerty", "azer", "1qaz") ;</li>
+ *     <li>mot du dictionnaire, sans tenir compte de la casse, coûtant log2 de son rang.</li>
+ * </ul>
+ * Toutes les constantes viennent de tables précalculées : classe et taille d'alphabet de chaque caractère,
+ * adjacence des touches, empreintes 64 bits des mots du dictionnaire (comparées par hachage incrémental,
+ * sans extraire de sous-chaîne). Une instance est immuable et thread-safe.
+ */
+public final class PasswordStrengthScorer {
+
+    /**
+     * Longueur minimale d'un motif (suite, marche clavier, mot du dictionnaire).
+     */
+    static final int MIN_PATTERN_LENGTH = 3;
+
+    /**
+     * Longueur maximale d'un mot du dictionnaire ; les mots plus longs sont ignorés.
+     */
+    static final int MAX_WORD_LENGTH = 32;
+
+    /**
+     * Bornes des niveaux 1 à 4 de {@link #level(double)}, en bits : 10^3, 10^6, 10^8 et 10^10 essais.
+     */
+    private static final double[] LEVEL_BITS = {log2(1e3), log2(1e6), log2(1e8), log2(1e10)};
+
+    private static final int UPPER = 0;
+    private static final int LOWER = 1;
+    private static final int DIGIT = 2;
+    private static final int SPECIAL = 3;
+    private static final int OTHER = 4;
+
+    /**
+     * Taille d'alphabet de chaque classe ; OTHER est une estimation pour les caractères non ASCII.
+     */
+    private static final int[] POOL_SIZES = {26, 26, 10, 33, 100};
+
+    /**
+     * Classe de chaque caractère ASCII, OTHER au-delà.
+     */
+    private static final byte[] ASCII_CLASSES = new byte[128];
+
+    /**
+     * Bits par caractère deviné par force brute, pour chaque combinaison de classes présentes.
+     */
+    private static final double[] BRUTE_FORCE_BITS = new double[1 << POOL_SIZES.length];
+
+    /**
+     * log2 des petits entiers, pour les longueurs de motifs.
+     */
+    private static final double[] LOG2 = new double[256];
+
+    /**
+     * Longueur maximale des mots de passe dont les tableaux de travail sont gardés par thread :
+     * au-delà, ils sont alloués pour l'appel et libérés ensuite.
+     */
+    private static final int SCRATCH_LENGTH = 128;
+
+    /**
+     * Tableaux de travail de la programmation dynamique, réutilisés par thread.
+     */
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(() -> new Scratch(SCRATCH_LENGTH));
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    static {
+        Arrays.fill(ASCII_CLASSES, (byte) SPECIAL);
+        for (char c = 'A'; c <= 'Z'; c++) {
+            ASCII_CLASSES[c] = UPPER;
+        }
+        for (char c = 'a'; c <= 'z'; c++) {
+            ASCII_CLASSES[c] = LOWER;
+        }
+        for (char c = '0'; c <= '9'; c++) {
+            ASCII_CLASSES[c] = DIGIT;
+        }
+        for (char c = 0; c < ' '; c++) {
+            ASCII_CLASSES[c] = OTHER;
+        }
+        ASCII_CLASSES[127] = OTHER;
+        for (int mask = 1; mask < BRUTE_FORCE_BITS.length; mask++) {
+            int pool = 0;
+            for (int c = 0; c < POOL_SIZES.length; c++) {
+                if ((mask & (1 << c)) != 0) {
+                    pool += POOL_SIZES[c];
+                }
+            }
+            BRUTE_FORCE_BITS[mask] = log2(pool);
+        }
+        for (int i = 1; i < LOG2.length; i++) {
+            LOG2[i] = log2(i);
+        }
+    }
+
+    /**
+     * Empreintes des mots du dictionnaire en adressage ouvert (0 = case vide) et coût en bits de chacun.
+     */
+    private final long[] wordHashes;
+    private final float[] wordBits;
+    private final int wordCount;
+    private final int maxWordLength;
+
+    private PasswordStrengthScorer(final Iterator<String> rankedWords) {
+        long[] hashes = new long[1 << 10];
+        float[] bits = new float[hashes.length];
+        int count = 0;
+        int longest = 0;
+        int rank = 0;
+        while (rankedWords.hasNext()) {
+            String word = rankedWords.next();
+            rank++;
+            if (word.length() < MIN_PATTERN_LENGTH || word.length() > MAX_WORD_LENGTH) {
+                continue;
+            }
+            if (2 * (count + 1) > hashes.length) {
+                long[] oldHashes = hashes;
+                float[] oldBits = bits;
+                hashes = new long[oldHashes.length * 2];
+                bits = new float[hashes.length];
+                for (int i = 0; i < oldHashes.length; i++) {
+                    if (oldHashes[i] != 0) {
+                        insert(hashes, bits, oldHashes[i], oldBits[i]);
+                    }
+                }
+            }
+            if (insert(hashes, bits, hash(word), (float) log2(rank))) {
+                count++;
+                longest = Math.max(longest, word.length());
+            }
+        }
+        wordHashes = hashes;
+        wordBits = bits;
+        wordCount = count;
+        maxWordLength = longest;
+    }
+
+    /**
+     * Construit le moteur à partir d'un dictionnaire classé, du plus courant au moins courant
+     * (par exemple 10k_most_common.txt) : le mot de rang r coûte log2(r) bits.
+     * @param rankedWords mots de passe courants, un par élément, dans l'ordre de fréquence
+     * @return moteur de score
+     */
+    public static PasswordStrengthScorer of(final Stream<String> rankedWords) {
+        return new PasswordStrengthScorer(rankedWords.iterator());
+    }
+
+    /**
+     * @return nombre de mots distincts (sans la casse) dans le dictionnaire
+     */
+    public int dictionarySize() {
+        return wordCount;
+    }
+
+    /**
+     * Force estimée du mot de passe, en temps linéaire : les longueurs des suites et des marches sont
+     * calculées en une passe de droite à gauche, et chaque motif n'est essayé que jusqu'à
+     * {@link #MAX_WORD_LENGTH} caractères et sur toute sa longueur.
+     * @param password mot de passe
+     * @return log2 du nombre d'essais estimé, 0 pour un mot de passe vide
+     */
+    public double entropy(final CharSequence password) {
+        int n = password.length();
+        if (n == 0) {
+            return 0;
+        }
+        Scratch scratch = n < SCRATCH_LENGTH ? SCRATCH.get() : new Scratch(n + 1);
+        double[] best = scratch.best;
+        int[] runs = scratch.runs;
+        int[] sequences = scratch.sequences;
+        int[] walks = scratch.walks;
+
+        // longueurs des motifs commençant en i, à partir de celles commençant en i + 1
+        int classes = 1 << classOf(password.charAt(n - 1));
+        runs[n - 1] = 1;
+        sequences[n - 1] = 1;
+        walks[n - 1] = 1;
+        int nextStep = 0;
+        for (int i = n - 2; i >= 0; i--) {
+            char c = password.charAt(i);
+            char next = password.charAt(i + 1);
+            classes |= 1 << classOf(c);
+            runs[i] = c == next ? runs[i + 1] + 1 : 1;
+            int step = sequenceStep(c, next);
+            sequences[i] = step == 0 ? 1 : step == nextStep ? sequences[i + 1] + 1 : 2;
+            nextStep = step;
+            walks[i] = KeyboardLayouts.adjacent(c, next) ? walks[i + 1] + 1 : 1;
+        }
+
+        double charBits = BRUTE_FORCE_BITS[classes];
+        best[0] = 0;
+        for (int j = 1; j <= n; j++) {
+            best[j] = Double.MAX_VALUE;
+        }
+        for (int i = 0; i < n; i++) {
+            double base = best[i];
+            relax(best, i + 1, base + charBits);
+            double classBits = LOG2[POOL_SIZES[classOf(password.charAt(i))]];
+
+            int run = runs[i];
+            for (int k = MIN_PATTERN_LENGTH; k <= run; k = nextLength(k, run)) {
+                relax(best, i + k, base + classBits + log2Length(k));
+            }
+
+            int sequence = sequences[i];
+            for (int k = MIN_PATTERN_LENGTH; k <= sequence; k = nextLength(k, sequence)) {
+                // un bit pour le sens de la suite
+                relax(best, i + k, base + classBits + 1 + log2Length(k));
+            }
+
+            int walk = walks[i];
+            for (int k = MIN_PATTERN_LENGTH; k <= walk; k = nextLength(k, walk)) {
+                relax(best, i + k, base + KeyboardLayouts.START_BITS + (k - 1) * KeyboardLayouts.STEP_BITS);
+            }
+
+            long h = FNV_OFFSET;
+            int end = Math.min(n, i + maxWordLength);
+            for (int j = i; j < end; j++) {
+                h = (h ^ Character.toLowerCase(password.charAt(j))) * FNV_PRIME;
+                if (j + 1 - i >= MIN_PATTERN_LENGTH) {
+                    int slot = find(h == 0 ? 1 : h);
+                    if (slot >= 0) {
+                        relax(best, j + 1, base + wordBits[slot] + caseBits(password, i, j + 1));
+                    }
+                }
+            }
+        }
+        return best[n];
+    }
+
+    /**
+     * Niveau de force, sur le modèle des seuils usuels en nombre d'essais.
+     * @param bits force issue de {@link #entropy(CharSequence)}
+     * @return 0 (moins de 10^3 essais) à 4 (au moins 10^10 essais)
+     */
+    public static int level(final double bits) {
+        int level = 0;
+        while (level < LEVEL_BITS.length && bits >= LEVEL_BITS[level]) {
+            level++;
+        }
+        return level;
+    }
+
+    /**
+     * @param password mot de passe
+     * @return niveau de force de 0 à 4, voir {@link #level(double)}
+     */
+    public int score(final CharSequence password) {
+        return level(entropy(password));
+    }
+
+    private static void relax(final double[] best, final int position, final double bits) {
+        if (bits < best[position]) {
+            best[position] = bits;
+        }
+    }
+
+    private static int classOf(final char c) {
+        return c < 128 ? ASCII_CLASSES[c] : OTHER;
+    }
+
+    private static double log2Length(final int length) {
+        return length < LOG2.length ? LOG2[length] : log2(length);
+    }
+
+    /**
+     * Longueur suivante d'un motif à essayer : toutes jusqu'à {@link #MAX_WORD_LENGTH}, puis la longueur
+     * totale seulement, pour qu'un long motif ne coûte pas un nombre quadratique d'essais.
+     */
+    private static int nextLength(final int k, final int length) {
+        return k < MAX_WORD_LENGTH || k == length ? k + 1 : length;
+    }
+
+    /**
+     * @return +1 ou -1 si next suit c dans une même classe (lettres ou chiffres), 0 sinon
+     */
+    private static int sequenceStep(final char c, final char next) {
+        int cls = classOf(c);
+        if ((cls != UPPER && cls != LOWER && cls != DIGIT) || classOf(next) != cls) {
+            return 0;
+        }
+        int delta = next - c;
+        return delta == 1 || delta == -1 ? delta : 0;
+    }
+
+    /**
+     * Variantes de casse d'un mot du dictionnaire : 0 bit en minuscules, 1 bit pour une capitale initiale
+     * ou tout en capitales, sinon log2 du nombre de façons de placer les capitales.
+     */
+    private static double caseBits(final CharSequence password, final int from, final int to) {
+        int upper = 0;
+        int lower = 0;
+        for (int i = from; i < to; i++) {
+            char c = password.charAt(i);
+            if (Character.isUpperCase(c)) {
+                upper++;
+            } else if (Character.isLowerCase(c)) {
+                lower++;
+            }
+        }
+        if (upper == 0) {
+            return 0;
+        }
+        if (lower == 0 || (upper == 1 && Character.isUpperCase(password.charAt(from)))) {
+            return 1;
+        }
+        int letters = upper + lower;
+        double variants = 0;
+        double binomial = 1;
+        for (int k = 1; k <= Math.min(upper, lower); k++) {
+            binomial = binomial * (letters - k + 1) / k;
+            variants += binomial;
+        }
+        return log2(variants);
+    }
+
+    private int find(final long hash) {
+        int mask = wordHashes.length - 1;
+        for (int slot = (int) (hash ^ (hash >>> 32)) & mask; ; slot = (slot + 1) & mask) {
+            long h = wordHashes[slot];
+            if (h == hash) {
+                return slot;
+            }
+            if (h == 0) {
+                return -1;
+            }
+        }
+    }
+
+    /**
+     * @return false si le mot (ou un mot de même empreinte) est déjà présent avec un meilleur rang
+     */
+    private static boolean insert(final long[] hashes, final float[] bits, final long hash, final float cost) {
+        int mask = hashes.length - 1;
+        for (int slot = (int) (hash ^ (hash >>> 32)) & mask; ; slot = (slot + 1) & mask) {
+            if (hashes[slot] == hash) {
+                return false;
+            }
+            if (hashes[slot] == 0) {
+                hashes[slot] = hash;
+                bits[slot] = cost;
+                return true;
+            }
+        }
+    }
+
+    private static long hash(final String word) {
+        long h = FNV_OFFSET;
+        for (int i = 0; i < word.length(); i++) {
+            h = (h ^ Character.toLowerCase(word.charAt(i))) * FNV_PRIME;
+        }
+        return h == 0 ? 1 : h;
+    }
+
+    private static double log2(final double x) {
+        return Math.log(x) / Math.log(2);
+    }
+
+    /**
+     * Adjacence des touches des claviers QWERTY et AZERTY, pour les caractères Latin-1.
+     * Les rangées sont décalées d'une demi-touche : deux touches sont voisines sur une même rangée
+     * à deux demi-touches d'écart, et sur deux rangées consécutives à une demi-touche d'écart.
+     */
+    static final class KeyboardLayouts {
+
+        private static final int CHARS = 256;
+
+        /**
+         * Pour chaque caractère, un bit par caractère voisin (4 longs de 64 bits).
+         */
+        private static final long[] ADJACENT = new long[CHARS * 4];
+
+        /**
+         * Bits du premier caractère d'une marche : log2 du nombre de caractères placés sur un clavier.
+         */
+        static final double START_BITS;
+
+        /**
+         * Bits de chaque pas d'une marche : log2 du nombre moyen de touches voisines d'une touche sur un clavier.
+         * Majuscules et dispositions sont confondues : on compte les touches, pas les caractères.
+         */
+        static final double STEP_BITS;
+
+        static {
+            // Rangées sans Maj puis avec Maj, et décalage en demi-touches de chaque rangée
+            long[] neighbours = new long[2];
+            layout(neighbours, new int[]{0, 3, 4, 5},
+                    "`1234567890-=", "~!@#$%^&*()_+",
+                    "qwertyuiop[]\\", "QWERTYUIOP{}|",
+                    "asdfghjkl;'", "ASDFGHJKL:\"",
+                    "zxcvbnm,./", "ZXCVBNM<>?");
+            layout(neighbours, new int[]{0, 3, 4, 3},
+                    "\u00b2&\u00e9\"'(-\u00e8_\u00e7\u00e0)=", "\u00b21234567890\u00b0+",
+                    "azertyuiop^$", "AZERTYUIOP\u00a8\u00a3",
+                    "qsdfghjklm\u00f9*", "QSDFGHJKLM%\u00b5",
+                    "<wxcvbn,;:!", ">WXCVBN?./\u00a7");
+            int keys = 0;
+            for (int c = 0; c < CHARS; c++) {
+                for (int w = 0; w < 4; w++) {
+                    if (ADJACENT[c * 4 + w] != 0) {
+                        keys++;
+                        break;
+                    }
+                }
+            }
+            START_BITS = log2(keys);
+            STEP_BITS = log2((double) neighbours[1] / neighbours[0]);
+        }
+
+        private KeyboardLayouts() {
+        }
+
+        /**
+         * @param neighbours cumule le nombre de touches puis le nombre de couples de touches voisines
+         */
+        private static void layout(final long[] neighbours, final int[] offsets, final String... rows) {
+            for (int r = 0; r < offsets.length; r++) {
+                neighbours[0] += rows[2 * r].length();
+                for (int s = 0; s < 2; s++) {
+                    String row = rows[2 * r + s];
+                    for (int k = 0; k < row.length(); k++) {
+                        int keys = link(offsets, rows, r, k, row.charAt(k));
+                        if (s == 0) {
+                            neighbours[1] += keys;
+                        }
+                    }
+                }
+            }
+        }
+
+        /**
+         * @return nombre de touches voisines de la touche (r, k)
+         */
+        private static int link(final int[] offsets, final String[] rows, final int r, final int k, final char c) {
+            int x = offsets[r] + 2 * k;
+            int keys = 0;
+            for (int r2 = Math.max(0, r - 1); r2 <= Math.min(offsets.length - 1, r + 1); r2++) {
+                for (int k2 = 0; k2 < rows[2 * r2].length(); k2++) {
+                    int dx = Math.abs(offsets[r2] + 2 * k2 - x);
+                    if (r2 == r ? dx == 2 : dx == 1) {
+                        keys++;
+                        for (int s = 0; s < 2; s++) {
+                            char other = rows[2 * r2 + s].charAt(k2);
+                            ADJACENT[c * 4 + (other >>> 6)] |= 1L << (other & 63);
+                        }
+                    }
+                }
+            }
+            return keys;
+        }
+
+        /**
+         * @param a caractère
+         * @param b caractère
+         * @return true si les deux caractères sont sur des touches voisines d'un même clavier
+         */
+        static boolean adjacent(final char a, final char b) {
+            return a < CHARS && b < CHARS && (ADJACENT[a * 4 + (b >>> 6)] & (1L << (b & 63))) != 0;
+        }
+    }
+
+    /**
+     * Tableaux de travail de {@link #entropy(CharSequence)} : coût minimal de chaque préfixe,
+     * longueurs des suites d'un même caractère, des suites alphabétiques et des marches clavier.
+     */
+    private static final class Scratch {
+        final double[] best;
+        final int[] runs;
+        final int[] sequences;
+        final int[] walks;
+
+        Scratch(final int length) {
+            best = new double[length];
+            runs = new int[length];
+            sequences = new int[length];
+            walks = new int[length];
+        }
+    }
+}
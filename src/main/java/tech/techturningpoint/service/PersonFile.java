@@ -0,0 +1,511 @@
+package tech.techturningpoint.service;
+
+import tech.techturningpoint.model.Artiste;
+import tech.techturningpoint.model.Person;
+import tech.techturningpoint.model.PersonStore;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.RandomAccess;
+
+/**
+ * Format binaire versionné d'une population de personnes, lu par projection en mémoire.
+ *
+ * Le fichier est écrit en colonnes (voir {@link PersonStore}) :
+ * <ul>
+ *     <li>en-tête : magic, version et tailles ;</li>
+ *     <li>dictionnaire de chaînes (noms, sexes, noms d'artistes) : décalages puis octets UTF-8 ;</li>
+ *     <li>âges compactés sur 1, 2 ou 4 octets à partir de l'âge minimal, sexe codé sur un octet ;</li>
+ *     <li>nom et chef de chaque personne, le chef étant l'indice d'une autre personne ;</li>
+ *     <li>playlists aplaties (décalages et identifiants d'artistes), artistes distincts (nom, classement).</li>
+ * </ul>
+ * Le lecteur projette chaque section sans rien décoder : les accesseurs lisent les colonnes à la demande
+ * et {@link #get(int)} ne construit que la personne demandée (et la chaîne de ses chefs).
+ * Pour parcourir toute la population en objets, {@link #readAll()} construit chaque personne une seule fois.
+ * Une playlist null est relue vide.
+ */
+public final class PersonFile extends AbstractList<Person> implements RandomAccess {
+
+    private static final int MAGIC = 0x50455253;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 10 * Integer.BYTES;
+
+    /**
+     * Identifiant d'une chaîne null, d'un sexe absent ou d'un chef absent.
+     */
+    public static final int NONE = -1;
+
+    private final int size;
+    private final int[] sexStrings;
+    private final IntBuffer stringOffsets;
+    private final ByteBuffer stringData;
+    private final ByteBuffer ages;
+    private final int ageBase;
+    private final int ageWidth;
+    private final ByteBuffer sexes;
+    private final IntBuffer names;
+    private final IntBuffer chefs;
+    private final IntBuffer playlistOffsets;
+    private final IntBuffer playlistArtists;
+    private final IntBuffer artistNames;
+    private final DoubleBuffer artistRankings;
+
+    private PersonFile(final Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE) {
+                throw new IOException("Fichier de personnes invalide : " + path);
+            }
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+            if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+                throw new IOException("Fichier de personnes invalide : " + path);
+            }
+            size = header.getInt();
+            int stringCount = header.getInt();
+            int sexCount = header.getInt();
+            int artistCount = header.getInt();
+            int entryCount = header.getInt();
+            ageBase = header.getInt();
+            ageWidth = header.getInt();
+            int stringDataLength = header.getInt();
+            if ((size | stringCount | sexCount | artistCount | entryCount | stringDataLength) < 0
+                    || sexCount > Byte.MAX_VALUE || ageWidth != 1 && ageWidth != 2 && ageWidth != 4) {
+                throw new IOException("Fichier de personnes invalide : " + path);
+            }
+
+            Sections sections = new Sections(channel, path, HEADER_SIZE);
+            IntBuffer sexIds = sections.map((long) sexCount * Integer.BYTES).asIntBuffer();
+            sexStrings = new int[sexCount];
+            sexIds.get(sexStrings);
+            stringOffsets = sections.map(((long) stringCount + 1) * Integer.BYTES).asIntBuffer();
+            stringData = sections.map(stringDataLength);
+            ages = sections.map((long) size * ageWidth);
+            sexes = sections.map(size);
+            names = sections.map((long) size * Integer.BYTES).asIntBuffer();
+            chefs = sections.map((long) size * Integer.BYTES).asIntBuffer();
+            playlistOffsets = sections.map(((long) size + 1) * Integer.BYTES).asIntBuffer();
+            playlistArtists = sections.map((long) entryCount * Integer.BYTES).asIntBuffer();
+            artistNames = sections.map((long) artistCount * Integer.BYTES).asIntBuffer();
+            artistRankings = sections.map((long) artistCount * Double.BYTES).asDoubleBuffer();
+        }
+    }
+
+    /**
+     * Projette un fichier écrit par {@link #write(Path, Collection)}. Le fichier peut être fermé
+     * ou déplacé ensuite ; il ne doit pas être modifié tant que le lecteur est utilisé.
+     * @param path fichier de personnes
+     * @return lecteur
+     * @throws IOException si le fichier est illisible, tronqué ou n'est pas un fichier de personnes
+     */
+    public static PersonFile open(final Path path) throws IOException {
+        return new PersonFile(path);
+    }
+
+    /**
+     * Ecrit une population. Les chefs, directs ou non, qui n'en font pas partie sont ajoutés à la fin.
+     * @param path fichier à écrire
+     * @param persons personnes
+     * @throws IOException en cas d'erreur d'écriture
+     */
+    public static void write(final Path path, final Collection<Person> persons) throws IOException {
+        Map<Person, Integer> ids = new IdentityHashMap<>();
+        List<Person> numbered = new ArrayList<>(persons.size());
+        for (Person person : persons) {
+            if (!ids.containsKey(person)) {
+                ids.put(person, numbered.size());
+                numbered.add(person);
+            }
+        }
+        for (int i = 0; i < numbered.size(); i++) {
+            Person chef = chefOf(numbered.get(i));
+            if (chef != null && !ids.containsKey(chef)) {
+                ids.put(chef, numbered.size());
+                numbered.add(chef);
+            }
+        }
+        PersonStore store = PersonStore.of(numbered);
+        int size = store.size();
+
+        StringDictionary strings = new StringDictionary();
+        int[] sexIds = new int[store.sexCount()];
+        for (int code = 0; code < sexIds.length; code++) {
+            sexIds[code] = strings.id(store.getSex(code));
+        }
+        int[] nameIds = new int[store.nameCount()];
+        for (int nameId = 0; nameId < nameIds.length; nameId++) {
+            nameIds[nameId] = strings.id(store.getName(nameId));
+        }
+        int[] artistIds = new int[store.artistCount()];
+        for (int artistId = 0; artistId < artistIds.length; artistId++) {
+            artistIds[artistId] = strings.id(store.getArtistName(artistId));
+        }
+
+        int minAge = size == 0 ? 0 : store.getAge(0);
+        int maxAge = minAge;
+        for (int i = 1; i < size; i++) {
+            minAge = Math.min(minAge, store.getAge(i));
+            maxAge = Math.max(maxAge, store.getAge(i));
+        }
+        long ageRange = (long) maxAge - minAge;
+        int ageWidth = ageRange < 1 << 8 ? 1 : ageRange < 1 << 16 ? 2 : 4;
+        int entryCount = size == 0 ? 0 : store.playlistEnd(size - 1);
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(size);
+            out.writeInt(strings.size());
+            out.writeInt(sexIds.length);
+            out.writeInt(artistIds.length);
+            out.writeInt(entryCount);
+            out.writeInt(minAge);
+            out.writeInt(ageWidth);
+            out.writeInt(strings.dataLength());
+            for (int sexId : sexIds) {
+                out.writeInt(sexId);
+            }
+            strings.write(out);
+            for (int i = 0; i < size; i++) {
+                int packed = store.getAge(i) - minAge;
+                if (ageWidth == 1) {
+                    out.writeByte(packed);
+                } else if (ageWidth == 2) {
+                    out.writeShort(packed);
+                } else {
+                    out.writeInt(packed);
+                }
+            }
+            for (int i = 0; i < size; i++) {
+                out.writeByte(store.getSexCode(i));
+            }
+            for (int i = 0; i < size; i++) {
+                out.writeInt(nameIds[store.getNameId(i)]);
+            }
+            for (int i = 0; i < size; i++) {
+                Person chef = store.getChef(i);
+                out.writeInt(chef == null ? NONE : ids.get(chef));
+            }
+            for (int i = 0; i <= size; i++) {
+                out.writeInt(i == 0 ? 0 : store.playlistEnd(i - 1));
+            }
+            for (int entry = 0; entry < entryCount; entry++) {
+                out.writeInt(store.getArtistId(entry));
+            }
+            for (int artistId : artistIds) {
+                out.writeInt(artistId);
+            }
+            for (int artistId = 0; artistId < artistIds.length; artistId++) {
+                out.writeDouble(store.getArtistRanking(artistId));
+            }
+        }
+    }
+
+    private static Person chefOf(final Person person) {
+        return person.chef == null ? null : person.chef.orElse(null);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Construit la personne, son chef et les chefs de celui-ci. Chaque appel crée de nouvelles instances :
+     * parcourir la liste reconstruit la chaîne des chefs de chaque personne, préférer alors {@link #readAll()}
+     * qui partage chefs et artistes.
+     * @param index indice de la personne
+     * @return personne
+     */
+    @Override
+    public Person get(final int index) {
+        // Longueur de la chaîne et début d'un éventuel cycle (algorithme de Brent), sans mémoriser les indices
+        long power = 1;
+        int lambda = 1;
+        int tortoise = index;
+        int hare = getChefIndex(index);
+        while (hare != NONE && hare != tortoise) {
+            if (power == lambda) {
+                tortoise = hare;
+                power *= 2;
+                lambda = 0;
+            }
+            hare = getChefIndex(hare);
+            lambda++;
+        }
+        int length;
+        int cycleStart = NONE;
+        if (hare == NONE) {
+            length = 1;
+            for (int chef = getChefIndex(index); chef != NONE; chef = getChefIndex(chef)) {
+                length++;
+            }
+        } else {
+            tortoise = index;
+            hare = index;
+            for (int i = 0; i < lambda; i++) {
+                hare = getChefIndex(hare);
+            }
+            cycleStart = 0;
+            while (tortoise != hare) {
+                tortoise = getChefIndex(tortoise);
+                hare = getChefIndex(hare);
+                cycleStart++;
+            }
+            length = cycleStart + lambda;
+        }
+
+        Person[] chain = new Person[length];
+        int current = index;
+        for (int i = 0; i < length; i++) {
+            chain[i] = newPerson(current, null);
+            if (i > 0) {
+                chain[i - 1].chef = Optional.of(chain[i]);
+            }
+            current = getChefIndex(current);
+        }
+        if (cycleStart != NONE) {
+            // Cycle hiérarchique : reproduit tel quel
+            chain[length - 1].chef = Optional.of(chain[cycleStart]);
+        }
+        return chain[0];
+    }
+
+    /**
+     * Construit toute la population : les chefs sont partagés et chaque artiste n'est créé qu'une fois.
+     * @return personnes, dans l'ordre du fichier
+     */
+    public List<Person> readAll() {
+        Artiste[] artists = new Artiste[artistCount()];
+        List<Person> persons = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            persons.add(newPerson(i, artists));
+        }
+        for (int i = 0; i < size; i++) {
+            int chef = getChefIndex(i);
+            if (chef != NONE) {
+                persons.get(i).chef = Optional.of(persons.get(chef));
+            }
+        }
+        return persons;
+    }
+
+    /**
+     * @param index indice de la personne
+     * @param artists artistes déjà créés, par identifiant ; null pour en créer de nouveaux
+     */
+    private Person newPerson(final int index, final Artiste[] artists) {
+        Person person = new Person(getNom(index), getAge(index), getSex(index));
+        int start = playlistStart(index);
+        int end = playlistEnd(index);
+        person.dansMonIpod = new ArrayList<>(end - start);
+        for (int entry = start; entry < end; entry++) {
+            int artistId = getArtistId(entry);
+            Artiste artiste = artists == null ? null : artists[artistId];
+            if (artiste == null) {
+                artiste = new Artiste(getArtistName(artistId), getArtistRanking(artistId));
+                if (artists != null) {
+                    artists[artistId] = artiste;
+                }
+            }
+            person.dansMonIpod.add(artiste);
+        }
+        return person;
+    }
+
+    /**
+     * @param id identifiant de chaîne
+     * @return chaîne décodée, null pour {@link #NONE}
+     */
+    public String getString(final int id) {
+        if (id == NONE) {
+            return null;
+        }
+        int start = stringOffsets.get(id);
+        byte[] bytes = new byte[stringOffsets.get(id + 1) - start];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = stringData.get(start + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @param index indice de la personne
+     * @return âge
+     */
+    public int getAge(final int index) {
+        if (ageWidth == 1) {
+            return ageBase + (ages.get(index) & 0xFF);
+        }
+        if (ageWidth == 2) {
+            return ageBase + (ages.getShort(index * 2) & 0xFFFF);
+        }
+        return ageBase + ages.getInt(index * 4);
+    }
+
+    /**
+     * @param index indice de la personne
+     * @return sexe, null s'il est absent
+     */
+    public String getSex(final int index) {
+        byte code = sexes.get(index);
+        return code == PersonStore.NO_SEX ? null : getString(sexStrings[code]);
+    }
+
+    /**
+     * @param index indice de la personne
+     * @return identifiant de chaîne du nom
+     */
+    public int getNameId(final int index) {
+        return names.get(index);
+    }
+
+    /**
+     * @param index indice de la personne
+     * @return nom
+     */
+    public String getNom(final int index) {
+        return getString(names.get(index));
+    }
+
+    /**
+     * @param index indice de la personne
+     * @return indice de son chef, {@link #NONE} s'il n'en a pas
+     */
+    public int getChefIndex(final int index) {
+        return chefs.get(index);
+    }
+
+    /**
+     * @param index indice de la personne
+     * @return première entrée de sa playlist
+     */
+    public int playlistStart(final int index) {
+        return playlistOffsets.get(index);
+    }
+
+    /**
+     * @param index indice de la personne
+     * @return fin (exclue) de sa playlist
+     */
+    public int playlistEnd(final int index) {
+        return playlistOffsets.get(index + 1);
+    }
+
+    /**
+     * @param entry entrée de playlist
+     * @return identifiant de l'artiste
+     */
+    public int getArtistId(final int entry) {
+        return playlistArtists.get(entry);
+    }
+
+    /**
+     * @return nombre d'artistes distincts (nom et classement)
+     */
+    public int artistCount() {
+        return artistRankings.limit();
+    }
+
+    /**
+     * @param artistId identifiant de l'artiste
+     * @return nom de l'artiste
+     */
+    public String getArtistName(final int artistId) {
+        return getString(artistNames.get(artistId));
+    }
+
+    /**
+     * @param artistId identifiant de l'artiste
+     * @return classement de l'artiste
+     */
+    public double getArtistRanking(final int artistId) {
+        return artistRankings.get(artistId);
+    }
+
+    /**
+     * Projection successive des sections du fichier, chacune limitée à 2 Go.
+     */
+    private static final class Sections {
+        private final FileChannel channel;
+        private final Path path;
+        private long position;
+
+        Sections(final FileChannel channel, final Path path, final long position) {
+            this.channel = channel;
+            this.path = path;
+            this.position = position;
+        }
+
+        ByteBuffer map(final long length) throws IOException {
+            if (length < 0 || length > Integer.MAX_VALUE || position + length > channel.size()) {
+                throw new IOException("Fichier de personnes tronqué ou section trop grande : " + path);
+            }
+            ByteBuffer section = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+            position += length;
+            return section;
+        }
+    }
+
+    /**
+     * Dictionnaire de chaînes en cours d'écriture, encodées en UTF-8.
+     */
+    private static final class StringDictionary {
+        private final Map<String, Integer> ids = new HashMap<>();
+        private final List<byte[]> values = new ArrayList<>();
+        private long dataLength;
+
+        int id(final String value) {
+            if (value == null) {
+                return NONE;
+            }
+            Integer id = ids.get(value);
+            if (id == null) {
+                id = values.size();
+                ids.put(value, id);
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                values.add(bytes);
+                dataLength += bytes.length;
+                if (dataLength > Integer.MAX_VALUE) {
+                    throw new IllegalArgumentException("Dictionnaire de chaînes supérieur à 2 Go");
+                }
+            }
+            return id;
+        }
+
+        int size() {
+            return values.size();
+        }
+
+        int dataLength() {
+            return (int) dataLength;
+        }
+
+        void write(final DataOutputStream out) throws IOException {
+            int offset = 0;
+            out.writeInt(offset);
+            for (byte[] value : values) {
+                offset += value.length;
+                out.writeInt(offset);
+            }
+            for (byte[] value : values) {
+                out.write(value);
+            }
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package tech.techturningpoint.service;
+
+import tech.techturningpoint.model.Artiste;
+import tech.techturningpoint.model.Person;
+
+import java.util.HashMap;
+import java.util.IntSummaryStatistics;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Collector;
+
+/**
+ * Résumé des statistiques d'âge d'une population, calculé en un seul parcours.
+ *
+ * Contient les statistiques globales (nombre, somme, min, max), par sexe, par initiale du nom
+ * et le nombre d'auditeurs d'artistes très populaires. Les résumés partiels se fusionnent,
+ * ce qui permet de les calculer sur un Stream parallèle avec {@link #collector()}.
+ */
+public final class PersonStatsSummary implements Consumer<Person> {
+
+    /**
+     * Classement maximal d'un artiste très populaire.
+     */
+    static final double MAINSTREAM_RANKING = 10;
+
+    private final IntSummaryStatistics ages = new IntSummaryStatistics();
+    private final Map<String, IntSummaryStatistics> agesBySex = new HashMap<>();
+    private final Map<Character, IntSummaryStatistics> agesByInitial = new HashMap<>();
+    private long mainstreamListeners;
+
+    /**
+     * @return collecteur du résumé, utilisable sur un Stream parallèle
+     */
+    public static Collector<Person, PersonStatsSummary, PersonStatsSummary> collector() {
+        return Collector.of(
+                PersonStatsSummary::new,
+                PersonStatsSummary::accept,
+                PersonStatsSummary::combine,
+                Collector.Characteristics.IDENTITY_FINISH);
+    }
+
+    /**
+     * Homme : "M" ou "homme" sans tenir compte de la casse.
+     * @param sexe sexe d'une personne
+     * @return true si homme
+     */
+    static boolean isMale(final String sexe) {
+        return "M".equals(sexe) || "homme".equalsIgnoreCase(sexe);
+    }
+
+    /**
+     * Ajoute une personne au résumé.
+     * @param person personne
+     */
+    @Override
+    public void accept(final Person person) {
+        int age = person.getAge();
+        ages.accept(age);
+        agesBySex.computeIfAbsent(person.sexe, k -> new IntSummaryStatistics()).accept(age);
+        if (person.nom != null && !person.nom.isEmpty()) {
+            agesByInitial.computeIfAbsent(person.nom.charAt(0), k -> new IntSummaryStatistics()).accept(age);
+        }
+        if (person.dansMonIpod != null) {
+            for (Artiste artiste : person.dansMonIpod) {
+                if (artiste.classement <= MAINSTREAM_RANKING) {
+                    mainstreamListeners++;
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Fusionne un autre résumé dans celui-ci.
+     * @param other résumé à ajouter
+     * @return this
+     */
+    public PersonStatsSummary combine(final PersonStatsSummary other) {
+        ages.combine(other.ages);
+        other.agesBySex.forEach((sexe, stats) ->
+                agesBySex.computeIfAbsent(sexe, k -> new IntSummaryStatistics()).combine(stats));
+        other.agesByInitial.forEach((initial, stats) ->
+                agesByInitial.computeIfAbsent(initial, k -> new IntSummaryStatistics()).combine(stats));
+        mainstreamListeners += other.mainstreamListeners;
+        return this;
+    }
+
+    /**
+     * @return statistiques d'âge de toute la population (copie)
+     */
+    public IntSummaryStatistics getAgeStatistics() {
+        return copy(ages);
+    }
+
+    /**
+     * @return statistiques d'âge par sexe (copies)
+     */
+    public Map<String, IntSummaryStatistics> getAgeStatisticsBySex() {
+        Map<String, IntSummaryStatistics> copies = new HashMap<>();
+        agesBySex.forEach((sexe, stats) -> copies.put(sexe, copy(stats)));
+        return copies;
+    }
+
+    /**
+     * @return statistiques d'âge par initiale du nom (copies)
+     */
+    public Map<Character, IntSummaryStatistics> getAgeStatisticsByInitial() {
+        Map<Character, IntSummaryStatistics> copies = new HashMap<>();
+        agesByInitial.forEach((initial, stats) -> copies.put(initial, copy(stats)));
+        return copies;
+    }
+
+    /**
+     * @return statistiques d'âge des hommes
+     */
+    public IntSummaryStatistics getMaleAgeStatistics() {
+        IntSummaryStatistics male = new IntSummaryStatistics();
+        agesBySex.forEach((sexe, stats) -> {
+            if (isMale(sexe)) {
+                male.combine(stats);
+            }
+        });
+        return male;
+    }
+
+    /**
+     * @return moyenne des âges (0 si population vide)
+     */
+    public double getAverageAge() {
+        return ages.getAverage();
+    }
+
+    /**
+     * @return moyenne des âges des hommes
+     */
+    public double getAverageAgeMale() {
+        return getMaleAgeStatistics().getAverage();
+    }
+
+    /**
+     * @param initial initiale du nom
+     * @return moyenne des âges des personnes dont le nom commence par cette lettre
+     */
+    public double getAverageAgeByInitial(final char initial) {
+        IntSummaryStatistics stats = agesByInitial.get(initial);
+        return stats == null ? 0.0 : stats.getAverage();
+    }
+
+    /**
+     * @return Map avec la moyenne d'âge en fonction du sexe
+     */
+    public Map<String, Double> getAverageAgeBySex() {
+        Map<String, Double> averages = new HashMap<>();
+        agesBySex.forEach((sexe, stats) -> averages.put(sexe, stats.getAverage()));
+        return averages;
+    }
+
+    /**
+     * @return nombre de personnes qui écoutent un artiste très populaire
+     */
+    public long getMainstreamListenerCount() {
+        return mainstreamListeners;
+    }
+
+    private static IntSummaryStatistics copy(final IntSummaryStatistics stats) {
+        IntSummaryStatistics copy = new IntSummaryStatistics();
+        copy.combine(stats);
+        return copy;
+    }
+
+    @Override
+    public String toString() {
+        return "PersonStatsSummary{" +
+                "ages=" + ages +
+                ", agesBySex=" + agesBySex +
+                ", mainstreamListeners=" + mainstreamListeners +
+                '}';
+    }
+}
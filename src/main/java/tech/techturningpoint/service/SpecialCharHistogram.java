@@ -0,0 +1,101 @@
+package tech.techturningpoint.service;
+
+import java.util.Arrays;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.function.IntConsumer;
+
+/**
+ * Histogramme des positions de caractères spéciaux sur un tableau de long, sans boxing.
+ *
+ * La capacité initiale couvre les 128 positions d'un mot de passe qui n'est pas trop long
+ * ({@link PasswordStats#isNotTooLong}) ; elle augmente si un mot de passe plus long est compté.
+ * Un histogramme n'est pas thread-safe : chaque thread remplit le sien, puis on les fusionne
+ * avec {@link #merge(SpecialCharHistogram)}.
+ */
+public final class SpecialCharHistogram implements IntConsumer {
+
+    /**
+     * Nombre de positions d'un mot de passe de longueur maximale.
+     */
+    public static final int DEFAULT_CAPACITY = 128;
+
+    private long[] counts = new long[DEFAULT_CAPACITY];
+
+    /**
+     * Compte une occurrence de caractère spécial à la position donnée.
+     * @param position position du caractère
+     */
+    @Override
+    public void accept(final int position) {
+        if (position >= counts.length) {
+            counts = Arrays.copyOf(counts, Math.max(position + 1, counts.length * 2));
+        }
+        counts[position]++;
+    }
+
+    /**
+     * @param position position du caractère
+     * @return nombre d'occurrences à cette position
+     */
+    public long get(final int position) {
+        return position < counts.length ? counts[position] : 0L;
+    }
+
+    /**
+     * @return nombre total d'occurrences
+     */
+    public long total() {
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * @return nombre de positions ayant au moins une occurrence
+     */
+    public int positionCount() {
+        int positions = 0;
+        for (long count : counts) {
+            if (count != 0) {
+                positions++;
+            }
+        }
+        return positions;
+    }
+
+    /**
+     * Fusionne un autre histogramme dans celui-ci (addition position par position).
+     * @param other histogramme à ajouter
+     * @return this
+     */
+    public SpecialCharHistogram merge(final SpecialCharHistogram other) {
+        if (other.counts.length > counts.length) {
+            counts = Arrays.copyOf(counts, other.counts.length);
+        }
+        for (int i = 0; i < other.counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+        return this;
+    }
+
+    /**
+     * @return Map triée &lt;Position du char, compte&gt;, sans les positions à zéro
+     */
+    public SortedMap<Integer, Long> toMap() {
+        SortedMap<Integer, Long> map = new TreeMap<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] != 0) {
+                map.put(i, counts[i]);
+            }
+        }
+        return map;
+    }
+
+    @Override
+    public String toString() {
+        return "SpecialCharHistogram" + toMap();
+    }
+}
@@ -0,0 +1,373 @@
+package tech.techturningpoint.service;
+
+import java.util.AbstractCollection;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.stream.Collector;
+import java.util.stream.IntStream;
+
+/**
+ * Index inversé compact des mots de passe par position de caractère spécial.
+ *
+ * Chaque mot de passe distinct est stocké une seule fois dans un pool ; chaque occurrence (ligne) indexée
+ * reçoit un identifiant croissant qui pointe vers le pool. Pour chaque position, la liste des occurrences
+ * est codée en deltas de longueur variable (1 octet pour un écart inférieur à 128).
+ * Les requêtes renvoient des vues paresseuses qui décodent les listes au parcours.
+ */
+public final class SpecialCharPositionIndex {
+
+    private static final int[] EMPTY = new int[0];
+
+    /**
+     * Mots de passe distincts.
+     */
+    private String[] pool;
+
+    /**
+     * Identifiant dans le pool de chaque occurrence.
+     */
+    private int[] occurrences;
+    private int occurrenceCount;
+
+    /**
+     * Listes d'occurrences, indexées par position.
+     */
+    private PostingList[] postings = new PostingList[SpecialCharHistogram.DEFAULT_CAPACITY];
+
+    /**
+     * Table d'internement, libérée à la fin de la construction.
+     */
+    private Map<String, Integer> ids = new HashMap<>();
+
+    private SpecialCharPositionIndex() {
+        pool = new String[64];
+        occurrences = new int[64];
+    }
+
+    /**
+     * Collecteur construisant l'index. Les mots de passe doivent être filtrés par l'appelant
+     * (par exemple avec {@link PasswordStats#hasSpecial}) ; ceux sans caractère spécial sont ignorés.
+     * @return collecteur de l'index, utilisable sur un Stream parallèle
+     */
+    public static Collector<String, ?, SpecialCharPositionIndex> collector() {
+        return Collector.of(
+                SpecialCharPositionIndex::new,
+                SpecialCharPositionIndex::add,
+                SpecialCharPositionIndex::addAll,
+                SpecialCharPositionIndex::seal);
+    }
+
+    private void add(final String password) {
+        int first = PasswordClassifier.indexOfSpecialChar(password, 0);
+        if (first < 0) {
+            return;
+        }
+        Integer id = ids.get(password);
+        if (id == null) {
+            id = ids.size();
+            ids.put(password, id);
+            if (id == pool.length) {
+                pool = Arrays.copyOf(pool, pool.length * 2);
+            }
+            pool[id] = password;
+        }
+        if (occurrenceCount == occurrences.length) {
+            occurrences = Arrays.copyOf(occurrences, occurrences.length * 2);
+        }
+        int occurrence = occurrenceCount++;
+        occurrences[occurrence] = id;
+        for (int i = first; i >= 0; i = PasswordClassifier.indexOfSpecialChar(password, i + 1)) {
+            if (i >= postings.length) {
+                postings = Arrays.copyOf(postings, Math.max(i + 1, postings.length * 2));
+            }
+            if (postings[i] == null) {
+                postings[i] = new PostingList();
+            }
+            postings[i].add(occurrence);
+        }
+    }
+
+    private SpecialCharPositionIndex addAll(final SpecialCharPositionIndex other) {
+        for (int i = 0; i < other.occurrenceCount; i++) {
+            add(other.pool[other.occurrences[i]]);
+        }
+        return this;
+    }
+
+    private SpecialCharPositionIndex seal() {
+        pool = Arrays.copyOf(pool, ids.size());
+        occurrences = Arrays.copyOf(occurrences, occurrenceCount);
+        for (PostingList posting : postings) {
+            if (posting != null) {
+                posting.trim();
+            }
+        }
+        ids = null;
+        return this;
+    }
+
+    /**
+     * @return nombre de mots de passe distincts indexés
+     */
+    public int distinctCount() {
+        return pool.length;
+    }
+
+    /**
+     * @return nombre d'occurrences (lignes) indexées
+     */
+    public int occurrenceCount() {
+        return occurrenceCount;
+    }
+
+    /**
+     * @return positions ayant au moins un caractère spécial, par ordre croissant
+     */
+    public IntStream positions() {
+        return IntStream.range(0, postings.length).filter(i -> postings[i] != null);
+    }
+
+    /**
+     * Mots de passe ayant un caractère spécial à la position donnée, dans l'ordre de lecture.
+     * @param position position du caractère
+     * @return vue paresseuse (une entrée par occurrence)
+     */
+    public Collection<String> getAllWithSpecialCharAt(final int position) {
+        PostingList posting = posting(position);
+        return new AbstractCollection<String>() {
+            @Override
+            public Iterator<String> iterator() {
+                return passwords(posting.iterator());
+            }
+
+            @Override
+            public int size() {
+                return posting.size;
+            }
+        };
+    }
+
+    /**
+     * Mots de passe ayant un caractère spécial à chacune des deux positions, dans l'ordre de lecture.
+     * @param position première position
+     * @param other seconde position
+     * @return vue paresseuse (une entrée par occurrence) ; l'intersection est calculée au parcours
+     */
+    public Collection<String> getAllWithSpecialCharAt(final int position, final int other) {
+        PostingList first = posting(position);
+        PostingList second = posting(other);
+        return new AbstractCollection<String>() {
+            private int size = -1;
+
+            @Override
+            public Iterator<String> iterator() {
+                return passwords(intersection(first.iterator(), second.iterator()));
+            }
+
+            @Override
+            public int size() {
+                if (size < 0) {
+                    int count = 0;
+                    for (PostingIterator it = intersection(first.iterator(), second.iterator()); it.hasNext(); it.next()) {
+                        count++;
+                    }
+                    size = count;
+                }
+                return size;
+            }
+        };
+    }
+
+    /**
+     * Adaptateur vers le format de {@link IPasswordStats#getAllBySpecialCharPosition}.
+     * Les listes sont des vues décodées à la première lecture.
+     * @return Map triée &lt;Position du char, Liste des mots de passe&gt;
+     */
+    public SortedMap<Integer, List<String>> toMap() {
+        SortedMap<Integer, List<String>> map = new TreeMap<>();
+        positions().forEach(position -> map.put(position, new PostingListView(postings[position])));
+        return map;
+    }
+
+    private PostingList posting(final int position) {
+        return position >= 0 && position < postings.length && postings[position] != null
+                ? postings[position] : PostingList.NONE;
+    }
+
+    private Iterator<String> passwords(final PostingIterator occurrenceIds) {
+        return new Iterator<String>() {
+            @Override
+            public boolean hasNext() {
+                return occurrenceIds.hasNext();
+            }
+
+            @Override
+            public String next() {
+                return pool[occurrences[occurrenceIds.next()]];
+            }
+        };
+    }
+
+    private static PostingIterator intersection(final PostingIterator first, final PostingIterator second) {
+        return new PostingIterator() {
+            private int next = advance();
+
+            private int advance() {
+                if (!first.hasNext() || !second.hasNext()) {
+                    return -1;
+                }
+                int a = first.next();
+                int b = second.next();
+                while (a != b) {
+                    if (a < b) {
+                        if (!first.hasNext()) {
+                            return -1;
+                        }
+                        a = first.next();
+                    } else {
+                        if (!second.hasNext()) {
+                            return -1;
+                        }
+                        b = second.next();
+                    }
+                }
+                return a;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next >= 0;
+            }
+
+            @Override
+            public int next() {
+                if (next < 0) {
+                    throw new NoSuchElementException();
+                }
+                int current = next;
+                next = advance();
+                return current;
+            }
+        };
+    }
+
+    /**
+     * Parcours d'identifiants d'occurrences croissants.
+     */
+    private interface PostingIterator {
+        boolean hasNext();
+
+        int next();
+    }
+
+    /**
+     * Liste croissante d'identifiants d'occurrences, codée en deltas de longueur variable.
+     */
+    private static final class PostingList {
+
+        static final PostingList NONE = new PostingList();
+
+        private byte[] bytes = new byte[8];
+        private int length;
+        private int size;
+        private int last = -1;
+
+        void add(final int occurrence) {
+            if (length + 5 > bytes.length) {
+                bytes = Arrays.copyOf(bytes, bytes.length * 2);
+            }
+            int delta = occurrence - last;
+            last = occurrence;
+            while ((delta & ~0x7F) != 0) {
+                bytes[length++] = (byte) (delta & 0x7F | 0x80);
+                delta >>>= 7;
+            }
+            bytes[length++] = (byte) delta;
+            size++;
+        }
+
+        void trim() {
+            bytes = Arrays.copyOf(bytes, length);
+        }
+
+        PostingIterator iterator() {
+            return new PostingIterator() {
+                private int offset;
+                private int current = -1;
+
+                @Override
+                public boolean hasNext() {
+                    return offset < length;
+                }
+
+                @Override
+                public int next() {
+                    if (offset >= length) {
+                        throw new NoSuchElementException();
+                    }
+                    int delta = 0;
+                    int shift = 0;
+                    byte b;
+                    do {
+                        b = bytes[offset++];
+                        delta |= (b & 0x7F) << shift;
+                        shift += 7;
+                    } while (b < 0);
+                    current += delta;
+                    return current;
+                }
+            };
+        }
+
+        int[] toArray() {
+            if (size == 0) {
+                return EMPTY;
+            }
+            int[] ids = new int[size];
+            PostingIterator it = iterator();
+            for (int i = 0; i < size; i++) {
+                ids[i] = it.next();
+            }
+            return ids;
+        }
+    }
+
+    /**
+     * Vue en liste d'une liste d'occurrences, décodée à la première lecture.
+     */
+    private final class PostingListView extends AbstractList<String> {
+
+        private final PostingList posting;
+        private int[] decoded;
+
+        PostingListView(final PostingList posting) {
+            this.posting = posting;
+        }
+
+        @Override
+        public String get(final int index) {
+            if (decoded == null) {
+                decoded = posting.toArray();
+            }
+            return pool[occurrences[decoded[index]]];
+        }
+
+        @Override
+        public Iterator<String> iterator() {
+            return passwords(posting.iterator());
+        }
+
+        @Override
+        public int size() {
+            return posting.size;
+        }
+    }
+}
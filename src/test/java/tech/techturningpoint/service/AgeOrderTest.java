@@ -0,0 +1,60 @@
+package tech.techturningpoint.service;
+
+import org.assertj.core.util.Lists;
+import org.junit.Test;
+import tech.techturningpoint.model.Person;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AgeOrderTest {
+
+    private static List<Person> reference(final List<Person> persons) {
+        return persons.stream()
+                .sorted(Comparator.comparing(p -> p.getAge()))
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    public void should_sort_by_age_like_a_stable_comparison_sort() {
+        List<Person> small = TestPersons.withAges(10000, 0, 100, 1);
+        assertThat(AgeOrder.sortedByAge(small)).isEqualTo(reference(small));
+
+        List<Person> wide = TestPersons.withAges(10000, -50000, 200000, 2);
+        assertThat(AgeOrder.sortedByAge(wide)).isEqualTo(reference(wide));
+
+        List<Person> extremes = Lists.newArrayList(
+                new Person("a", Integer.MAX_VALUE, "M"),
+                new Person("b", Integer.MIN_VALUE, "M"),
+                new Person("c", 0, "M"),
+                new Person("d", Integer.MIN_VALUE, "M"),
+                new Person("e", Integer.MAX_VALUE, "M"));
+        assertThat(AgeOrder.sortedByAge(extremes)).isEqualTo(reference(extremes));
+
+        assertThat(AgeOrder.sortedByAge(Lists.emptyList())).isEmpty();
+    }
+
+    @Test
+    public void should_select_youngest_and_oldest_without_losing_stability() {
+        List<Person> persons = TestPersons.withAges(5000, 0, 30, 3);
+        List<Person> sorted = reference(persons);
+        List<Person> reversed = persons.stream()
+                .sorted(Comparator.comparing((Person p) -> p.getAge()).reversed())
+                .collect(Collectors.toList());
+        IExerciceStream exo = new ExerciceStream();
+
+        for (int n : new int[]{0, 1, 7, 100, 5000, 6000}) {
+            assertThat(exo.youngestN(persons, n)).isEqualTo(sorted.subList(0, Math.min(n, 5000)));
+            assertThat(exo.oldestN(persons, n)).isEqualTo(reversed.subList(0, Math.min(n, 5000)));
+        }
+        assertThat(exo.youngestN(Lists.emptyList(), 3)).isEmpty();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void should_reject_a_negative_count() {
+        AgeOrder.youngest(Lists.emptyList(), -1);
+    }
+}
@@ -0,0 +1,61 @@
+package tech.techturningpoint.service;
+
+import org.assertj.core.util.Lists;
+import org.junit.Test;
+import tech.techturningpoint.model.Artiste;
+import tech.techturningpoint.model.Person;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ArtistIndexTest {
+
+    @Test
+    public void should_get_listeners_for_any_ranking() {
+        List<Person> persons = TestPersons.random(5000, 5);
+        ArtistIndex index = ArtistIndex.of(persons);
+
+        assertThat(index.getListeners(10)).isEqualTo(new ExerciceStream().getMainstreamMusicListeners(persons));
+        for (double maxRanking : new double[]{0, 1, 2.5, 37, 100, 1000}) {
+            List<Person> expected = persons.stream()
+                    .filter(p -> p.dansMonIpod.stream().anyMatch(a -> a.classement <= maxRanking))
+                    .sorted(Comparator.comparing(p -> p.nom))
+                    .collect(Collectors.toList());
+            assertThat(index.getListeners(maxRanking)).isEqualTo(expected);
+            assertThat(index.countListeners(maxRanking)).isEqualTo(expected.size());
+        }
+    }
+
+    @Test
+    public void should_get_listeners_of_an_artist() {
+        List<Person> persons = TestPersons.random(5000, 6);
+        ArtistIndex index = ArtistIndex.of(persons);
+
+        List<Person> expected = persons.stream()
+                .filter(p -> p.dansMonIpod.stream().anyMatch(a -> a.nom.equals("A7")))
+                .sorted(Comparator.comparing(p -> p.nom))
+                .collect(Collectors.toList());
+        assertThat(index.getListenersOf("A7")).isEqualTo(expected);
+        assertThat(index.getListenersOf("inconnu")).isEmpty();
+    }
+
+    @Test
+    public void should_intern_artists() {
+        Artiste gaga = new Artiste("Lady Gaga", 3);
+        Person batman = new Person("Batman", 35, "M");
+        batman.dansMonIpod = Lists.newArrayList(gaga, new Artiste("Lady Gaga", 3));
+        Person robin = new Person("Robin", 20, "M");
+        robin.dansMonIpod = Lists.newArrayList(new Artiste("Lady Gaga", 3), new Artiste("Lady Gaga", 12));
+        Person alfred = new Person("Alfred", 70, "M");
+
+        ArtistIndex index = ArtistIndex.of(Lists.newArrayList(batman, robin, alfred));
+
+        assertThat(index.getArtists()).hasSize(2);
+        assertThat(index.getArtist(new Artiste("Lady Gaga", 3))).isSameAs(gaga);
+        assertThat(index.getListenersOf("Lady Gaga")).containsExactly(batman, robin);
+        assertThat(index.getListeners(Double.MAX_VALUE)).containsExactly(batman, robin);
+    }
+}
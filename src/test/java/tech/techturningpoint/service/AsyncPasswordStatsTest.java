@@ -0,0 +1,175 @@
+package tech.techturningpoint.service;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.failBecauseExceptionWasNotThrown;
+
+/**
+ * Test de la version non bloquante des statistiques de mots de passe.
+ */
+public class AsyncPasswordStatsTest {
+
+    private final PasswordStats stats = new PasswordStats();
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private Supplier<Stream<String>> readFile() {
+        return () -> stats.readResourceAsMappedStream("leaked_passwords.txt");
+    }
+
+    @Test
+    public void should_give_same_results_as_synchronous_methods() throws Exception {
+        AsyncPasswordStats async = new AsyncPasswordStats(stats, executor, 100);
+        PasswordFlow.Publisher<String> publisher = PasswordFlow.fromStream(readFile(), executor);
+
+        assertThat(async.getReport(readFile()).get()).isEqualTo(stats.getReport(readFile()));
+        assertThat(async.getAllWithNumbers(readFile()).get()).isEqualTo(stats.getAllWithNumbers(readFile()));
+        assertThat(async.getAllBySpecialCharPosition(readFile()).get())
+                .isEqualTo(stats.getAllBySpecialCharPosition(readFile()));
+
+        assertThat(async.getReport(publisher).get(10, TimeUnit.SECONDS)).isEqualTo(stats.getReport(readFile()));
+        assertThat(async.getAllStrong(publisher).get(10, TimeUnit.SECONDS)).isEqualTo(stats.getAllStrong(readFile()));
+        assertThat(async.getSpecialCharHistogram(publisher).get(10, TimeUnit.SECONDS).toMap())
+                .isEqualTo(stats.countBySpecialCharPosition(readFile()));
+    }
+
+    @Test
+    public void should_never_read_more_than_requested() {
+        AtomicInteger pulled = new AtomicInteger();
+        PasswordFlow.Publisher<String> publisher = PasswordFlow.fromStream(
+                () -> readFile().get().peek(p -> pulled.incrementAndGet()), Runnable::run);
+        List<String> received = new ArrayList<>();
+        PasswordFlow.Subscription[] subscription = new PasswordFlow.Subscription[1];
+
+        publisher.subscribe(new Recorder(received) {
+            @Override
+            public void onSubscribe(final PasswordFlow.Subscription s) {
+                subscription[0] = s;
+                s.request(10);
+            }
+        });
+
+        assertThat(received).hasSize(10);
+        // Le Stream peut lire un élément d'avance pour savoir s'il reste des lignes
+        assertThat(pulled.get()).isLessThanOrEqualTo(11);
+
+        subscription[0].request(5);
+        assertThat(received).hasSize(15);
+        assertThat(pulled.get()).isLessThanOrEqualTo(16);
+    }
+
+    @Test
+    public void should_forward_demand_through_filter() {
+        List<String> received = new ArrayList<>();
+        PasswordFlow.Publisher<String> withNumbers = PasswordFlow.filter(
+                PasswordFlow.fromStream(readFile(), Runnable::run), stats.hasNumber);
+
+        withNumbers.subscribe(new Recorder(received) {
+            @Override
+            public void onSubscribe(final PasswordFlow.Subscription s) {
+                s.request(3);
+            }
+        });
+
+        assertThat(received).isEqualTo(stats.getAllWithNumbers(readFile()).subList(0, 3));
+    }
+
+    @Test
+    public void should_close_stream_when_cancelled() throws Exception {
+        AtomicBoolean closed = new AtomicBoolean();
+        CountDownLatch reading = new CountDownLatch(100);
+        PasswordFlow.Publisher<String> endless = PasswordFlow.fromStream(
+                () -> Stream.generate(() -> "a").peek(p -> reading.countDown()).onClose(() -> closed.set(true)), executor);
+
+        CompletableFuture<List<String>> result = new AsyncPasswordStats(stats, executor, 10)
+                .collect(endless, Collectors.toList());
+        assertThat(reading.await(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(result.cancel(true)).isTrue();
+
+        for (int i = 0; i < 1000 && !closed.get(); i++) {
+            Thread.sleep(10);
+        }
+        assertThat(closed.get()).isTrue();
+    }
+
+    @Test
+    public void should_fail_on_source_error_and_invalid_request() throws Exception {
+        PasswordFlow.Publisher<String> failing = PasswordFlow.fromStream(
+                () -> Stream.of("a", null, "c").map(String::toUpperCase), executor);
+        try {
+            new AsyncPasswordStats(stats, executor, 10).collect(failing, Collectors.toList()).get();
+            failBecauseExceptionWasNotThrown(ExecutionException.class);
+        } catch (ExecutionException e) {
+            assertThat(e.getCause()).isInstanceOf(NullPointerException.class);
+        }
+
+        List<Throwable> errors = new ArrayList<>();
+        PasswordFlow.fromStream(() -> Stream.of("a"), Runnable::run).subscribe(new Recorder(new ArrayList<>()) {
+            @Override
+            public void onSubscribe(final PasswordFlow.Subscription s) {
+                s.request(0);
+            }
+
+            @Override
+            public void onError(final Throwable error) {
+                errors.add(error);
+            }
+        });
+        assertThat(errors).hasSize(1);
+        assertThat(errors.get(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void should_complete_empty_publisher() throws Exception {
+        PasswordReport report = new AsyncPasswordStats(stats, executor, 10)
+                .getReport(PasswordFlow.fromStream(() -> Arrays.<String>asList().stream(), executor))
+                .get(10, TimeUnit.SECONDS);
+        assertThat(report.getCount()).isEqualTo(0);
+    }
+
+    /**
+     * Abonné de test qui garde les éléments reçus.
+     */
+    private abstract static class Recorder implements PasswordFlow.Subscriber<String> {
+        private final List<String> received;
+
+        Recorder(final List<String> received) {
+            this.received = received;
+        }
+
+        @Override
+        public void onNext(final String item) {
+            received.add(item);
+        }
+
+        @Override
+        public void onError(final Throwable error) {
+            throw new AssertionError(error);
+        }
+
+        @Override
+        public void onComplete() {
+        }
+    }
+}
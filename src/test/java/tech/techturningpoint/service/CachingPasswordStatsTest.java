@@ -0,0 +1,170 @@
+package tech.techturningpoint.service;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.failBecauseExceptionWasNotThrown;
+
+/**
+ * Test du cache de résultats par fichier.
+ */
+public class CachingPasswordStatsTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final PasswordStats stats = new PasswordStats();
+
+    private Path write(final String name, final String... passwords) throws IOException {
+        Path file = folder.getRoot().toPath().resolve(name);
+        Files.write(file, Arrays.asList(passwords), Charset.defaultCharset());
+        return file;
+    }
+
+    private PasswordReport report(final Path file) throws IOException {
+        try (Stream<String> passwords = Files.lines(file, Charset.defaultCharset())) {
+            return stats.getReport(() -> passwords);
+        }
+    }
+
+    @Test
+    public void should_return_cached_results_until_file_changes() throws IOException {
+        Path file = write("dump.txt", "Abcdef1!", "password", "qwerty12");
+        CachingPasswordStats cache = new CachingPasswordStats(stats);
+
+        PasswordReport first = cache.getReport(file);
+        assertThat(first).isEqualTo(report(file));
+        assertThat(cache.getReport(file)).isSameAs(first);
+        assertThat(cache.getReport(file.getParent().resolve(".").resolve("dump.txt"))).isSameAs(first);
+        assertThat(cache.missCount()).isEqualTo(1);
+        assertThat(cache.hitCount()).isEqualTo(2);
+
+        // seule la date change : les résultats sont gardés
+        Files.setLastModifiedTime(file, FileTime.fromMillis(Files.getLastModifiedTime(file).toMillis() + 60000));
+        assertThat(cache.getReport(file)).isSameAs(first);
+        assertThat(cache.missCount()).isEqualTo(1);
+
+        // le contenu change : les résultats sont recalculés
+        Files.write(file, Arrays.asList("Zyx987?!"), Charset.defaultCharset(), StandardOpenOption.APPEND);
+        PasswordReport second = cache.getReport(file);
+        assertThat(second).isEqualTo(report(file));
+        assertThat(second.getCount()).isEqualTo(4);
+        assertThat(cache.missCount()).isEqualTo(2);
+        assertThat(cache.size()).isEqualTo(1);
+
+        cache.invalidate(file);
+        assertThat(cache.size()).isEqualTo(0);
+        assertThat(cache.usedBytes()).isEqualTo(0);
+    }
+
+    @Test
+    public void should_evict_least_recently_used_results_within_budget() throws IOException {
+        Path file = write("dump.txt", "Abcdef1!", "password", "qwerty12", "Azerty", "n0p@ss");
+        List<String> expected;
+        try (Stream<String> passwords = Files.lines(file, Charset.defaultCharset())) {
+            expected = stats.getAllWithNumbers(() -> passwords);
+        }
+        long budget = 2 * CachingPasswordStats.weigh(expected);
+        CachingPasswordStats cache = new CachingPasswordStats(stats, budget, null);
+
+        List<String> withNumbers = cache.getAllWithNumbers(file);
+        assertThat(withNumbers).isEqualTo(expected);
+        try {
+            withNumbers.add("modifiable");
+            failBecauseExceptionWasNotThrown(UnsupportedOperationException.class);
+        } catch (UnsupportedOperationException e) {
+            assertThat(cache.getAllWithNumbers(file)).isEqualTo(expected);
+        }
+        cache.getAllWithSpecialChars(file);
+        cache.getAllWithNumbers(file);
+        cache.getAllWithUppercaseAndLowercase(file);
+
+        assertThat(cache.usedBytes()).isLessThanOrEqualTo(budget);
+        assertThat(cache.evictionCount()).isGreaterThan(0);
+        long misses = cache.missCount();
+        // le plus récemment utilisé est resté, le moins récent a été évincé
+        cache.getAllWithNumbers(file);
+        assertThat(cache.missCount()).isEqualTo(misses);
+        cache.getAllWithSpecialChars(file);
+        assertThat(cache.missCount()).isEqualTo(misses + 1);
+    }
+
+    @Test
+    public void should_persist_reports_across_caches() throws IOException {
+        Path file = write("dump.txt", "Abcdef1!", "password", "qwerty12");
+        Path directory = folder.getRoot().toPath().resolve("reports");
+
+        PasswordReport computed = new CachingPasswordStats(stats, CachingPasswordStats.DEFAULT_MAX_BYTES, directory)
+                .getReport(file);
+
+        CachingPasswordStats restarted = new CachingPasswordStats(stats, CachingPasswordStats.DEFAULT_MAX_BYTES, directory);
+        assertThat(restarted.getReport(file)).isEqualTo(computed);
+        assertThat(restarted.diskHitCount()).isEqualTo(1);
+        assertThat(restarted.missCount()).isEqualTo(0);
+
+        Files.write(file, Arrays.asList("Zyx987?!"), Charset.defaultCharset(), StandardOpenOption.APPEND);
+        assertThat(restarted.getReport(file)).isEqualTo(report(file));
+        assertThat(restarted.missCount()).isEqualTo(1);
+        try (Stream<Path> reports = Files.list(directory)) {
+            assertThat(reports.count()).isEqualTo(1);
+        }
+
+        // un rapport illisible est recalculé puis réécrit
+        try (Stream<Path> reports = Files.list(directory)) {
+            Files.write(reports.findFirst().get(), new byte[]{1, 2, 3});
+        }
+        CachingPasswordStats again = new CachingPasswordStats(stats, CachingPasswordStats.DEFAULT_MAX_BYTES, directory);
+        assertThat(again.getReport(file)).isEqualTo(report(file));
+        assertThat(again.missCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void should_prune_reports_of_other_rules() throws IOException {
+        Path file = write("dump.txt", "Abcdef1!", "password", "qwerty12");
+        Path directory = folder.getRoot().toPath().resolve("reports");
+        new CachingPasswordStats(stats, CachingPasswordStats.DEFAULT_MAX_BYTES, directory).getReport(file);
+        String name;
+        try (Stream<Path> reports = Files.list(directory)) {
+            name = reports.findFirst().get().getFileName().toString();
+        }
+
+        // même chemin et même contenu, mais écrit avec d'autres règles
+        String[] parts = name.split("-");
+        Path older = directory.resolve(parts[0] + "-00000000-" + parts[2] + "-" + parts[3]);
+        Files.move(directory.resolve(name), older);
+
+        CachingPasswordStats restarted = new CachingPasswordStats(stats, CachingPasswordStats.DEFAULT_MAX_BYTES, directory);
+        assertThat(restarted.getReport(file)).isEqualTo(report(file));
+        assertThat(restarted.diskHitCount()).isEqualTo(0);
+        assertThat(restarted.missCount()).isEqualTo(1);
+        try (Stream<Path> reports = Files.list(directory)) {
+            assertThat(reports.map(report -> report.getFileName().toString()).toArray()).containsOnly(name);
+        }
+    }
+
+    @Test
+    public void should_serve_print_stats_from_cache() {
+        CachingPasswordStats cache = new CachingPasswordStats(stats);
+        PasswordReport report;
+        try (Stream<String> passwords = stats.readResourceAsMappedStream("leaked_passwords.txt")) {
+            report = stats.getReport(() -> passwords);
+        }
+
+        assertThat(cache.getResourceReport("leaked_passwords.txt", false)).isEqualTo(report);
+        cache.printStats("leaked_passwords.txt", true);
+        assertThat(cache.missCount()).isEqualTo(1);
+        assertThat(cache.hitCount()).isEqualTo(1);
+    }
+}
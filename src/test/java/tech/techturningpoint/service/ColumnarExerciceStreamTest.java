@@ -0,0 +1,98 @@
+package tech.techturningpoint.service;
+
+import org.assertj.core.util.Lists;
+import org.junit.Before;
+import org.junit.Test;
+import tech.techturningpoint.model.Artiste;
+import tech.techturningpoint.model.Person;
+import tech.techturningpoint.model.PersonStore;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.data.MapEntry.entry;
+
+/**
+ * Test de l'implémentation en colonnes : mêmes résultats que {@link ExerciceStream}.
+ */
+public class ColumnarExerciceStreamTest {
+
+    private List<Person> myHeroes;
+
+    private IExerciceStream exo;
+
+    @Before
+    public void setUp() throws Exception {
+        exo = new ColumnarExerciceStream();
+        myHeroes = Lists.newArrayList(
+                new Person("Batman", 35, "M"),
+                new Person("Daredevil", 28, "M"),
+                new Person("Spiderman", 18, "M"),
+                new Person("SuperDupont", 51, "M"),
+                new Person("Catwoman", 22, "F")
+        );
+    }
+
+    @Test
+    public void should_answer_like_exercice_stream_on_heroes() {
+        assertThat(exo.getNamesSortedByAge(myHeroes))
+                .containsExactly("Spiderman", "Catwoman", "Daredevil", "Batman", "SuperDupont");
+        assertThat(exo.getNamesSortedByAge(Lists.emptyList())).isEmpty();
+        assertThat(exo.displayNamesFromYoungestToOldest(myHeroes))
+                .isEqualTo("Du plus jeune au plus âgé: Spiderman, Catwoman, Daredevil, Batman, SuperDupont.");
+
+        assertThat(exo.averageAge(myHeroes)).isEqualTo(30.8);
+        assertThat(exo.averageAge(Lists.emptyList())).isEqualTo(0);
+        assertThat(exo.averageAgeMale(myHeroes)).isEqualTo(33.0);
+        assertThat(exo.averageAgeMale(Lists.emptyList())).isEqualTo(0);
+        assertThat(exo.averageAgeByInitial(myHeroes, "S")).isEqualTo(34.5);
+        assertThat(exo.averageAgeByInitial(Lists.emptyList(), "S")).isEqualTo(0);
+        assertThat(exo.averageAgeBySex(myHeroes)).contains(entry("F", 22.0), entry("M", 33.0));
+        assertThat(exo.averageAgeBySex(Lists.emptyList())).isEmpty();
+    }
+
+    @Test
+    public void should_answer_like_exercice_stream_on_a_store() {
+        List<Person> persons = TestPersons.random(5000, 42, true);
+        PersonStore store = PersonStore.of(persons);
+        IExerciceStream reference = new ExerciceStream();
+
+        assertThat(store).isEqualTo(persons);
+        assertThat(store.contains(persons.get(10))).isTrue();
+        assertThat(store.indexOf(persons.get(10))).isEqualTo(10);
+        assertThat(exo.getNamesSortedByAge(store)).isEqualTo(reference.getNamesSortedByAge(persons));
+        assertThat(exo.displayNamesFromYoungestToOldest(store)).isEqualTo(reference.displayNamesFromYoungestToOldest(persons));
+        assertThat(exo.averageAge(store)).isEqualTo(reference.averageAge(persons));
+        assertThat(exo.averageAgeMale(store)).isEqualTo(reference.averageAgeMale(persons));
+        assertThat(exo.averageAgeByInitial(store, "PA")).isEqualTo(reference.averageAgeByInitial(persons, "PA"));
+        assertThat(exo.averageAgeBySex(store)).containsKey(null).isEqualTo(reference.averageAgeBySex(persons));
+        // la référence trie par nom sans accepter null ; mêmes instances, pas seulement les mêmes noms
+        List<Person> named = new ArrayList<>(persons);
+        named.removeIf(p -> p.nom == null);
+        assertThat(named.size()).isLessThan(persons.size());
+        assertThat(exo.getMainstreamMusicListenersJava8(PersonStore.of(named)))
+                .isEqualTo(reference.getMainstreamMusicListeners(named));
+    }
+
+    @Test
+    public void should_snapshot_columns_and_return_original_persons() {
+        Person walter = new Person("Walter", 56, "M");
+        walter.dansMonIpod = Lists.newArrayList(new Artiste("Prince", 5));
+        Person saul = new Person("Saul", 45, "M");
+        saul.chef = Optional.of(walter);
+        PersonStore store = PersonStore.of(Lists.newArrayList(walter, saul));
+
+        walter.setAge(80);
+        walter.nom = "Heisenberg";
+        walter.dansMonIpod.get(0).classement = 50;
+
+        assertThat(store.get(0)).isSameAs(walter);
+        assertThat(store.getNom(0)).isEqualTo("Walter");
+        assertThat(store.getAge(0)).isEqualTo(56);
+        assertThat(exo.averageAge(store)).isEqualTo(50.5);
+        assertThat(exo.getMainstreamMusicListenersJava8(store)).containsExactly(walter);
+        assertThat(store.getChef(1)).isSameAs(walter);
+    }
+}
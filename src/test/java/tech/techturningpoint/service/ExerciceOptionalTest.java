@@ -6,7 +6,11 @@ import org.junit.Before;
 import org.junit.Test;
 import tech.techturningpoint.model.Artiste;
 import tech.techturningpoint.model.Person;
+import tech.techturningpoint.model.PersonStore;
 
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -65,4 +69,59 @@ public class ExerciceOptionalTest {
         assertThat(maybeName).isEqualTo("Eric");
 
     }
+
+    @Test
+    public void should_resolve_names_in_bulk_like_per_call() throws Exception {
+        Person walter = new Person("Walter", 56, "M");
+        walter.dansMonIpod = Lists.newArrayList(new Artiste("Prince", 15), new Artiste("Dr John", 20));
+        Person saul = new Person("Saul", 18, "M");
+        saul.chef = Optional.of(walter);
+        saul.dansMonIpod = Lists.emptyList();
+        Person jesse = new Person("Jesse", 25, "M");
+        jesse.dansMonIpod = Lists.newArrayList(new Artiste(null, 15));
+        jesse.chef = Optional.of(new Person(null, 40, "M"));
+        List<Person> persons = Lists.newArrayList(walter, saul, jesse, null);
+        persons.addAll(TestPersons.random(100, 3));
+
+        ExerciceOptional bulk = new ExerciceOptional();
+        List<String> artistes = new ArrayList<>();
+        List<String> chefs = new ArrayList<>();
+        for (Person person : persons) {
+            artistes.add(exo.getNameFirstArtisteInIpod(person));
+            chefs.add(exo.getNameOfChef(person));
+        }
+
+        String[] names = new String[persons.size()];
+        bulk.getNamesFirstArtisteInIpod(persons, names);
+        assertThat(names).containsExactly(artistes.toArray(new String[0]));
+        bulk.getNamesOfChef(persons, names);
+        assertThat(names).containsExactly(chefs.toArray(new String[0]));
+
+        List<String> received = new ArrayList<>();
+        bulk.getNamesFirstArtisteInIpod(new LinkedList<>(persons), received::add);
+        assertThat(received).isEqualTo(artistes);
+        received.clear();
+        bulk.getNamesOfChef(new LinkedList<>(persons), received::add);
+        assertThat(received).isEqualTo(chefs);
+
+        List<Person> withoutNull = new ArrayList<>(persons);
+        withoutNull.remove(null);
+        artistes.remove(3);
+        received.clear();
+        PersonStore store = PersonStore.of(withoutNull);
+        bulk.getNamesFirstArtisteInIpod(store, received::add);
+        assertThat(received).isEqualTo(artistes);
+        chefs.remove(3);
+        received.clear();
+        bulk.getNamesOfChef(store, received::add);
+        assertThat(received).isEqualTo(chefs);
+        String[] storeNames = new String[store.size()];
+        bulk.getNamesOfChef(store, storeNames);
+        assertThat(storeNames).containsExactly(chefs.toArray(new String[0]));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void should_reject_a_too_small_array() throws Exception {
+        new ExerciceOptional().getNamesOfChef(Lists.newArrayList(new Person("Saul", 18, "M")), new String[0]);
+    }
 }
@@ -0,0 +1,94 @@
+package tech.techturningpoint.service;
+
+import org.assertj.core.util.Lists;
+import org.junit.Test;
+import tech.techturningpoint.model.Person;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class HierarchyTest {
+
+    private static Person person(final String nom, final Person chef) {
+        Person person = new Person(nom, 40, "M");
+        person.chef = Optional.ofNullable(chef);
+        return person;
+    }
+
+    @Test
+    public void should_answer_org_chart_queries() {
+        Person eric = person("Eric", null);
+        Person walter = person("Walter", eric);
+        Person saul = person("Saul", walter);
+        Person jesse = person("Jesse", walter);
+        Person mike = person("Mike", eric);
+        Person gus = person("Gus", null);
+
+        Hierarchy hierarchy = Hierarchy.of(Lists.newArrayList(saul, jesse, mike, gus));
+
+        assertThat(hierarchy.size()).isEqualTo(6);
+        assertThat(hierarchy.depth(eric)).isEqualTo(0);
+        assertThat(hierarchy.depth(saul)).isEqualTo(2);
+        assertThat(hierarchy.getChain(saul)).containsExactly(walter, eric);
+        assertThat(hierarchy.getChain(eric)).isEmpty();
+        assertThat(hierarchy.getChef(saul, 1)).isEqualTo(Optional.of(walter));
+        assertThat(hierarchy.getChef(saul, 2)).isEqualTo(Optional.of(eric));
+        assertThat(hierarchy.getChef(saul, 3)).isEqualTo(Optional.empty());
+        assertThat(hierarchy.reportsTo(saul, eric)).isTrue();
+        assertThat(hierarchy.reportsTo(saul, walter)).isTrue();
+        assertThat(hierarchy.reportsTo(saul, mike)).isFalse();
+        assertThat(hierarchy.reportsTo(eric, saul)).isFalse();
+        assertThat(hierarchy.reportsTo(saul, saul)).isFalse();
+        assertThat(hierarchy.getLowestCommonChef(saul, jesse)).isEqualTo(Optional.of(walter));
+        assertThat(hierarchy.getLowestCommonChef(saul, mike)).isEqualTo(Optional.of(eric));
+        assertThat(hierarchy.getLowestCommonChef(walter, jesse)).isEqualTo(Optional.of(walter));
+        assertThat(hierarchy.getLowestCommonChef(saul, gus)).isEqualTo(Optional.empty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void should_detect_cycles() {
+        Person a = person("A", null);
+        Person b = person("B", a);
+        Person c = person("C", b);
+        a.chef = Optional.of(c);
+        Hierarchy.of(Lists.newArrayList(person("D", a)));
+    }
+
+    @Test
+    public void should_match_a_naive_walk_on_a_random_tree() {
+        Random random = new Random(3);
+        List<Person> persons = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            Person chef = persons.isEmpty() || random.nextInt(50) == 0 ? null
+                    : persons.get(Math.max(0, persons.size() - 1 - random.nextInt(20)));
+            persons.add(person("P" + i, chef));
+        }
+        Hierarchy hierarchy = Hierarchy.of(persons);
+
+        for (int q = 0; q < 2000; q++) {
+            Person a = persons.get(random.nextInt(persons.size()));
+            Person b = persons.get(random.nextInt(persons.size()));
+            List<Person> chainA = naiveChain(a);
+            List<Person> chainB = naiveChain(b);
+            assertThat(hierarchy.getChain(a)).isEqualTo(chainA);
+            assertThat(hierarchy.depth(a)).isEqualTo(chainA.size());
+            assertThat(hierarchy.reportsTo(a, b)).isEqualTo(chainA.contains(b));
+            chainA.add(0, a);
+            chainB.add(0, b);
+            Optional<Person> common = chainA.stream().filter(chainB::contains).findFirst();
+            assertThat(hierarchy.getLowestCommonChef(a, b)).isEqualTo(common);
+        }
+    }
+
+    private static List<Person> naiveChain(final Person person) {
+        List<Person> chain = new ArrayList<>();
+        for (Optional<Person> chef = person.chef; chef.isPresent(); chef = chef.get().chef) {
+            chain.add(chef.get());
+        }
+        return chain;
+    }
+}
@@ -0,0 +1,94 @@
+package tech.techturningpoint.service;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.failBecauseExceptionWasNotThrown;
+
+/**
+ * Test de la lecture par projection en mémoire : mêmes lignes que {@link Files#lines(Path, Charset)}.
+ */
+public class MappedFileLinesTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final IPasswordStats pstats = new PasswordStats();
+
+    private List<String> readLines(final Path path, final Charset charset, final int windowSize) throws IOException {
+        try (Stream<String> lines = MappedFileLines.lines(path, charset, windowSize, false)) {
+            return lines.collect(Collectors.toList());
+        }
+    }
+
+    private void assertSameAsFilesLines(final Path path, final Charset charset, final int windowSize) throws IOException {
+        try (Stream<String> expected = Files.lines(path, charset)) {
+            assertThat(readLines(path, charset, windowSize)).isEqualTo(expected.collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    public void should_read_resources_like_files_lines() throws IOException {
+        for (String filename : new String[]{"leaked_passwords.txt", "10k_most_common.txt"}) {
+            Path path = pstats.getResourcePath(filename);
+            assertSameAsFilesLines(path, StandardCharsets.ISO_8859_1, MappedFileLines.DEFAULT_WINDOW_SIZE);
+            assertSameAsFilesLines(path, StandardCharsets.ISO_8859_1, 1000);
+        }
+    }
+
+    @Test
+    public void should_split_on_every_line_terminator_across_windows() throws IOException {
+        Path path = folder.newFile("lines.txt").toPath();
+        Files.write(path, "un\r\ndeux\rtrois\n\nquatre-cinq-six\r\r\nété\r".getBytes(StandardCharsets.UTF_8));
+        for (int windowSize = 1; windowSize <= 40; windowSize++) {
+            assertSameAsFilesLines(path, StandardCharsets.UTF_8, windowSize);
+        }
+
+        Files.write(path, "sans fin de ligne".getBytes(StandardCharsets.UTF_8));
+        assertThat(readLines(path, StandardCharsets.UTF_8, 3)).containsExactly("sans fin de ligne");
+
+        Files.write(path, new byte[0]);
+        assertThat(readLines(path, StandardCharsets.UTF_8, 3)).isEmpty();
+    }
+
+    @Test
+    public void should_split_on_line_starts_in_parallel() throws IOException {
+        Path path = folder.newFile("parallel.txt").toPath();
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 50000; i++) {
+            content.append("ligne").append(i).append(i % 3 == 0 ? "\r\n" : i % 3 == 1 ? "\r" : "\n");
+        }
+        Files.write(path, content.toString().getBytes(StandardCharsets.UTF_8));
+
+        List<String> sequential = readLines(path, StandardCharsets.UTF_8, 4096);
+        try (Stream<String> lines = MappedFileLines.lines(path, StandardCharsets.UTF_8, 4096, true)) {
+            assertThat(lines.isParallel()).isTrue();
+            assertThat(lines.collect(Collectors.toList())).isEqualTo(sequential).hasSize(50000);
+        }
+    }
+
+    @Test
+    public void should_read_mapped_resource() {
+        try (Stream<String> lines = pstats.readResourceAsMappedStream("leaked_passwords.txt")) {
+            assertThat(lines.count()).isEqualTo(24132);
+        }
+
+        try {
+            pstats.readResourceAsMappedStream("unknown.txt");
+            failBecauseExceptionWasNotThrown(IllegalArgumentException.class);
+        } catch (IllegalArgumentException e) {
+            assertThat(e).hasMessageStartingWith("Ressource inexistante :");
+        }
+    }
+}
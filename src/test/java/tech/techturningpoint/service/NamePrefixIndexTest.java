@@ -0,0 +1,61 @@
+package tech.techturningpoint.service;
+
+import org.assertj.core.util.Lists;
+import org.junit.Test;
+import tech.techturningpoint.model.Person;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
+
+public class NamePrefixIndexTest {
+
+    private final Person batman = new Person("Batman", 35, "M");
+    private final Person daredevil = new Person("Daredevil", 28, "M");
+    private final Person spiderman = new Person("Spiderman", 18, "M");
+    private final Person superDupont = new Person("SuperDupont", 51, "M");
+    private final Person catwoman = new Person("Catwoman", 22, "F");
+
+    @Test
+    public void should_answer_prefix_queries() {
+        NamePrefixIndex index = NamePrefixIndex.of(Lists.newArrayList(batman, daredevil, spiderman, superDupont, catwoman));
+
+        assertThat(index.size()).isEqualTo(5);
+        assertThat(index.averageAge("S")).isEqualTo(34.5);
+        assertThat(index.averageAge("Sup")).isEqualTo(51.0);
+        assertThat(index.averageAge("")).isEqualTo(30.8);
+        assertThat(index.averageAge("Z")).isEqualTo(0);
+        assertThat(index.count("S")).isEqualTo(2);
+        assertThat(index.count("Spiderman!")).isEqualTo(0);
+        assertThat(index.getAll("S")).containsExactly(spiderman, superDupont);
+        assertThat(index.getAll("")).containsExactly(batman, catwoman, daredevil, spiderman, superDupont);
+        assertThat(index.getAll("X")).isEmpty();
+    }
+
+    @Test
+    public void should_ignore_case_on_demand() {
+        NamePrefixIndex index = NamePrefixIndex.of(Lists.newArrayList(batman, spiderman, new Person("spectre", 40, "M")));
+
+        assertThat(index.count("sp")).isEqualTo(1);
+        assertThat(index.count("sP", true)).isEqualTo(2);
+        assertThat(index.averageAge("SPI", true)).isEqualTo(18.0);
+        assertThat(index.getAll("S", true)).extracting("nom").containsExactly("spectre", "Spiderman");
+    }
+
+    @Test
+    public void should_update_incrementally_and_match_a_full_scan() {
+        List<Person> persons = TestPersons.random(5000, 11);
+        NamePrefixIndex index = NamePrefixIndex.of(persons.subList(0, 2500));
+        index.addAll(persons.subList(2500, 5000));
+        IExerciceStream exo = new ExerciceStream();
+
+        for (String prefix : new String[]{"P", "PA", "PB1", "PZ42", "Q"}) {
+            List<Person> expected = persons.stream().filter(p -> p.nom.startsWith(prefix)).collect(Collectors.toList());
+            assertThat(index.count(prefix)).isEqualTo(expected.size());
+            assertThat(index.getAll(prefix)).containsOnly(expected.toArray(new Person[0]));
+            assertThat(index.averageAge(prefix)).isEqualTo(exo.averageAgeByInitial(persons, prefix), offset(1e-9));
+        }
+    }
+}
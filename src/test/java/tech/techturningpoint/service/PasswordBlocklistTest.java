@@ -0,0 +1,94 @@
+package tech.techturningpoint.service;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.failBecauseExceptionWasNotThrown;
+
+/**
+ * Test de la liste de mots de passe interdits.
+ */
+public class PasswordBlocklistTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private IPasswordStats pstats;
+    private PasswordBlocklist blocklist;
+
+    @Before
+    public void setUp() throws Exception {
+        pstats = new PasswordStats();
+        blocklist = pstats.readResourceAsBlocklist("10k_most_common.txt", "leaked_passwords.txt");
+    }
+
+    @Test
+    public void should_block_every_password_of_the_resources() {
+        try (Stream<String> lines = pstats.readResourceAsStream("10k_most_common.txt")) {
+            assertThat(lines.allMatch(blocklist::isBlocked)).isTrue();
+        }
+        try (Stream<String> lines = pstats.readResourceAsStream("leaked_passwords.txt")) {
+            assertThat(lines.allMatch(blocklist::isBlocked)).isTrue();
+        }
+        assertThat(blocklist.isBlocked("Catchmeifyoucan!")).isTrue();
+        assertThat(blocklist.isBlocked("Ampo 783::")).isFalse();
+        assertThat(blocklist.isBlocked(null)).isFalse();
+    }
+
+    @Test
+    public void should_reject_blocked_strong_passwords() {
+        assertThat(pstats.isStrongPassword("Ampo 783::", blocklist)).isTrue();
+
+        blocklist.reload(Stream.of("Ampo 783::", "Apo 783:?"));
+        assertThat(blocklist.size()).isEqualTo(2);
+        assertThat(pstats.isStrongPassword("Ampo 783::", blocklist)).isFalse();
+        assertThat(pstats.isStrongPassword("Apo 783:?", blocklist)).isFalse();
+        assertThat(blocklist.isBlocked("password")).isFalse();
+    }
+
+    @Test
+    public void should_reload_from_snapshot() throws IOException {
+        Path snapshot = folder.newFile("blocklist.bin").toPath();
+        blocklist.writeSnapshot(snapshot);
+
+        PasswordBlocklist copy = PasswordBlocklist.readSnapshot(snapshot);
+        assertThat(copy.size()).isEqualTo(blocklist.size());
+        assertThat(copy.isBlocked("Catchmeifyoucan!")).isTrue();
+        assertThat(copy.isBlocked("Ampo 783::")).isFalse();
+
+        PasswordBlocklist small = PasswordBlocklist.of(Stream.of("Ampo 783::"));
+        small.reloadSnapshot(snapshot);
+        assertThat(small.isBlocked("Ampo 783::")).isFalse();
+        assertThat(small.isBlocked("Catchmeifyoucan!")).isTrue();
+    }
+
+    @Test
+    public void should_reject_corrupted_sizes_in_snapshot() throws IOException {
+        Path snapshot = folder.newFile("small.bin").toPath();
+        PasswordBlocklist.of(Stream.of("abc", "defg")).writeSnapshot(snapshot);
+        byte[] original = Files.readAllBytes(snapshot);
+        // décalages : taille du filtre 8, nombre de mots de passe 20, longueur du premier 24
+        int[][] corruptions = {{8, Integer.MAX_VALUE}, {8, -1}, {8, 2}, {20, -1}, {20, 1000000}, {24, -5}, {24, 1 << 30}};
+
+        for (int[] corruption : corruptions) {
+            byte[] bytes = original.clone();
+            ByteBuffer.wrap(bytes).putInt(corruption[0], corruption[1]);
+            Files.write(snapshot, bytes);
+            try {
+                PasswordBlocklist.readSnapshot(snapshot);
+                failBecauseExceptionWasNotThrown(IOException.class);
+            } catch (IOException e) {
+                assertThat(e).hasMessageContaining(snapshot.toString());
+            }
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package tech.techturningpoint.service;
+
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test du classifieur : il doit donner exactement les mêmes résultats que les expressions régulières.
+ */
+public class PasswordClassifierTest {
+
+    private static final String UPPERCASE = ".*[A-Z]+.*";
+    private static final String LOWERCASE = ".*[a-z]+.*";
+    private static final String NUMBER = ".*[0-9]+.*";
+    private static final String SPECIAL = ".*[ !\"#$%&'()*+,-\\./:;<=>?@\\[\\]^_`{|}~]+.*";
+    private static final String REPETITION = ".*(.)\\1\\1+.*";
+
+    private void assertSameAsRegex(final String password) {
+        int mask = PasswordClassifier.classify(password);
+        assertThat(PasswordClassifier.hasAll(mask, PasswordClassifier.UPPERCASE))
+                .as("majuscule dans %s", password).isEqualTo(password.matches(UPPERCASE));
+        assertThat(PasswordClassifier.hasAll(mask, PasswordClassifier.LOWERCASE))
+                .as("minuscule dans %s", password).isEqualTo(password.matches(LOWERCASE));
+        assertThat(PasswordClassifier.hasAll(mask, PasswordClassifier.DIGIT))
+                .as("chiffre dans %s", password).isEqualTo(password.matches(NUMBER));
+        assertThat(PasswordClassifier.hasAll(mask, PasswordClassifier.SPECIAL))
+                .as("caractère spécial dans %s", password).isEqualTo(password.matches(SPECIAL));
+        assertThat(PasswordClassifier.hasRepetition(mask))
+                .as("répétition dans %s", password).isEqualTo(password.matches(REPETITION));
+    }
+
+    @Test
+    public void should_classify_like_regex_on_resources() {
+        IPasswordStats pstats = new PasswordStats();
+        Stream.of("leaked_passwords.txt", "10k_most_common.txt")
+                .flatMap(pstats::readResourceAsStream)
+                .forEach(this::assertSameAsRegex);
+    }
+
+    @Test
+    public void should_classify_like_regex_on_edge_cases() {
+        Stream.of("", "a", "aaa", "aa", "Apo 666:?", "\\", "a\\b", "Ab1!\n", "Ab1!\r", "Ab1!\u0085", "Ab1!\u2028",
+                "Ab1!\u2029", "aaa\n", "\uD83D\uDE00\uD83D\uDE00\uD83D\uDE00", "\uD83D\uDE00\uD83D\uDE00",
+                "\uD800\uD800\uD800\uDC00", "\uD800\uD800\uDC00", "\uDC00\uDC00\uDC00", "\u00E9\u00E9\u00E9a")
+                .forEach(this::assertSameAsRegex);
+    }
+
+    @Test
+    public void should_classify_like_regex_on_random_strings() {
+        Random random = new Random(42);
+        char[] alphabet = "aA0! \\\n\u0085\u2028\u00E9\uD83D\uDE00".toCharArray();
+        for (int n = 0; n < 20000; n++) {
+            char[] chars = new char[random.nextInt(8)];
+            for (int i = 0; i < chars.length; i++) {
+                chars[i] = alphabet[random.nextInt(alphabet.length)];
+            }
+            assertSameAsRegex(new String(chars));
+        }
+    }
+
+    @Test
+    public void should_find_special_chars_like_pattern() {
+        for (char c = 0; c < 256; c++) {
+            String s = String.valueOf(c);
+            assertThat(PasswordClassifier.isSpecialChar(c))
+                    .as("caractère %d", (int) c).isEqualTo(IPasswordStats.SPECIAL_CHAR_PATTERN.matcher(s).matches());
+        }
+        assertThat(PasswordClassifier.indexOfSpecialChar("a-b\\c", 0)).isEqualTo(1);
+        assertThat(PasswordClassifier.indexOfSpecialChar("a-b\\c", 2)).isEqualTo(3);
+        assertThat(PasswordClassifier.indexOfSpecialChar("a-b\\c", 4)).isEqualTo(-1);
+    }
+
+    @Test
+    public void should_compute_longest_run() {
+        assertThat(PasswordClassifier.maxRun(PasswordClassifier.classify(""))).isEqualTo(0);
+        assertThat(PasswordClassifier.maxRun(PasswordClassifier.classify("abc"))).isEqualTo(1);
+        assertThat(PasswordClassifier.maxRun(PasswordClassifier.classify("abbcccc"))).isEqualTo(4);
+        assertThat(PasswordClassifier.maxRun(PasswordClassifier.classify("\uD83D\uDE00\uD83D\uDE00"))).isEqualTo(2);
+    }
+}
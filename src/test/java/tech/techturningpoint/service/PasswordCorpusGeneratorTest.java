@@ -0,0 +1,67 @@
+package tech.techturningpoint.service;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test du générateur de corpus synthétiques.
+ */
+public class PasswordCorpusGeneratorTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private IPasswordStats pstats;
+    private PasswordCorpusGenerator generator;
+
+    @Before
+    public void setUp() throws Exception {
+        pstats = new PasswordStats();
+        try (Stream<String> sample = pstats.readResourceAsStream("leaked_passwords.txt")) {
+            generator = PasswordCorpusGenerator.fromSample(sample);
+        }
+    }
+
+    @Test
+    public void should_generate_the_same_corpus_for_the_same_seed() throws IOException {
+        List<String> first = generator.generate(42).limit(1000).collect(Collectors.toList());
+        assertThat(generator.generate(42).limit(1000).collect(Collectors.toList())).isEqualTo(first);
+        assertThat(generator.generate(43).limit(1000).collect(Collectors.toList())).isNotEqualTo(first);
+
+        Path file = folder.newFile("corpus.txt").toPath();
+        generator.write(file, 1000, 42);
+        assertThat(Files.readAllLines(file, StandardCharsets.UTF_8)).isEqualTo(first);
+    }
+
+    @Test
+    public void should_reproduce_lengths_and_special_chars_of_the_sample() {
+        PasswordReport sample = pstats.getReport(() -> pstats.readResourceAsStream("leaked_passwords.txt"));
+        double sampleLength = pstats.readResourceAsStream("leaked_passwords.txt").mapToInt(String::length).average().getAsDouble();
+
+        int lines = 200000;
+        List<String> corpus = generator.generate(7).limit(lines).collect(Collectors.toList());
+        PasswordReport generated = pstats.getReport(corpus::stream);
+
+        assertThat(corpus.stream().mapToInt(String::length).average().getAsDouble())
+                .isBetween(sampleLength * 0.98, sampleLength * 1.02);
+        double sampleSpecialsPerLine = sample.getCountBySpecialCharPosition().values().stream().mapToLong(Long::longValue).sum()
+                / (double) sample.getCount();
+        double generatedSpecialsPerLine = generated.getCountBySpecialCharPosition().values().stream().mapToLong(Long::longValue).sum()
+                / (double) lines;
+        assertThat(generatedSpecialsPerLine).isBetween(sampleSpecialsPerLine * 0.9, sampleSpecialsPerLine * 1.1);
+        assertThat(generated.getCountBySpecialCharPosition().keySet())
+                .isSubsetOf(sample.getCountBySpecialCharPosition().keySet());
+    }
+}
@@ -0,0 +1,157 @@
+package tech.techturningpoint.service;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.failBecauseExceptionWasNotThrown;
+
+public class PasswordDictionaryTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final IPasswordStats stats = new PasswordStats();
+
+    private static List<String> sortedByBytes(final Stream<String> passwords) {
+        List<byte[]> bytes = passwords.distinct().map(p -> p.getBytes(StandardCharsets.UTF_8)).collect(Collectors.toList());
+        bytes.sort((a, b) -> {
+            for (int i = 0; i < Math.min(a.length, b.length); i++) {
+                int diff = (a[i] & 0xFF) - (b[i] & 0xFF);
+                if (diff != 0) {
+                    return diff;
+                }
+            }
+            return a.length - b.length;
+        });
+        return bytes.stream().map(b -> new String(b, StandardCharsets.UTF_8)).collect(Collectors.toList());
+    }
+
+    @Test
+    public void should_query_a_front_coded_dictionary() throws IOException {
+        List<String> expected;
+        try (Stream<String> passwords = stats.readResourceAsStream("10k_most_common.txt")) {
+            expected = sortedByBytes(passwords);
+        }
+        Path path = folder.newFile("common.dict").toPath();
+        try (Stream<String> passwords = stats.readResourceAsStream("10k_most_common.txt")) {
+            PasswordDictionary.write(path, passwords);
+        }
+        PasswordDictionary dictionary = PasswordDictionary.open(path);
+
+        assertThat(dictionary.size()).isEqualTo(expected.size());
+        assertThat(dictionary.stream().collect(Collectors.toList())).isEqualTo(expected);
+        assertThat(dictionary.stream().parallel().collect(Collectors.toList())).isEqualTo(expected);
+        for (int i = 0; i < expected.size(); i += 97) {
+            assertThat(dictionary.get(i)).isEqualTo(expected.get(i));
+            assertThat(dictionary.indexOf(expected.get(i))).isEqualTo(i);
+            assertThat(dictionary.contains(expected.get(i))).isTrue();
+        }
+        assertThat(dictionary.get(expected.size() - 1)).isEqualTo(expected.get(expected.size() - 1));
+        assertThat(dictionary.contains("password")).isTrue();
+        assertThat(dictionary.contains("passwore")).isFalse();
+        assertThat(dictionary.contains("zzzzzzzzzzzzzz")).isFalse();
+        assertThat(dictionary.contains("")).isFalse();
+        assertThat(dictionary.indexOf("pas de mot")).isEqualTo(-1);
+
+        for (String prefix : new String[]{"pass", "a", "", "zzzzzzz", "12"}) {
+            List<String> withPrefix = expected.stream().filter(p -> p.startsWith(prefix)).collect(Collectors.toList());
+            assertThat(dictionary.withPrefix(prefix).collect(Collectors.toList())).isEqualTo(withPrefix);
+        }
+    }
+
+    @Test
+    public void should_keep_duplicates_for_password_stats() throws IOException {
+        Path path = folder.newFile("leaked.dict").toPath();
+        try (Stream<String> passwords = stats.readResourceAsStream("leaked_passwords.txt")) {
+            PasswordDictionary.write(path, passwords);
+        }
+        PasswordReport expected;
+        try (Stream<String> passwords = stats.readResourceAsStream("leaked_passwords.txt")) {
+            expected = stats.getReport(() -> passwords);
+        }
+
+        assertThat(PasswordDictionary.open(path).lineCount()).isEqualTo(24132);
+        assertThat(stats.getReport(() -> stats.readDictionaryAsStream(path, false))).isEqualTo(expected);
+        assertThat(stats.getReport(() -> stats.readDictionaryAsStream(path, true))).isEqualTo(expected);
+    }
+
+    @Test
+    public void should_write_sorted_input_without_loading_it() throws IOException {
+        List<String> passwords = new ArrayList<>(Arrays.asList("a", "a", "ab", "abc", "b", "été", "étés"));
+        Path path = folder.newFile("sorted.dict").toPath();
+        PasswordDictionary.writeSorted(path, passwords.stream());
+        PasswordDictionary dictionary = PasswordDictionary.open(path);
+
+        assertThat(dictionary.stream().collect(Collectors.toList())).isEqualTo(new ArrayList<>(new TreeSet<>(passwords)));
+        assertThat(dictionary.count("a")).isEqualTo(2);
+        assertThat(dictionary.lines().count()).isEqualTo(passwords.size());
+        assertThat(dictionary.withPrefix("ét").collect(Collectors.toList()))
+                .containsExactly("été", "étés");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void should_reject_unsorted_input() throws IOException {
+        PasswordDictionary.writeSorted(folder.newFile("unsorted.dict").toPath(), Stream.of("b", "a"));
+    }
+
+    @Test
+    public void should_handle_an_empty_dictionary() throws IOException {
+        Path path = folder.newFile("empty.dict").toPath();
+        PasswordDictionary.write(path, Stream.empty());
+        PasswordDictionary dictionary = PasswordDictionary.open(path);
+
+        assertThat(dictionary.size()).isEqualTo(0);
+        assertThat(dictionary.contains("a")).isFalse();
+        assertThat(dictionary.stream().count()).isEqualTo(0);
+        assertThat(dictionary.withPrefix("").count()).isEqualTo(0);
+    }
+
+    @Test
+    public void should_reject_corrupted_sizes_in_header() throws IOException {
+        Path path = folder.newFile("corrupted.dict").toPath();
+        PasswordDictionary.write(path, Stream.of("a", "b", "c", "d", "e", "f", "g", "h", "i", "j",
+                "k", "l", "m", "n", "o", "p", "q", "r", "s", "t"));
+        byte[] original = Files.readAllBytes(path);
+        // décalages : taille de bloc 8, nombre de blocs 12, mots 16, lignes 24, position de l'index 32
+        long[][] corruptions = {{8, 0}, {8, -1}, {8, 1}, {12, -1}, {12, 1000}, {16, -1}, {16, 1000},
+                {24, 1}, {32, 0}, {32, 1 << 20}};
+
+        for (long[] corruption : corruptions) {
+            byte[] bytes = original.clone();
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            if (corruption[0] < 16) {
+                buffer.putInt((int) corruption[0], (int) corruption[1]);
+            } else {
+                buffer.putLong((int) corruption[0], corruption[1]);
+            }
+            Files.write(path, bytes);
+            try {
+                PasswordDictionary.open(path);
+                failBecauseExceptionWasNotThrown(IOException.class);
+            } catch (IOException e) {
+                assertThat(e).hasMessageContaining(path.toString());
+            }
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void should_reject_an_invalid_file() throws IOException {
+        Path path = folder.newFile("invalid.dict").toPath();
+        Files.write(path, new byte[]{1, 2, 3});
+        PasswordDictionary.open(path);
+    }
+}
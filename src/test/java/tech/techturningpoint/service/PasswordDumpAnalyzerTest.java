@@ -0,0 +1,109 @@
+package tech.techturningpoint.service;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test de l'analyse concurrente d'un dump découpé en shards.
+ */
+public class PasswordDumpAnalyzerTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final PasswordStats stats = new PasswordStats();
+    private List<String> passwords;
+    private Path dump;
+
+    @Before
+    public void setUp() throws IOException {
+        try (Stream<String> lines = MappedFileLines.lines(stats.getResourcePath("leaked_passwords.txt"), StandardCharsets.UTF_8)) {
+            passwords = lines.collect(Collectors.toList());
+        }
+        dump = folder.newFolder("dump").toPath();
+        Path nested = Files.createDirectory(dump.resolve("nested"));
+        int shards = 7;
+        int shardSize = (passwords.size() + shards - 1) / shards;
+        for (int i = 0; i < shards; i++) {
+            Path dir = i % 2 == 0 ? dump : nested;
+            List<String> shard = passwords.subList(i * shardSize, Math.min(passwords.size(), (i + 1) * shardSize));
+            Files.write(dir.resolve("shard-" + i + ".txt"), shard, StandardCharsets.UTF_8);
+        }
+        Files.write(dump.resolve("README.md"), "pas un shard".getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void should_merge_shards_into_the_global_report() throws Exception {
+        PasswordDumpAnalyzer analyzer = new PasswordDumpAnalyzer(stats, 3, StandardCharsets.UTF_8);
+        List<Integer> progress = new ArrayList<>();
+
+        PasswordDumpAnalyzer.Result result = analyzer.analyze(dump, "**.txt", new PasswordDumpAnalyzer.Listener() {
+            @Override
+            public void shardDone(final Path shard, final PasswordReport report, final int done, final int total) {
+                assertThat(total).isEqualTo(7);
+                progress.add(done);
+            }
+        });
+
+        assertThat(result.isComplete()).isTrue();
+        assertThat(result.getShardCount()).isEqualTo(7);
+        assertThat(progress).containsExactly(1, 2, 3, 4, 5, 6, 7);
+        assertThat(result.getReport()).isEqualTo(stats.getReport(passwords::stream));
+    }
+
+    @Test
+    public void should_match_glob_relative_to_directory() throws Exception {
+        assertThat(PasswordDumpAnalyzer.findShards(dump, "*.txt")).hasSize(4);
+        assertThat(PasswordDumpAnalyzer.findShards(dump, "**.txt")).hasSize(7);
+        assertThat(PasswordDumpAnalyzer.findShards(dump, "**")).hasSize(8);
+    }
+
+    @Test
+    public void should_isolate_failed_shards() throws Exception {
+        List<Path> shards = new ArrayList<>(PasswordDumpAnalyzer.findShards(dump, "*.txt"));
+        Path missing = dump.resolve("missing.txt");
+        shards.add(1, missing);
+        List<Path> failed = new ArrayList<>();
+
+        PasswordDumpAnalyzer.Result result = new PasswordDumpAnalyzer(stats, 2, StandardCharsets.UTF_8)
+                .analyze(shards, new PasswordDumpAnalyzer.Listener() {
+                    @Override
+                    public void shardFailed(final Path shard, final Exception error, final int done, final int total) {
+                        failed.add(shard);
+                    }
+                });
+
+        assertThat(result.isComplete()).isFalse();
+        assertThat(failed).containsExactly(missing);
+        assertThat(result.getFailures()).extracting("shard").containsExactly(missing);
+        assertThat(result.getFailures().get(0).getError()).isInstanceOf(IOException.class);
+
+        List<String> read = new ArrayList<>();
+        for (Path shard : PasswordDumpAnalyzer.findShards(dump, "*.txt")) {
+            read.addAll(Files.readAllLines(shard, StandardCharsets.UTF_8));
+        }
+        assertThat(result.getReport()).isEqualTo(stats.getReport(read::stream));
+    }
+
+    @Test
+    public void should_analyze_empty_dump() throws Exception {
+        PasswordDumpAnalyzer.Result result = new PasswordDumpAnalyzer(stats)
+                .analyze(folder.newFolder("empty").toPath(), "**", PasswordDumpAnalyzer.SILENT);
+
+        assertThat(result.getShardCount()).isEqualTo(0);
+        assertThat(result.getReport().getCount()).isEqualTo(0);
+    }
+}
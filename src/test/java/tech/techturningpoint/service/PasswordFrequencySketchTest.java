@@ -0,0 +1,132 @@
+package tech.techturningpoint.service;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.failBecauseExceptionWasNotThrown;
+
+/**
+ * Test des esquisses de fréquences de mots de passe.
+ */
+public class PasswordFrequencySketchTest {
+
+    private final PasswordStats stats = new PasswordStats();
+
+    /**
+     * Fichier des 10000 mots de passe les plus courants, le mot de rang r répété 10000 / r fois, dans le désordre.
+     */
+    private List<String> skewedPasswords() {
+        List<String> common;
+        try (Stream<String> words = stats.readResourceAsMappedStream("10k_most_common.txt")) {
+            common = words.collect(Collectors.toList());
+        }
+        List<String> passwords = new ArrayList<>();
+        for (int rank = 1; rank <= common.size(); rank++) {
+            for (int i = 0; i < 10000 / rank; i++) {
+                passwords.add(common.get(rank - 1));
+            }
+        }
+        Collections.shuffle(passwords, new Random(42));
+        return passwords;
+    }
+
+    @Test
+    public void should_estimate_distinct_count_within_error_bound() {
+        PasswordFrequencySketch exact = stats.getFrequencySketch(
+                () -> stats.readResourceAsMappedStream("leaked_passwords.txt"), true);
+        PasswordFrequencySketch sketch = stats.getFrequencySketch(
+                () -> stats.readResourceAsMappedStream("leaked_passwords.txt", true), false);
+
+        assertThat(exact.isExact()).isTrue();
+        assertThat(exact.distinctCount()).isEqualTo(24132);
+        assertThat(exact.distinctCountError()).isEqualTo(0.0);
+        assertThat(sketch.count()).isEqualTo(exact.count());
+        double error = Math.abs(sketch.distinctCount() - exact.distinctCount()) / (double) exact.distinctCount();
+        assertThat(error).isLessThan(3 * sketch.distinctCountError());
+
+        // petits nombres : comptage linéaire
+        PasswordFrequencySketch small = new PasswordFrequencySketch();
+        Stream.of("a", "b", "c", "a", "b", "a").forEach(small);
+        assertThat(small.distinctCount()).isEqualTo(3);
+    }
+
+    @Test
+    public void should_find_most_frequent_passwords_within_error_bounds() {
+        List<String> passwords = skewedPasswords();
+        Map<String, Long> counts = new HashMap<>();
+        passwords.forEach(p -> counts.merge(p, 1L, Long::sum));
+
+        PasswordFrequencySketch exact = stats.getFrequencySketch(passwords::stream, true);
+        PasswordFrequencySketch sketch = stats.getFrequencySketch(passwords::parallelStream, false);
+
+        assertThat(exact.topN(3)).extracting("password").containsExactly("password", "123456", "12345678");
+        assertThat(exact.topN(3)).extracting("count").containsExactly(10000L, 5000L, 3333L);
+        assertThat(sketch.monitoredCount()).isLessThanOrEqualTo(PasswordFrequencySketch.DEFAULT_CAPACITY);
+        assertThat(sketch.frequencyError()).isLessThanOrEqualTo(sketch.count() / PasswordFrequencySketch.DEFAULT_CAPACITY);
+        for (PasswordFrequencySketch.Frequency frequency : sketch.topN(100)) {
+            long actual = counts.get(frequency.getPassword());
+            assertThat(frequency.getGuaranteedCount()).isLessThanOrEqualTo(actual);
+            assertThat(frequency.getCount()).isGreaterThanOrEqualTo(actual);
+        }
+        assertThat(sketch.topN(10)).extracting("password")
+                .isEqualTo(exact.topN(10).stream().map(PasswordFrequencySketch.Frequency::getPassword)
+                        .collect(Collectors.toList()));
+    }
+
+    @Test
+    public void should_merge_sketches_without_losing_bounds() {
+        List<String> passwords = skewedPasswords();
+        Map<String, Long> counts = new HashMap<>();
+        passwords.forEach(p -> counts.merge(p, 1L, Long::sum));
+        int half = passwords.size() / 2;
+
+        PasswordFrequencySketch whole = new PasswordFrequencySketch(12, 64);
+        passwords.forEach(whole);
+        PasswordFrequencySketch merged = new PasswordFrequencySketch(12, 64);
+        passwords.subList(0, half).forEach(merged);
+        PasswordFrequencySketch second = new PasswordFrequencySketch(12, 64);
+        passwords.subList(half, passwords.size()).forEach(second);
+        merged.merge(second);
+
+        assertThat(merged.count()).isEqualTo(whole.count());
+        assertThat(merged.distinctCount()).isEqualTo(whole.distinctCount());
+        assertThat(merged.monitoredCount()).isEqualTo(64);
+        for (PasswordFrequencySketch.Frequency frequency : merged.topN(64)) {
+            long actual = counts.get(frequency.getPassword());
+            assertThat(frequency.getGuaranteedCount()).isLessThanOrEqualTo(actual);
+            assertThat(frequency.getCount()).isGreaterThanOrEqualTo(actual);
+        }
+        assertThat(merged.topN(1).get(0).getPassword()).isEqualTo("password");
+    }
+
+    @Test
+    public void should_reject_invalid_parameters() {
+        try {
+            new PasswordFrequencySketch(2, 10);
+            failBecauseExceptionWasNotThrown(IllegalArgumentException.class);
+        } catch (IllegalArgumentException e) {
+            assertThat(e).hasMessageContaining("2");
+        }
+        try {
+            new PasswordFrequencySketch(14, 0);
+            failBecauseExceptionWasNotThrown(IllegalArgumentException.class);
+        } catch (IllegalArgumentException e) {
+            assertThat(e).hasMessageContaining("0");
+        }
+        try {
+            new PasswordFrequencySketch().merge(PasswordFrequencySketch.exact());
+            failBecauseExceptionWasNotThrown(IllegalArgumentException.class);
+        } catch (IllegalArgumentException e) {
+            assertThat(e).hasMessageContaining("exact");
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package tech.techturningpoint.service;
+
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Collector;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.failBecauseExceptionWasNotThrown;
+
+/**
+ * Test des métriques de {@link PasswordStats}.
+ */
+public class PasswordStatsMetricsTest {
+
+    private static final int LEAKED_PASSWORDS = 24132;
+
+    private static Supplier<Stream<String>> readFile(final IPasswordStats stats, final boolean parallel) {
+        return () -> stats.readResourceAsMappedStream("leaked_passwords.txt", parallel);
+    }
+
+    @Test
+    public void should_not_wrap_anything_when_disabled() {
+        PasswordStatsMetrics metrics = new PasswordStatsMetrics();
+        Predicate<String> predicate = s -> true;
+        Collector<String, ?, List<String>> collector = Collectors.toList();
+        Stream<String> stream = Stream.of("a");
+
+        assertThat(metrics.timed(PasswordStatsMetrics.Stage.CLASSIFY, predicate)).isSameAs(predicate);
+        assertThat(metrics.timed(PasswordStatsMetrics.Stage.GROUP, collector)).isSameAs(collector);
+        assertThat(metrics.timedRead(stream)).isSameAs(stream);
+
+        PasswordStats stats = new PasswordStats(metrics);
+        stats.getReport(readFile(stats, false));
+        stats.getAllStrong(readFile(stats, false));
+        assertThat(metrics.getLinesRead()).isEqualTo(0);
+        assertThat(metrics.getMethodCalls()).isEmpty();
+        assertThat(metrics.getGauges()).isEmpty();
+    }
+
+    @Test
+    public void should_reject_configuration_of_shared_disabled_metrics() {
+        PasswordStatsMetrics metrics = PasswordStatsMetrics.DISABLED;
+        metrics.setEnabled(false);
+        try {
+            metrics.setEnabled(true);
+            failBecauseExceptionWasNotThrown(UnsupportedOperationException.class);
+        } catch (UnsupportedOperationException e) {
+            assertThat(metrics.isEnabled()).isFalse();
+        }
+        try {
+            metrics.addReporter(snapshot -> { });
+            failBecauseExceptionWasNotThrown(UnsupportedOperationException.class);
+        } catch (UnsupportedOperationException e) {
+            assertThat(metrics.isEnabled()).isFalse();
+        }
+    }
+
+    @Test
+    public void should_give_same_results_with_metrics() {
+        PasswordStats plain = new PasswordStats();
+        PasswordStats measured = new PasswordStats(PasswordStatsMetrics.enabled());
+
+        for (boolean parallel : new boolean[]{false, true}) {
+            assertThat(measured.getReport(readFile(measured, parallel)))
+                    .isEqualTo(plain.getReport(readFile(plain, parallel)));
+            assertThat(measured.getAllWithNumbers(readFile(measured, parallel)))
+                    .isEqualTo(plain.getAllWithNumbers(readFile(plain, parallel)));
+            assertThat(measured.countBySpecialCharPosition(readFile(measured, parallel)))
+                    .isEqualTo(plain.countBySpecialCharPosition(readFile(plain, parallel)));
+            assertThat(measured.getAllBySpecialCharPosition(readFile(measured, parallel)))
+                    .isEqualTo(plain.getAllBySpecialCharPosition(readFile(plain, parallel)));
+        }
+    }
+
+    @Test
+    public void should_count_lines_bytes_and_stages() {
+        PasswordStatsMetrics metrics = PasswordStatsMetrics.enabled();
+        PasswordStats stats = new PasswordStats(metrics);
+
+        PasswordReport report = stats.getReport(readFile(stats, true));
+        stats.getAllStrong(readFile(stats, false));
+
+        assertThat(metrics.getLinesRead()).isEqualTo(2L * LEAKED_PASSWORDS);
+        assertThat(metrics.getBytesRead()).isGreaterThan(metrics.getLinesRead());
+        assertThat(metrics.getReadNanos()).isGreaterThan(0);
+        assertThat(metrics.getClassifyNanos()).isGreaterThan(0);
+        assertThat(metrics.getGroupNanos()).isGreaterThan(0);
+        assertThat(metrics.getMethodCalls()).containsEntry("getReport", 1L).containsEntry("getAllStrong", 1L);
+        assertThat(metrics.getMethodNanos().get("getReport")).isGreaterThan(0);
+        assertThat(metrics.getLinesPerSecond()).isGreaterThan(0);
+        assertThat(metrics.getBytesPerSecond()).isGreaterThan(metrics.getLinesPerSecond());
+        assertThat(metrics.getGauges()).containsEntry("report.positions",
+                (long) report.getCountBySpecialCharPosition().size());
+
+        metrics.reset();
+        assertThat(metrics.getLinesRead()).isEqualTo(0);
+        assertThat(metrics.getMethodCalls()).isEmpty();
+    }
+
+    @Test
+    public void should_set_histogram_gauges() {
+        PasswordStatsMetrics metrics = PasswordStatsMetrics.enabled();
+        PasswordStats stats = new PasswordStats(metrics);
+
+        SpecialCharHistogram histogram = stats.getSpecialCharHistogram(readFile(stats, false));
+        SpecialCharPositionIndex index = stats.getSpecialCharPositionIndex(readFile(stats, false));
+
+        assertThat(metrics.getGauges())
+                .containsEntry("specialCharHistogram.positions", (long) histogram.toMap().size())
+                .containsEntry("specialCharPositionIndex.distinct", (long) index.distinctCount())
+                .containsEntry("specialCharPositionIndex.occurrences", (long) index.occurrenceCount());
+    }
+
+    @Test
+    public void should_measure_utf8_length() {
+        for (String s : Arrays.asList("", "abc", "\u00e9t\u00e9", "\u20acuro", "\uD83D\uDE00!", "\uD83D", "a\uDE00b")) {
+            assertThat(PasswordStatsMetrics.utf8Length(s))
+                    .isEqualTo(s.getBytes(StandardCharsets.UTF_8).length);
+        }
+    }
+
+    @Test
+    public void should_report_snapshots() {
+        PasswordStatsMetrics metrics = new PasswordStatsMetrics();
+        List<PasswordStatsMetrics.Snapshot> snapshots = new ArrayList<>();
+        metrics.addReporter(snapshots::add);
+        PasswordStats stats = new PasswordStats(metrics);
+
+        stats.printStats("leaked_passwords.txt");
+        assertThat(snapshots).isEmpty();
+
+        metrics.setEnabled(true);
+        stats.printStats("leaked_passwords.txt");
+        assertThat(snapshots).hasSize(1);
+        assertThat(snapshots.get(0).getLinesRead()).isEqualTo(LEAKED_PASSWORDS);
+        assertThat(snapshots.get(0).getMethodCalls()).containsEntry("getReport", 1L);
+        assertThat(snapshots.get(0).getStageNanos(PasswordStatsMetrics.Stage.CLASSIFY)).isGreaterThan(0);
+    }
+
+    @Test
+    public void should_expose_metrics_through_jmx() throws Exception {
+        PasswordStatsMetrics metrics = PasswordStatsMetrics.enabled();
+        PasswordStats stats = new PasswordStats(metrics);
+        stats.getReport(readFile(stats, false));
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = metrics.registerMBean("test");
+        try {
+            assertThat(server.getAttribute(name, "LinesRead")).isEqualTo((long) LEAKED_PASSWORDS);
+            assertThat(server.getAttribute(name, "Enabled")).isEqualTo(true);
+            assertThat(server.getAttribute(name, "MethodCalls")).isNotNull();
+
+            server.invoke(name, "reset", new Object[0], new String[0]);
+            assertThat(metrics.getLinesRead()).isEqualTo(0);
+
+            server.setAttribute(name, new javax.management.Attribute("Enabled", false));
+            assertThat(metrics.isEnabled()).isFalse();
+        } finally {
+            server.unregisterMBean(name);
+        }
+    }
+}
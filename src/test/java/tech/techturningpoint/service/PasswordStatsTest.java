@@ -8,6 +8,7 @@ import org.junit.Test;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -86,6 +87,33 @@ public class PasswordStatsTest {
         assertThat(pstats.getIndexOfSpecialChar("clo-se-up")).isEqualTo(Lists.newArrayList(3,6));
     }
 
+    @Test
+    public void should_get_the_index_of_special_char_without_allocation() {
+        int[] positions = new int[2];
+        assertThat(pstats.getIndexOfSpecialChar("clo-se-up", positions)).isEqualTo(2);
+        assertThat(positions).containsExactly(3, 6);
+        assertThat(pstats.getIndexOfSpecialChar("a\\b!c", positions)).isEqualTo(2);
+        assertThat(positions).containsExactly(1, 3);
+        assertThat(pstats.getIndexOfSpecialChar("-a-b-", positions)).isEqualTo(3);
+        assertThat(positions).containsExactly(0, 2);
+        assertThat(pstats.getIndexOfSpecialChar("closeup", positions)).isEqualTo(0);
+    }
+
+    @Test
+    public void should_merge_special_char_histograms() {
+        SpecialCharHistogram histogram = pstats.getSpecialCharHistogram(readFile());
+        assertThat(histogram.get(3)).isEqualTo(102);
+        assertThat(histogram.get(500)).isEqualTo(0);
+
+        SpecialCharHistogram other = new SpecialCharHistogram();
+        other.accept(3);
+        other.accept(200);
+        histogram.merge(other);
+        assertThat(histogram.get(3)).isEqualTo(103);
+        assertThat(histogram.get(200)).isEqualTo(1);
+        assertThat(histogram.toMap()).hasSize(19);
+    }
+
     @Test
     public void count_simple_stats() {
 //        Supplier<Stream<String>> allPasswords = () -> pstats.readResourceAsStream("10k_most_common.txt");
@@ -123,6 +151,25 @@ public class PasswordStatsTest {
                 .contains("Catchmeifyoucan!", "Whenwillthisend?", "Professorpeanut!", "Mybeautifulkids!");
     }
 
+    @Test
+    public void should_query_special_char_position_index() {
+        Supplier<Stream<String>> allPasswords = readFile();
+        SpecialCharPositionIndex index = pstats.getSpecialCharPositionIndex(allPasswords);
+        assertThat(index.occurrenceCount()).isEqualTo(804);
+        assertThat(index.distinctCount()).isLessThanOrEqualTo(804);
+        assertThat(index.positions().count()).isEqualTo(18);
+        assertThat(index.getAllWithSpecialCharAt(15))
+                .hasSize(4)
+                .contains("Catchmeifyoucan!", "Whenwillthisend?", "Professorpeanut!", "Mybeautifulkids!");
+        assertThat(index.getAllWithSpecialCharAt(200)).isEmpty();
+
+        Map<Integer, List<String>> posSpecialCharPwd = pstats.getAllBySpecialCharPosition(allPasswords);
+        List<String> both = Lists.newArrayList();
+        posSpecialCharPwd.get(3).stream().filter(posSpecialCharPwd.get(8)::contains).forEach(both::add);
+        assertThat(Lists.newArrayList(index.getAllWithSpecialCharAt(3, 8))).isEqualTo(both);
+        assertThat(index.getAllWithSpecialCharAt(3, 8)).hasSize(both.size());
+    }
+
     @Test
     public void should_get_all_passwords_with_only_one_sp_char_at_end() throws Exception {
         Supplier<Stream<String>> allPasswords = readFile();
@@ -131,6 +178,59 @@ public class PasswordStatsTest {
             .contains("Mybeth!", "Mywholefamily!", "Comeonbaby!");
     }
 
+    @Test
+    public void should_compute_report_in_one_pass() {
+        Supplier<Stream<String>> allPasswords = readFile();
+        PasswordReport report = pstats.getReport(allPasswords);
+        assertThat(report.getCount()).isEqualTo(24132);
+        assertThat(report.getCountStrong()).isEqualTo(pstats.getAllStrong(allPasswords).size());
+        assertThat(report.getCountWithSpecialChars()).isEqualTo(804);
+        assertThat(report.getCountWithNumbers()).isEqualTo(14945);
+        assertThat(report.getCountWithUppercaseAndLowercase()).isEqualTo(13457);
+        assertThat(report.getCountWithOnlyOneLastSpecialChar()).isEqualTo(295);
+        assertThat(report.getCountBySpecialCharPosition()).isEqualTo(pstats.countBySpecialCharPosition(allPasswords));
+    }
+
+    @Test
+    public void should_accumulate_stats_incrementally() {
+        PasswordReport expected = pstats.getReport(readFile());
+        List<String> passwords = pstats.readResourceAsStream("leaked_passwords.txt").collect(Collectors.toList());
+        List<String> firstHalf = passwords.subList(0, passwords.size() / 2);
+        List<String> secondHalf = passwords.subList(passwords.size() / 2, passwords.size());
+
+        PasswordStatsAccumulator oneByOne = new PasswordStatsAccumulator((PasswordStats) pstats);
+        firstHalf.forEach(oneByOne);
+        assertThat(oneByOne.snapshot().getCount()).isEqualTo(firstHalf.size());
+        oneByOne.acceptAll(secondHalf.parallelStream());
+        assertThat(oneByOne.snapshot()).isEqualTo(expected);
+
+        PasswordStatsAccumulator left = new PasswordStatsAccumulator((PasswordStats) pstats);
+        left.acceptAll(firstHalf);
+        PasswordStatsAccumulator right = new PasswordStatsAccumulator((PasswordStats) pstats);
+        right.acceptAll(secondHalf);
+        assertThat(left.merge(right).snapshot()).isEqualTo(expected);
+        assertThat(right.snapshot().getCount()).isEqualTo(secondHalf.size());
+    }
+
+    @Test
+    public void should_get_same_results_in_parallel() {
+        Supplier<Stream<String>> sequential = () -> pstats.readResourceAsMappedStream("leaked_passwords.txt", false);
+        Supplier<Stream<String>> parallel = () -> pstats.readResourceAsMappedStream("leaked_passwords.txt", true);
+        try (Stream<String> opened = parallel.get()) {
+            assertThat(opened.isParallel()).isTrue();
+        }
+        assertThat(pstats.getAllStrong(parallel)).isEqualTo(pstats.getAllStrong(sequential));
+        assertThat(pstats.getAllWithSpecialChars(parallel)).isEqualTo(pstats.getAllWithSpecialChars(sequential));
+        assertThat(pstats.getAllWithNumbers(parallel)).isEqualTo(pstats.getAllWithNumbers(sequential));
+        assertThat(pstats.getAllWithUppercaseAndLowercase(parallel))
+                .isEqualTo(pstats.getAllWithUppercaseAndLowercase(sequential));
+        assertThat(pstats.getAllWithOnlyOneLastSpecialChar(parallel))
+                .isEqualTo(pstats.getAllWithOnlyOneLastSpecialChar(sequential));
+        assertThat(pstats.countBySpecialCharPosition(parallel)).isEqualTo(pstats.countBySpecialCharPosition(sequential));
+        assertThat(pstats.getAllBySpecialCharPosition(parallel)).isEqualTo(pstats.getAllBySpecialCharPosition(sequential));
+        assertThat(pstats.getReport(parallel)).isEqualTo(pstats.getReport(sequential));
+    }
+
     @Test
     public void should_print_stats() {
         pstats.printStats("leaked_passwords.txt");
@@ -0,0 +1,114 @@
+package tech.techturningpoint.service;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
+
+/**
+ * Test du moteur de score de force des mots de passe.
+ */
+public class PasswordStrengthScorerTest {
+
+    private static final PasswordStats STATS = new PasswordStats();
+    private static PasswordStrengthScorer scorer;
+
+    @BeforeClass
+    public static void setUpClass() {
+        scorer = STATS.readResourceAsScorer("10k_most_common.txt");
+    }
+
+    private static double log2(final double x) {
+        return Math.log(x) / Math.log(2);
+    }
+
+    @Test
+    public void should_score_dictionary_words_by_rank() {
+        assertThat(scorer.dictionarySize()).isGreaterThan(9000);
+        assertThat(scorer.entropy("")).isEqualTo(0.0);
+        // "password" est le premier mot du dictionnaire
+        assertThat(scorer.entropy("password")).isEqualTo(0.0);
+        assertThat(scorer.entropy("Password")).isEqualTo(1.0);
+        assertThat(scorer.entropy("PASSWORD")).isEqualTo(1.0);
+        assertThat(scorer.entropy("PassWord")).isGreaterThan(1.0);
+        assertThat(scorer.entropy("qwerty")).isLessThanOrEqualTo(log2(5) + 1e-6);
+        assertThat(scorer.score("password")).isEqualTo(0);
+        // Un mot suivi de chiffres reste faible
+        assertThat(scorer.entropy("password2024")).isLessThan(scorer.entropy("xqzvbkmw2024"));
+    }
+
+    @Test
+    public void should_detect_repeats_sequences_and_keyboard_walks() {
+        PasswordStrengthScorer empty = PasswordStrengthScorer.of(Stream.empty());
+        double brute = 10 * log2(26);
+
+        assertThat(empty.entropy("aaaaaaaaaa")).isLessThan(10);
+        assertThat(empty.entropy("abcdefghij")).isLessThan(10);
+        assertThat(empty.entropy("jihgfedcba")).isLessThan(10);
+        assertThat(empty.entropy("9876543210")).isLessThan(10);
+        assertThat(empty.entropy("qwertyuiop")).isLessThan(30).isLessThan(brute);
+        assertThat(empty.entropy("azertyuiop")).isLessThan(30);
+        assertThat(empty.entropy("1qaz2wsx3edc")).isLessThan(empty.entropy("8rmp2jvk5tgn"));
+        assertThat(empty.entropy("xkvqmbwzjf")).isEqualTo(brute, offset(1e-9));
+
+        assertThat(PasswordStrengthScorer.KeyboardLayouts.adjacent('q', 'w')).isTrue();
+        assertThat(PasswordStrengthScorer.KeyboardLayouts.adjacent('q', 'a')).isTrue();
+        assertThat(PasswordStrengthScorer.KeyboardLayouts.adjacent('1', 'q')).isTrue();
+        assertThat(PasswordStrengthScorer.KeyboardLayouts.adjacent('a', 'z')).isTrue();
+        assertThat(PasswordStrengthScorer.KeyboardLayouts.adjacent('Q', 'W')).isTrue();
+        assertThat(PasswordStrengthScorer.KeyboardLayouts.adjacent('q', 'p')).isFalse();
+        assertThat(PasswordStrengthScorer.KeyboardLayouts.adjacent('a', '\u4e00')).isFalse();
+    }
+
+    @Test
+    public void should_bound_entropy_by_brute_force() {
+        for (String password : new String[]{"xK#9vTq!2mZ", "Tr0ub4dor&3", "correcthorsebatterystaple", "\u00e9t\u00e9\u4e00"}) {
+            double bits = scorer.entropy(password);
+            assertThat(bits).isGreaterThan(0);
+            assertThat(bits).isLessThanOrEqualTo(password.length() * log2(26 + 26 + 10 + 33 + 100) + 1e-9);
+        }
+        assertThat(scorer.score("xK#9vTq!2mZ")).isEqualTo(4);
+        StringBuilder longPassword = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            longPassword.append((char) ('a' + (i * 7) % 26));
+        }
+        assertThat(scorer.entropy(longPassword)).isGreaterThan(scorer.entropy(longPassword.substring(0, 100)));
+    }
+
+    @Test(timeout = 5000)
+    public void should_score_very_long_passwords_in_linear_time() {
+        StringBuilder repeated = new StringBuilder();
+        StringBuilder sequences = new StringBuilder();
+        for (int i = 0; i < 100000; i++) {
+            repeated.append('a');
+            sequences.append((char) ('0' + i % 10));
+        }
+        assertThat(scorer.entropy(repeated)).isLessThan(30);
+        assertThat(scorer.entropy(sequences)).isLessThan(sequences.length());
+    }
+
+    @Test
+    public void should_build_score_histogram() {
+        Supplier<Stream<String>> sequential = () -> STATS.readResourceAsMappedStream("leaked_passwords.txt");
+        Supplier<Stream<String>> parallel = () -> STATS.readResourceAsMappedStream("leaked_passwords.txt", true);
+
+        PasswordScoreHistogram histogram = STATS.getScoreHistogram(sequential, scorer);
+
+        assertThat(histogram.total()).isEqualTo(24132);
+        long levels = 0;
+        for (int level = 0; level < PasswordScoreHistogram.LEVELS; level++) {
+            levels += histogram.getLevelCount(level);
+        }
+        assertThat(levels).isEqualTo(histogram.total());
+        assertThat(histogram.toMap().values().stream().mapToLong(Long::longValue).sum()).isEqualTo(histogram.total());
+        assertThat(histogram.averageBits()).isGreaterThan(0);
+
+        PasswordScoreHistogram inParallel = STATS.getScoreHistogram(parallel, scorer);
+        assertThat(inParallel.toMap()).isEqualTo(histogram.toMap());
+        assertThat(inParallel.getLevelCount(0)).isEqualTo(histogram.getLevelCount(0));
+    }
+}
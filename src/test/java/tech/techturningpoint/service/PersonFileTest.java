@@ -0,0 +1,153 @@
+package tech.techturningpoint.service;
+
+import org.assertj.core.util.Lists;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import tech.techturningpoint.model.Artiste;
+import tech.techturningpoint.model.Person;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PersonFileTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void should_write_and_read_persons_lazily() throws IOException {
+        Person eric = new Person("Eric", 60, "M");
+        Person walter = new Person("Walter", 56, "homme");
+        walter.chef = Optional.of(eric);
+        walter.dansMonIpod = Lists.newArrayList(new Artiste("Prince", 15), new Artiste("Dr John", 20));
+        Person saul = new Person("Sàul", -3, null);
+        saul.chef = Optional.of(walter);
+        saul.dansMonIpod = Lists.newArrayList(new Artiste("Prince", 15), new Artiste(null, 2.5));
+        Path path = folder.newFile("persons.bin").toPath();
+
+        PersonFile.write(path, Lists.newArrayList(saul, walter));
+        PersonFile file = PersonFile.open(path);
+
+        assertThat(file.size()).isEqualTo(3);
+        assertThat(file.getNom(0)).isEqualTo("Sàul");
+        assertThat(file.getAge(0)).isEqualTo(-3);
+        assertThat(file.getSex(0)).isNull();
+        assertThat(file.getSex(1)).isEqualTo("homme");
+        assertThat(file.getChefIndex(0)).isEqualTo(1);
+        assertThat(file.getChefIndex(1)).isEqualTo(2);
+        assertThat(file.getChefIndex(2)).isEqualTo(PersonFile.NONE);
+        assertThat(file.playlistEnd(0) - file.playlistStart(0)).isEqualTo(2);
+        assertThat(file.artistCount()).isEqualTo(3);
+        assertThat(file.getArtistName(file.getArtistId(file.playlistStart(0) + 1))).isNull();
+        assertThat(file.getArtistRanking(file.getArtistId(file.playlistStart(0) + 1))).isEqualTo(2.5);
+
+        Person read = file.get(0);
+        assertThat(read.nom).isEqualTo("Sàul");
+        assertThat(read.chef.get().nom).isEqualTo("Walter");
+        assertThat(read.chef.get().chef.get().nom).isEqualTo("Eric");
+        assertThat(read.chef.get().chef.get().dansMonIpod).isEmpty();
+        assertThat(read.dansMonIpod).extracting("nom").containsExactly("Prince", null);
+
+        List<Person> all = file.readAll();
+        assertThat(all.get(0).chef.get()).isSameAs(all.get(1));
+        assertThat(all.get(0).dansMonIpod.get(0)).isSameAs(all.get(1).dansMonIpod.get(0));
+    }
+
+    @Test
+    public void should_serve_exercices_like_the_original_population() throws IOException {
+        List<Person> persons = TestPersons.random(3000, 9);
+        for (int i = 0; i < 10; i++) {
+            persons.get(i).setAge(100000 * i);
+        }
+        Path path = folder.newFile("random.bin").toPath();
+        PersonFile.write(path, persons);
+        PersonFile file = PersonFile.open(path);
+        List<Person> read = file.readAll();
+        IExerciceStream exo = new ExerciceStream();
+
+        assertThat(file.size()).isEqualTo(persons.size());
+        assertThat(exo.getNamesSortedByAge(file)).isEqualTo(exo.getNamesSortedByAge(persons));
+        assertThat(exo.averageAgeBySex(read)).isEqualTo(exo.averageAgeBySex(persons));
+        assertThat(exo.getMainstreamMusicListenersJava8(read)).extracting("nom")
+                .containsExactly(exo.getMainstreamMusicListenersJava8(persons).stream().map(p -> p.nom).toArray());
+    }
+
+    @Test
+    public void should_keep_chef_cycles() throws IOException {
+        Person a = new Person("A", 30, "M");
+        Person b = new Person("B", 40, "M");
+        a.chef = Optional.of(b);
+        b.chef = Optional.of(a);
+        Path path = folder.newFile("cycle.bin").toPath();
+
+        PersonFile.write(path, Lists.newArrayList(a, b));
+        Person read = PersonFile.open(path).get(0);
+
+        assertThat(read.chef.get().chef.get()).isSameAs(read);
+    }
+
+    @Test
+    public void should_build_long_chef_chains_and_tail_cycles() throws IOException {
+        List<Person> persons = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            persons.add(new Person("P" + i, i, "M"));
+            if (i > 0) {
+                persons.get(i - 1).chef = Optional.of(persons.get(i));
+            }
+        }
+        // la fin de la chaîne reboucle sur la personne 4000
+        persons.get(4999).chef = Optional.of(persons.get(4000));
+        Path path = folder.newFile("chain.bin").toPath();
+
+        PersonFile.write(path, persons);
+        Person read = PersonFile.open(path).get(0);
+
+        Person current = read;
+        Person cycleStart = null;
+        for (int i = 0; i < 5000; i++) {
+            assertThat(current.nom).isEqualTo("P" + i);
+            if (i == 4000) {
+                cycleStart = current;
+            }
+            current = current.chef.get();
+        }
+        assertThat(current).isSameAs(cycleStart);
+    }
+
+    @Test(expected = IOException.class)
+    public void should_reject_negative_header_counts() throws IOException {
+        Path path = folder.newFile("negative.bin").toPath();
+        PersonFile.write(path, TestPersons.random(100, 1));
+        byte[] bytes = Files.readAllBytes(path);
+        // nombre de sexes, cinquième entier de l'en-tête
+        ByteBuffer.wrap(bytes).putInt(4 * Integer.BYTES, -1);
+        Files.write(path, bytes);
+        PersonFile.open(path);
+    }
+
+    @Test(expected = IOException.class)
+    public void should_reject_an_invalid_file() throws IOException {
+        File file = folder.newFile("invalid.bin");
+        Files.write(file.toPath(), new byte[]{1, 2, 3});
+        PersonFile.open(file.toPath());
+    }
+
+    @Test(expected = IOException.class)
+    public void should_reject_a_truncated_file() throws IOException {
+        Path path = folder.newFile("truncated.bin").toPath();
+        PersonFile.write(path, TestPersons.random(100, 1));
+        byte[] bytes = Files.readAllBytes(path);
+        Files.write(path, Arrays.copyOf(bytes, bytes.length - 1));
+        PersonFile.open(path);
+    }
+}
@@ -0,0 +1,77 @@
+package tech.techturningpoint.service;
+
+import org.assertj.core.util.Lists;
+import org.junit.Test;
+import tech.techturningpoint.model.Artiste;
+import tech.techturningpoint.model.Person;
+
+import java.util.IntSummaryStatistics;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.data.MapEntry.entry;
+
+public class PersonStatsSummaryTest {
+
+    @Test
+    public void should_compute_all_stats_in_one_pass() {
+        Person batman = new Person("Batman", 35, "M");
+        batman.dansMonIpod = Lists.newArrayList(new Artiste("Lady Gaga", 3));
+        List<Person> heroes = Lists.newArrayList(
+                batman,
+                new Person("Spiderman", 18, "homme"),
+                new Person("SuperDupont", 51, "M"),
+                new Person("Catwoman", 22, "F"));
+
+        PersonStatsSummary summary = heroes.stream().collect(PersonStatsSummary.collector());
+
+        IntSummaryStatistics ages = summary.getAgeStatistics();
+        assertThat(ages.getCount()).isEqualTo(4);
+        assertThat(ages.getSum()).isEqualTo(126);
+        assertThat(ages.getMin()).isEqualTo(18);
+        assertThat(ages.getMax()).isEqualTo(51);
+        assertThat(summary.getAverageAgeMale()).isEqualTo(104 / 3.0);
+        assertThat(summary.getAverageAgeByInitial('S')).isEqualTo(34.5);
+        assertThat(summary.getAverageAgeByInitial('Z')).isEqualTo(0);
+        assertThat(summary.getAverageAgeBySex()).contains(entry("M", 43.0), entry("F", 22.0), entry("homme", 18.0));
+        assertThat(summary.getAgeStatisticsByInitial().get('C').getMax()).isEqualTo(22);
+        assertThat(summary.getMainstreamListenerCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void should_get_same_summary_in_parallel() {
+        List<Person> persons = TestPersons.random(20000, 7);
+        PersonStatsSummary sequential = persons.stream().collect(PersonStatsSummary.collector());
+        PersonStatsSummary parallel = persons.parallelStream().collect(PersonStatsSummary.collector());
+
+        assertThat(parallel.getAgeStatistics().toString()).isEqualTo(sequential.getAgeStatistics().toString());
+        assertThat(parallel.getAverageAgeBySex()).isEqualTo(sequential.getAverageAgeBySex());
+        assertThat(parallel.getAverageAgeByInitial('P')).isEqualTo(sequential.getAverageAgeByInitial('P'));
+        assertThat(parallel.getMainstreamListenerCount()).isEqualTo(sequential.getMainstreamListenerCount());
+        assertThat(parallel.getMainstreamListenerCount())
+                .isEqualTo(new ExerciceStream().getMainstreamMusicListenersJava8(persons).size());
+    }
+
+    @Test
+    public void should_match_dedicated_averages() {
+        List<Person> persons = TestPersons.random(20000, 11);
+        ExerciceStream exo = new ExerciceStream();
+        PersonStatsSummary summary = exo.summarize(persons);
+
+        assertThat(summary.getAverageAge()).isEqualTo(exo.averageAge(persons));
+        assertThat(summary.getAverageAgeMale()).isEqualTo(exo.averageAgeMale(persons));
+        assertThat(summary.getAverageAgeByInitial('P')).isEqualTo(exo.averageAgeByInitial(persons, "P"));
+        assertThat(summary.getAverageAgeBySex()).isEqualTo(exo.averageAgeBySex(persons));
+    }
+
+    @Test
+    public void should_not_expose_internal_statistics() {
+        PersonStatsSummary summary = Lists.newArrayList(new Person("Batman", 35, "M")).stream()
+                .collect(PersonStatsSummary.collector());
+        summary.getAgeStatistics().accept(100);
+        summary.getAgeStatisticsBySex().get("M").accept(100);
+
+        assertThat(summary.getAverageAge()).isEqualTo(35.0);
+        assertThat(summary.getAverageAgeMale()).isEqualTo(35.0);
+    }
+}
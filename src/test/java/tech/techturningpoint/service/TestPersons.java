@@ -0,0 +1,62 @@
+package tech.techturningpoint.service;
+
+import tech.techturningpoint.model.Artiste;
+import tech.techturningpoint.model.Person;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Populations de test, aléatoires à graine fixe.
+ */
+final class TestPersons {
+
+    private TestPersons() {
+    }
+
+    /**
+     * Noms et sexes renseignés, jusqu'à trois artistes par playlist.
+     */
+    static List<Person> random(final int size, final long seed) {
+        return random(size, seed, false);
+    }
+
+    /**
+     * @param withNulls true pour qu'environ une personne sur 50 n'ait pas de nom, et une sur 50 pas de sexe
+     */
+    static List<Person> random(final int size, final long seed, final boolean withNulls) {
+        Random random = new Random(seed);
+        String[] sexes = {"M", "F", "X"};
+        List<Person> persons = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            String nom = "P" + (char) ('A' + random.nextInt(26)) + random.nextInt(size);
+            String sexe = sexes[random.nextInt(sexes.length)];
+            if (withNulls && random.nextInt(50) == 0) {
+                nom = null;
+            }
+            if (withNulls && random.nextInt(50) == 0) {
+                sexe = null;
+            }
+            Person person = new Person(nom, random.nextInt(100), sexe);
+            person.dansMonIpod = new ArrayList<>();
+            for (int j = random.nextInt(4); j > 0; j--) {
+                person.dansMonIpod.add(new Artiste("A" + random.nextInt(50), 1 + random.nextInt(100)));
+            }
+            persons.add(person);
+        }
+        return persons;
+    }
+
+    /**
+     * Personnes "P0", "P1"... d'âges tirés dans [minAge, minAge + ageRange), sans playlist.
+     */
+    static List<Person> withAges(final int size, final int minAge, final int ageRange, final long seed) {
+        Random random = new Random(seed);
+        List<Person> persons = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            persons.add(new Person("P" + i, minAge + random.nextInt(ageRange), "M"));
+        }
+        return persons;
+    }
+}